@@ -32,16 +32,29 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import uis.edu.co.appointments.dto.ApiResponse;
+import uis.edu.co.appointments.dto.AppointmentSeriesResult;
+import uis.edu.co.appointments.dto.BatchAppointmentRequest;
+import uis.edu.co.appointments.dto.BatchAppointmentResult;
 import uis.edu.co.appointments.dto.CompleteAppointmentRequest;
+import uis.edu.co.appointments.dto.ConfirmHoldRequest;
 import uis.edu.co.appointments.dto.DashboardStatsDTO;
+import uis.edu.co.appointments.dto.FreeSlotDTO;
 import uis.edu.co.appointments.dto.OperatorStats;
 import uis.edu.co.appointments.dto.RateOperatorRequest;
+import uis.edu.co.appointments.dto.RecurringAppointmentRequest;
+import uis.edu.co.appointments.dto.SlotHoldRequest;
 import uis.edu.co.appointments.dto.UserAppointmentStats;
 import uis.edu.co.appointments.models.Appointment;
 import uis.edu.co.appointments.models.AppointmentStatus;
 import uis.edu.co.appointments.models.User;
 import uis.edu.co.appointments.security.UserDetailsImpl;
+import uis.edu.co.appointments.service.AppointmentBatchService;
+import uis.edu.co.appointments.service.AppointmentConflictException;
+import uis.edu.co.appointments.service.AppointmentSeriesService;
 import uis.edu.co.appointments.service.AppointmentService;
+import uis.edu.co.appointments.service.FreeSlotService;
+import uis.edu.co.appointments.service.SlotHoldRegistry.SlotHold;
+import uis.edu.co.appointments.service.SlotHoldService;
 import uis.edu.co.appointments.service.UserService;
 import uis.edu.co.appointments.util.DateRangeHelper;
 import uis.edu.co.appointments.util.DateRangeHelper.DateRange;
@@ -54,10 +67,22 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
     @SuppressWarnings("unused")
     private final UserService userService;
-
-    public AppointmentController(AppointmentService appointmentService, UserService userService) {
+    private final FreeSlotService freeSlotService;
+    private final AppointmentBatchService appointmentBatchService;
+    private final AppointmentSeriesService appointmentSeriesService;
+    private final SlotHoldService slotHoldService;
+
+    public AppointmentController(AppointmentService appointmentService, UserService userService,
+                                 FreeSlotService freeSlotService,
+                                 AppointmentBatchService appointmentBatchService,
+                                 AppointmentSeriesService appointmentSeriesService,
+                                 SlotHoldService slotHoldService) {
         this.appointmentService = appointmentService;
         this.userService = userService;
+        this.freeSlotService = freeSlotService;
+        this.appointmentBatchService = appointmentBatchService;
+        this.appointmentSeriesService = appointmentSeriesService;
+        this.slotHoldService = slotHoldService;
     }
 
     @GetMapping
@@ -150,6 +175,9 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Cita creada exitosamente", saved));
             
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), e.getConflicts()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -160,6 +188,148 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Crear varias citas en una sola operación (solo ADMIN)
+     * Responde el resultado de cada cita: CREATED, CONFLICT o INVALID
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> createAppointmentsBatch(@Valid @RequestBody BatchAppointmentRequest request) {
+        try {
+            List<BatchAppointmentResult> results = appointmentBatchService.createAll(request.getAppointments());
+            long created = results.stream()
+                .filter(r -> BatchAppointmentResult.CREATED.equals(r.getStatus()))
+                .count();
+
+            return ResponseEntity.ok(ApiResponse.success(
+                created + " de " + results.size() + " cita(s) creadas", results));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error al crear las citas: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Apartar una franja por unos minutos mientras el usuario completa el formulario
+     * POST /api/appointments/holds
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<?> createHold(
+            @Valid @RequestBody SlotHoldRequest request,
+            Authentication authentication) {
+
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            String roleName = userDetails.getRoleName();
+
+            if (!"USUARIO".equalsIgnoreCase(roleName) && !"ADMIN".equalsIgnoreCase(roleName)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("No tienes permisos para crear citas"));
+            }
+
+            SlotHold hold = slotHoldService.create(request, userDetails.getId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Franja apartada hasta " + hold.expiresAt(), hold));
+
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), e.getConflicts()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error al apartar la franja: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Confirmar un apartado: crea la cita con el operario y horario apartados
+     * POST /api/appointments/holds/{holdId}/confirm
+     */
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(
+            @PathVariable String holdId,
+            @Valid @RequestBody ConfirmHoldRequest request,
+            Authentication authentication) {
+
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            Appointment saved = slotHoldService.confirm(holdId, userDetails.getId(), request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Cita creada exitosamente", saved));
+
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), e.getConflicts()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error al confirmar el apartado: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Liberar un apartado antes de que venza
+     * DELETE /api/appointments/holds/{holdId}
+     */
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> cancelHold(@PathVariable String holdId, Authentication authentication) {
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            slotHoldService.cancel(holdId, userDetails.getId());
+            return ResponseEntity.ok(ApiResponse.success("Apartado liberado"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Crear una serie de citas recurrentes (USUARIO para sí mismo, ADMIN para cualquier usuario)
+     */
+    @PostMapping("/series")
+    public ResponseEntity<?> createAppointmentSeries(
+            @Valid @RequestBody RecurringAppointmentRequest request,
+            Authentication authentication) {
+
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            String roleName = userDetails.getRoleName();
+
+            if (!"USUARIO".equalsIgnoreCase(roleName) && !"ADMIN".equalsIgnoreCase(roleName)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("No tienes permisos para crear citas"));
+            }
+
+            Long userId = userDetails.getId();
+            if ("ADMIN".equalsIgnoreCase(roleName)) {
+                if (request.getUserId() == null) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.error("Debe especificar el usuario para la serie"));
+                }
+                userId = request.getUserId();
+            }
+
+            AppointmentSeriesResult result = appointmentSeriesService.createSeries(request, userId);
+            if (result.getSeriesId() == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Algunas fechas de la serie no están disponibles", result));
+            }
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Serie creada: " + result.getCreated() + " cita(s)", result));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error al crear la serie: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateAppointment(
             @PathVariable Long id,
@@ -200,6 +370,9 @@ public class AppointmentController {
             
             return ResponseEntity.ok(ApiResponse.success("Cita actualizada exitosamente", updated));
             
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), e.getConflicts()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -377,6 +550,33 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Franjas reservables de una categoría en un rango de fechas,
+     * cada una con los operarios que pueden atenderla
+     * GET /api/appointments/free-slots?categoryId=&from=&to=&duration=
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<?> getFreeSlots(
+            @RequestParam Long categoryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam Integer duration,
+            @RequestParam(defaultValue = "15") Integer step) {
+        
+        try {
+            List<FreeSlotDTO> slots = freeSlotService.findFreeSlots(
+                categoryId, from, to, duration, step
+            );
+            return ResponseEntity.ok(slots);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/operator/{operatorId}")
     public ResponseEntity<?> getOperatorAppointments(
             @PathVariable Long operatorId,
@@ -21,6 +21,7 @@ import uis.edu.co.appointments.models.Category;
 import uis.edu.co.appointments.dto.ApiResponse;
 import uis.edu.co.appointments.repository.CategoryRepository;
 import uis.edu.co.appointments.service.CategoryService;
+import uis.edu.co.appointments.dto.UpdateAssignmentStrategyRequest;
 import uis.edu.co.appointments.dto.UpdateDurationsRequest;
 import uis.edu.co.appointments.dto.AssignCategoriesRequest;
 import uis.edu.co.appointments.models.User;
@@ -74,7 +75,7 @@ public class CategoryController {
                     ));
             }
             
-            categoryRepository.deleteById(id);
+            categoryService.delete(id);
             return ResponseEntity.ok(ApiResponse.success("Categoría eliminada exitosamente"));
             
         } catch (Exception e) {
@@ -115,6 +116,31 @@ public class CategoryController {
         return ResponseEntity.ok(durations);
     }
 
+    /**
+     * Cambiar la estrategia de asignación automática de operarios
+     */
+    @PatchMapping("/{id}/assignment-strategy")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> updateAssignmentStrategy(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateAssignmentStrategyRequest request) {
+
+        try {
+            Category category = categoryService.updateAssignmentStrategy(id, request.getStrategy());
+
+            return ResponseEntity.ok(
+                ApiResponse.success("Estrategia de asignación actualizada exitosamente",
+                                    category.getAssignmentStrategy())
+            );
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error: " + e.getMessage()));
+        }
+    }
+
     /**
      * Asignar operarios a una categoría
      */
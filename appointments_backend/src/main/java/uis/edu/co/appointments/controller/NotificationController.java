@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -17,11 +18,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import uis.edu.co.appointments.dto.ApiResponse;
 import uis.edu.co.appointments.models.Notification;
 import uis.edu.co.appointments.security.UserDetailsImpl;
+import uis.edu.co.appointments.service.EmailOutboxDispatcher;
 import uis.edu.co.appointments.service.NotificationService;
+import uis.edu.co.appointments.service.NotificationStreamService;
 
 @RestController
 //@PreAuthorize("hasAuthority('ADMIN')")
@@ -29,9 +33,15 @@ import uis.edu.co.appointments.service.NotificationService;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final EmailOutboxDispatcher outboxDispatcher;
+    private final NotificationStreamService streamService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  EmailOutboxDispatcher outboxDispatcher,
+                                  NotificationStreamService streamService) {
         this.notificationService = notificationService;
+        this.outboxDispatcher = outboxDispatcher;
+        this.streamService = streamService;
     }
 
     /**
@@ -85,6 +95,30 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Bandeja del usuario autenticado, paginada por cursor
+     * (?before=<createdAt,id>&limit=&unreadOnly=)
+     */
+    @GetMapping("/me/inbox")
+    public ResponseEntity<?> getMyInbox(
+            Authentication authentication,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El límite debe estar entre 1 y 100"));
+        }
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Bandeja de notificaciones",
+                    notificationService.findInboxPage(userDetails.getId(), before, unreadOnly, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Contar notificaciones no leídas del usuario
      */
@@ -95,6 +129,20 @@ public class NotificationController {
         return ResponseEntity.ok(new UnreadCountResponse(count));
     }
 
+    /**
+     * Canal en vivo (SSE) de las notificaciones del usuario: eventos "notification"
+     * y "unread-count", en lugar de sondear /me y /me/unread-count
+     */
+    @GetMapping(value = "/me/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(streamService.subscribe(userDetails.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
     /**
      * Obtener notificación por ID
      */
@@ -262,6 +310,42 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Métricas del envío de correos: profundidad de cola, latencia de envío y fallos (solo admin)
+     */
+    @GetMapping("/email-outbox/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> getEmailOutboxStats() {
+        return ResponseEntity.ok(ApiResponse.success("Métricas de correo", outboxDispatcher.getStats()));
+    }
+
+    /**
+     * Correos que agotaron los reintentos (solo admin)
+     */
+    @GetMapping("/email-outbox/dead-letters")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El límite debe estar entre 1 y 500"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Correos no entregados",
+                outboxDispatcher.findDeadLetters(limit)));
+    }
+
+    /**
+     * Reencolar un correo no entregado (solo admin)
+     */
+    @PostMapping("/email-outbox/dead-letters/{id}/retry")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> retryDeadLetter(@PathVariable Long id) {
+        if (!outboxDispatcher.requeueDeadLetter(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Correo no encontrado entre los no entregados"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Correo reencolado"));
+    }
+
     // Clase interna para respuesta de conteo
     private static class UnreadCountResponse {
         private final long count;
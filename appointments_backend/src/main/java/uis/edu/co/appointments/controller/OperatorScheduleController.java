@@ -1,6 +1,8 @@
 package uis.edu.co.appointments.controller;
 
 import java.time.DayOfWeek;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -12,9 +14,11 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import uis.edu.co.appointments.dto.ApiResponse;
+import uis.edu.co.appointments.dto.OperatorCalendarDTO;
 import uis.edu.co.appointments.models.OperatorSchedule;
 import uis.edu.co.appointments.models.User;
 import uis.edu.co.appointments.security.UserDetailsImpl;
+import uis.edu.co.appointments.service.OperatorCalendarService;
 import uis.edu.co.appointments.service.OperatorScheduleService;
 import uis.edu.co.appointments.service.UserService;
 
@@ -25,11 +29,14 @@ public class OperatorScheduleController {
     private final OperatorScheduleService scheduleService;
     @SuppressWarnings("unused")
     private final UserService userService;
+    private final OperatorCalendarService calendarService;
 
     public OperatorScheduleController(OperatorScheduleService scheduleService,
-                                     UserService userService) {
+                                     UserService userService,
+                                     OperatorCalendarService calendarService) {
         this.scheduleService = scheduleService;
         this.userService = userService;
+        this.calendarService = calendarService;
     }
 
     /**
@@ -64,6 +71,37 @@ public class OperatorScheduleController {
         return ResponseEntity.ok(schedules);
     }
 
+    /**
+     * Calendario mensual de un operario (admin o el mismo operario)
+     * GET /api/operator-schedules/operator/{operatorId}/calendar?month=2025-11
+     * Si no se indica el mes se usa el mes actual
+     */
+    @GetMapping("/operator/{operatorId}/calendar")
+    public ResponseEntity<?> getOperatorCalendar(
+            @PathVariable Long operatorId,
+            @RequestParam(required = false) String month,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        boolean isAdmin = "ADMIN".equalsIgnoreCase(userDetails.getRoleName());
+
+        if (!isAdmin && !userDetails.getId().equals(operatorId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("No autorizado"));
+        }
+
+        YearMonth yearMonth;
+        try {
+            yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("El mes debe tener el formato AAAA-MM"));
+        }
+
+        OperatorCalendarDTO calendar = calendarService.getMonthCalendar(operatorId, yearMonth);
+        return ResponseEntity.ok(ApiResponse.success("Calendario obtenido", calendar));
+    }
+
     /**
      * Crear horario (operario crea su propio horario)
      */
@@ -0,0 +1,94 @@
+package uis.edu.co.appointments.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import uis.edu.co.appointments.dto.ApiResponse;
+import uis.edu.co.appointments.dto.WaitlistRequest;
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.security.UserDetailsImpl;
+import uis.edu.co.appointments.service.WaitlistService;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Entrar a la lista de espera cuando no hay operarios disponibles
+     * POST /api/waitlist
+     */
+    @PostMapping
+    public ResponseEntity<?> join(
+            @Valid @RequestBody WaitlistRequest request,
+            Authentication authentication) {
+
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            String roleName = userDetails.getRoleName();
+
+            if (!"USUARIO".equalsIgnoreCase(roleName) && !"ADMIN".equalsIgnoreCase(roleName)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("No tienes permisos para crear citas"));
+            }
+
+            Long userId = userDetails.getId();
+            if ("ADMIN".equalsIgnoreCase(roleName)) {
+                if (request.getUserId() == null) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.error("Debe especificar el usuario de la solicitud"));
+                }
+                userId = request.getUserId();
+            }
+
+            WaitlistEntry entry = waitlistService.join(request, userId);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Agregado a la lista de espera", entry));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error al agregar a la lista de espera: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Solicitudes del usuario autenticado
+     * GET /api/waitlist/me
+     */
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyEntries(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        List<WaitlistEntry> entries = waitlistService.findByUserId(userDetails.getId());
+        return ResponseEntity.ok(ApiResponse.success("Lista de espera obtenida", entries));
+    }
+
+    /**
+     * Salir de la lista de espera
+     * DELETE /api/waitlist/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id, Authentication authentication) {
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            boolean isAdmin = "ADMIN".equalsIgnoreCase(userDetails.getRoleName());
+
+            WaitlistEntry entry = waitlistService.cancel(id, userDetails.getId(), isAdmin);
+            return ResponseEntity.ok(ApiResponse.success("Solicitud cancelada", entry));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Horario ocupado que impide reservar. Solo lleva el rango: la cita que lo ocupa puede ser
+ * de otro usuario, así que no se expone su id ni sus datos.
+ */
+public class AppointmentConflictDTO {
+
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    public AppointmentConflictDTO() {
+    }
+
+    public AppointmentConflictDTO(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+}
@@ -0,0 +1,69 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de la creación de una serie de citas recurrentes
+ */
+public class AppointmentSeriesResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String AVAILABLE = "AVAILABLE";   // Sin conflicto, pero la serie no se creó
+    public static final String CONFLICT = "CONFLICT";
+
+    private Long seriesId;
+    private Long preferredOperatorId;
+    private int created;
+    private List<Occurrence> occurrences = new ArrayList<>();
+
+    public Long getSeriesId() { return seriesId; }
+    public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+
+    public Long getPreferredOperatorId() { return preferredOperatorId; }
+    public void setPreferredOperatorId(Long preferredOperatorId) { this.preferredOperatorId = preferredOperatorId; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public List<Occurrence> getOccurrences() { return occurrences; }
+    public void setOccurrences(List<Occurrence> occurrences) { this.occurrences = occurrences; }
+
+    public boolean hasConflicts() {
+        return occurrences.stream().anyMatch(o -> CONFLICT.equals(o.getStatus()));
+    }
+
+    public static class Occurrence {
+        private LocalDate date;
+        private String status;
+        private Long appointmentId;
+        private Long operatorId;
+        private String message;
+
+        public Occurrence() {
+        }
+
+        public Occurrence(LocalDate date, String status, Long operatorId, String message) {
+            this.date = date;
+            this.status = status;
+            this.operatorId = operatorId;
+            this.message = message;
+        }
+
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public Long getAppointmentId() { return appointmentId; }
+        public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+
+        public Long getOperatorId() { return operatorId; }
+        public void setOperatorId(Long operatorId) { this.operatorId = operatorId; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
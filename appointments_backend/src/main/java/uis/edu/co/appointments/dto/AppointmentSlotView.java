@@ -0,0 +1,16 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección mínima de una cita para cálculos de disponibilidad
+ * (evita cargar usuario, operario y categoría de cada fila)
+ */
+public interface AppointmentSlotView {
+    Long getId();
+    Long getOperatorId();
+    LocalDate getAppointmentDate();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+}
@@ -0,0 +1,19 @@
+package uis.edu.co.appointments.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import uis.edu.co.appointments.models.Appointment;
+
+/**
+ * Solicitud de creación por lote. Cada cita se valida por separado en el servicio
+ * para poder responder el resultado de cada una.
+ */
+public class BatchAppointmentRequest {
+
+    @NotEmpty(message = "Debe enviar al menos una cita")
+    private List<Appointment> appointments;
+
+    public List<Appointment> getAppointments() { return appointments; }
+    public void setAppointments(List<Appointment> appointments) { this.appointments = appointments; }
+}
@@ -0,0 +1,56 @@
+package uis.edu.co.appointments.dto;
+
+/**
+ * Resultado de una cita dentro de una creación por lote
+ */
+public class BatchAppointmentResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String INVALID = "INVALID";
+
+    private int index;
+    private String status;
+    private Long appointmentId;
+    private Long operatorId;
+    private String message;
+
+    public BatchAppointmentResult() {
+    }
+
+    public BatchAppointmentResult(int index, String status, Long appointmentId,
+                                  Long operatorId, String message) {
+        this.index = index;
+        this.status = status;
+        this.appointmentId = appointmentId;
+        this.operatorId = operatorId;
+        this.message = message;
+    }
+
+    public static BatchAppointmentResult created(int index, Long appointmentId, Long operatorId) {
+        return new BatchAppointmentResult(index, CREATED, appointmentId, operatorId, "Cita creada");
+    }
+
+    public static BatchAppointmentResult conflict(int index, String message) {
+        return new BatchAppointmentResult(index, CONFLICT, null, null, message);
+    }
+
+    public static BatchAppointmentResult invalid(int index, String message) {
+        return new BatchAppointmentResult(index, INVALID, null, null, message);
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+
+    public Long getOperatorId() { return operatorId; }
+    public void setOperatorId(Long operatorId) { this.operatorId = operatorId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
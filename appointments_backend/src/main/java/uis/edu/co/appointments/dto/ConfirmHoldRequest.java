@@ -0,0 +1,17 @@
+package uis.edu.co.appointments.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class ConfirmHoldRequest {
+
+    @NotBlank(message = "El título es obligatorio")
+    private String title;
+
+    private String description;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
@@ -0,0 +1,48 @@
+package uis.edu.co.appointments.dto;
+
+import java.util.Map;
+
+/**
+ * Métricas del envío de correos: cola en memoria, contadores desde el arranque
+ * y correos en la tabla email_outbox por estado
+ */
+public class EmailOutboxStats {
+
+    private int queueDepth;
+    private int queueCapacity;
+    private int workers;
+    private long sent;
+    private long failedAttempts;
+    private long deadLettered;
+    private double averageSendMillis;
+    private long maxSendMillis;
+    private Map<String, Long> outboxByStatus;
+
+    // Getters y Setters
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getFailedAttempts() { return failedAttempts; }
+    public void setFailedAttempts(long failedAttempts) { this.failedAttempts = failedAttempts; }
+
+    public long getDeadLettered() { return deadLettered; }
+    public void setDeadLettered(long deadLettered) { this.deadLettered = deadLettered; }
+
+    public double getAverageSendMillis() { return averageSendMillis; }
+    public void setAverageSendMillis(double averageSendMillis) { this.averageSendMillis = averageSendMillis; }
+
+    public long getMaxSendMillis() { return maxSendMillis; }
+    public void setMaxSendMillis(long maxSendMillis) { this.maxSendMillis = maxSendMillis; }
+
+    public Map<String, Long> getOutboxByStatus() { return outboxByStatus; }
+    public void setOutboxByStatus(Map<String, Long> outboxByStatus) { this.outboxByStatus = outboxByStatus; }
+}
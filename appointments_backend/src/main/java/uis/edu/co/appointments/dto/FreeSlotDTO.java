@@ -0,0 +1,57 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Franja reservable: fecha, hora de inicio/fin y operarios que pueden atenderla
+ */
+public class FreeSlotDTO {
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private List<OperatorInfo> operators = new ArrayList<>();
+
+    public FreeSlotDTO(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Getters y Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+
+    public List<OperatorInfo> getOperators() { return operators; }
+    public void setOperators(List<OperatorInfo> operators) { this.operators = operators; }
+
+    /**
+     * Datos básicos del operario (mismos campos que /available-operators)
+     */
+    public static class OperatorInfo {
+        private final Long id;
+        private final String fullName;
+        private final String email;
+        private final Double averageRating;
+
+        public OperatorInfo(Long id, String fullName, String email, Double averageRating) {
+            this.id = id;
+            this.fullName = fullName;
+            this.email = email;
+            this.averageRating = averageRating;
+        }
+
+        public Long getId() { return id; }
+        public String getFullName() { return fullName; }
+        public String getEmail() { return email; }
+        public Double getAverageRating() { return averageRating; }
+    }
+}
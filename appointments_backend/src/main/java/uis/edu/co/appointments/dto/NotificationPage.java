@@ -0,0 +1,25 @@
+package uis.edu.co.appointments.dto;
+
+import java.util.List;
+
+/**
+ * Página de la bandeja de notificaciones (paginación por cursor).
+ * nextCursor ("createdAt,id" de la última) es null cuando no hay más páginas.
+ */
+public class NotificationPage {
+
+    private List<NotificationSummary> items;
+    private String nextCursor;
+
+    public NotificationPage(List<NotificationSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<NotificationSummary> getItems() { return items; }
+    public void setItems(List<NotificationSummary> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,54 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDateTime;
+
+import uis.edu.co.appointments.models.Notification;
+
+/**
+ * Vista ligera de una notificación para la bandeja y el canal en vivo:
+ * sin el usuario ni la cita anidados (solo el id de la cita)
+ */
+public class NotificationSummary {
+
+    private Long id;
+    private String type;
+    private String message;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private LocalDateTime scheduledFor;
+    private Long appointmentId;
+
+    public static NotificationSummary from(Notification notification) {
+        NotificationSummary summary = new NotificationSummary();
+        summary.setId(notification.getId());
+        summary.setType(notification.getType());
+        summary.setMessage(notification.getMessage());
+        summary.setIsRead(notification.getIsRead());
+        summary.setCreatedAt(notification.getCreatedAt());
+        summary.setScheduledFor(notification.getScheduledFor());
+        summary.setAppointmentId(notification.getAppointment() != null ? notification.getAppointment().getId() : null);
+        return summary;
+    }
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Boolean getIsRead() { return isRead; }
+    public void setIsRead(Boolean isRead) { this.isRead = isRead; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getScheduledFor() { return scheduledFor; }
+    public void setScheduledFor(LocalDateTime scheduledFor) { this.scheduledFor = scheduledFor; }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+}
@@ -0,0 +1,86 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calendario mensual de un operario: por día, jornada laboral, citas ocupadas y minutos libres
+ */
+public class OperatorCalendarDTO {
+    private Long operatorId;
+    private String month;
+    private int totalWorkingMinutes;
+    private int totalBookedMinutes;
+    private int totalFreeMinutes;
+    private List<Day> days = new ArrayList<>();
+
+    public OperatorCalendarDTO(Long operatorId, String month) {
+        this.operatorId = operatorId;
+        this.month = month;
+    }
+
+    // Getters y Setters
+    public Long getOperatorId() { return operatorId; }
+    public void setOperatorId(Long operatorId) { this.operatorId = operatorId; }
+
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public int getTotalWorkingMinutes() { return totalWorkingMinutes; }
+    public void setTotalWorkingMinutes(int totalWorkingMinutes) { this.totalWorkingMinutes = totalWorkingMinutes; }
+
+    public int getTotalBookedMinutes() { return totalBookedMinutes; }
+    public void setTotalBookedMinutes(int totalBookedMinutes) { this.totalBookedMinutes = totalBookedMinutes; }
+
+    public int getTotalFreeMinutes() { return totalFreeMinutes; }
+    public void setTotalFreeMinutes(int totalFreeMinutes) { this.totalFreeMinutes = totalFreeMinutes; }
+
+    public List<Day> getDays() { return days; }
+    public void setDays(List<Day> days) { this.days = days; }
+
+    /**
+     * Un día del calendario
+     */
+    public static class Day {
+        private final LocalDate date;
+        private final DayOfWeek dayOfWeek;
+        private final List<Interval> working = new ArrayList<>();
+        private final List<Interval> booked = new ArrayList<>();
+        private int freeMinutes;
+
+        public Day(LocalDate date) {
+            this.date = date;
+            this.dayOfWeek = date.getDayOfWeek();
+        }
+
+        public LocalDate getDate() { return date; }
+        public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+        public List<Interval> getWorking() { return working; }
+        public List<Interval> getBooked() { return booked; }
+
+        public int getFreeMinutes() { return freeMinutes; }
+        public void setFreeMinutes(int freeMinutes) { this.freeMinutes = freeMinutes; }
+    }
+
+    /**
+     * Intervalo [startTime, endTime); appointmentId solo se informa en las citas ocupadas
+     */
+    public static class Interval {
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final Long appointmentId;
+
+        public Interval(LocalTime startTime, LocalTime endTime, Long appointmentId) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.appointmentId = appointmentId;
+        }
+
+        public LocalTime getStartTime() { return startTime; }
+        public LocalTime getEndTime() { return endTime; }
+        public Long getAppointmentId() { return appointmentId; }
+    }
+}
@@ -0,0 +1,9 @@
+package uis.edu.co.appointments.dto;
+
+/**
+ * Proyección de la relación operario-categoría (operarios activos)
+ */
+public interface OperatorCategoryView {
+    Long getOperatorId();
+    Long getCategoryId();
+}
@@ -0,0 +1,77 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class RecurringAppointmentRequest {
+
+    // Solo ADMIN: usuario de la serie (para USUARIO se usa el autenticado)
+    private Long userId;
+
+    @NotNull(message = "La categoría es obligatoria")
+    private Long categoryId;
+
+    // Opcional: operario fijo para todas las ocurrencias
+    private Long operatorId;
+
+    @NotBlank(message = "El título es obligatorio")
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate startDate;
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime startTime;
+
+    @NotNull(message = "La hora de finalización es obligatoria")
+    private LocalTime endTime;
+
+    // DAILY, WEEKLY, BIWEEKLY o MONTHLY (default: WEEKLY)
+    private String frequency;
+
+    @NotNull(message = "El número de ocurrencias es obligatorio")
+    @Min(value = 1, message = "Debe haber al menos una ocurrencia")
+    private Integer occurrences;
+
+    // Si es true se crean las ocurrencias sin conflicto aunque otras fallen
+    private boolean allowPartial = false;
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Long getOperatorId() { return operatorId; }
+    public void setOperatorId(Long operatorId) { this.operatorId = operatorId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+
+    public String getFrequency() { return frequency; }
+    public void setFrequency(String frequency) { this.frequency = frequency; }
+
+    public Integer getOccurrences() { return occurrences; }
+    public void setOccurrences(Integer occurrences) { this.occurrences = occurrences; }
+
+    public boolean isAllowPartial() { return allowPartial; }
+    public void setAllowPartial(boolean allowPartial) { this.allowPartial = allowPartial; }
+}
@@ -0,0 +1,14 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Proyección mínima de un horario de operario
+ */
+public interface ScheduleSlotView {
+    Long getOperatorId();
+    DayOfWeek getDayOfWeek();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+}
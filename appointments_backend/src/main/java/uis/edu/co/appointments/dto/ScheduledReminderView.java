@@ -0,0 +1,12 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima de un recordatorio pendiente: solo lo necesario para programarlo
+ * en la rueda de temporizadores
+ */
+public interface ScheduledReminderView {
+    Long getId();
+    LocalDateTime getScheduledFor();
+}
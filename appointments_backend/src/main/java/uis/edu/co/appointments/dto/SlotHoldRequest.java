@@ -0,0 +1,39 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.NotNull;
+
+public class SlotHoldRequest {
+
+    @NotNull(message = "La categoría es obligatoria")
+    private Long categoryId;
+
+    // Opcional: si no viene se elige un operario libre con la estrategia de la categoría
+    private Long operatorId;
+
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDate date;
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime startTime;
+
+    @NotNull(message = "La hora de finalización es obligatoria")
+    private LocalTime endTime;
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Long getOperatorId() { return operatorId; }
+    public void setOperatorId(Long operatorId) { this.operatorId = operatorId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+}
@@ -0,0 +1,9 @@
+package uis.edu.co.appointments.dto;
+
+/**
+ * Proyección del conteo de notificaciones no leídas de un usuario
+ */
+public interface UnreadCountView {
+    Long getUserId();
+    Long getUnread();
+}
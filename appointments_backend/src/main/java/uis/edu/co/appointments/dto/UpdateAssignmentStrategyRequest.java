@@ -0,0 +1,12 @@
+package uis.edu.co.appointments.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class UpdateAssignmentStrategyRequest {
+
+    @NotBlank(message = "Debe indicar la estrategia de asignación")
+    private String strategy;
+
+    public String getStrategy() { return strategy; }
+    public void setStrategy(String strategy) { this.strategy = strategy; }
+}
@@ -0,0 +1,66 @@
+package uis.edu.co.appointments.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class WaitlistRequest {
+
+    // Solo ADMIN: usuario de la solicitud (para USUARIO se usa el autenticado)
+    private Long userId;
+
+    @NotNull(message = "La categoría es obligatoria")
+    private Long categoryId;
+
+    @NotBlank(message = "El título es obligatorio")
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDate date;
+
+    // Ventana aceptable para la cita
+    @NotNull(message = "El inicio de la ventana es obligatorio")
+    private LocalTime windowStart;
+
+    @NotNull(message = "El fin de la ventana es obligatorio")
+    private LocalTime windowEnd;
+
+    @NotNull(message = "La duración es obligatoria")
+    @Min(value = 5, message = "La cita debe durar al menos 5 minutos")
+    private Integer durationMinutes;
+
+    // true: reservar automáticamente al liberarse un cupo; false: solo avisar
+    private boolean autoBook = true;
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public LocalTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalTime windowStart) { this.windowStart = windowStart; }
+
+    public LocalTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalTime windowEnd) { this.windowEnd = windowEnd; }
+
+    public Integer getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
+
+    public boolean isAutoBook() { return autoBook; }
+    public void setAutoBook(boolean autoBook) { this.autoBook = autoBook; }
+}
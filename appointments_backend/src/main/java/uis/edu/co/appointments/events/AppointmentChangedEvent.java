@@ -0,0 +1,62 @@
+package uis.edu.co.appointments.events;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.AppointmentStatus;
+
+/**
+ * Evento publicado cuando una cita se crea, modifica o cancela.
+ * Lleva una copia inmutable de los datos que afectan la disponibilidad.
+ */
+public class AppointmentChangedEvent {
+
+    private final Long appointmentId;
+    private final Long operatorId;
+    private final Long categoryId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean active;
+
+    public AppointmentChangedEvent(Long appointmentId, Long operatorId, Long categoryId,
+                                   LocalDate date, LocalTime startTime, LocalTime endTime,
+                                   boolean active) {
+        this.appointmentId = appointmentId;
+        this.operatorId = operatorId;
+        this.categoryId = categoryId;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.active = active;
+    }
+
+    public static AppointmentChangedEvent from(Appointment appointment) {
+        boolean active = !Boolean.TRUE.equals(appointment.getDeleted())
+                && appointment.getStatus() != AppointmentStatus.CANCELLED
+                && appointment.getStatus() != AppointmentStatus.FAILED;
+
+        return new AppointmentChangedEvent(
+            appointment.getId(),
+            appointment.getOperator() != null ? appointment.getOperator().getId() : null,
+            appointment.getCategory() != null ? appointment.getCategory().getId() : null,
+            appointment.getDate(),
+            appointment.getStartTime(),
+            appointment.getEndTime(),
+            active
+        );
+    }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public Long getOperatorId() { return operatorId; }
+    public Long getCategoryId() { return categoryId; }
+    public LocalDate getDate() { return date; }
+    public LocalTime getStartTime() { return startTime; }
+    public LocalTime getEndTime() { return endTime; }
+
+    /**
+     * ¿La cita sigue ocupando el horario del operario?
+     */
+    public boolean isActive() { return active; }
+}
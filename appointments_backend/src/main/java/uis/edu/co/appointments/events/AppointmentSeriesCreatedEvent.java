@@ -0,0 +1,15 @@
+package uis.edu.co.appointments.events;
+
+/**
+ * Evento publicado cuando se crea una serie de citas recurrentes
+ */
+public class AppointmentSeriesCreatedEvent {
+
+    private final Long seriesId;
+
+    public AppointmentSeriesCreatedEvent(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public Long getSeriesId() { return seriesId; }
+}
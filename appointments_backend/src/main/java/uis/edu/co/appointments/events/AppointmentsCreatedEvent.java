@@ -0,0 +1,18 @@
+package uis.edu.co.appointments.events;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando se crean citas por lote.
+ * Dispara en segundo plano las notificaciones y correos de cada cita.
+ */
+public class AppointmentsCreatedEvent {
+
+    private final List<Long> appointmentIds;
+
+    public AppointmentsCreatedEvent(List<Long> appointmentIds) {
+        this.appointmentIds = List.copyOf(appointmentIds);
+    }
+
+    public List<Long> getAppointmentIds() { return appointmentIds; }
+}
@@ -0,0 +1,16 @@
+package uis.edu.co.appointments.events;
+
+/**
+ * Evento publicado al encolar un correo en la bandeja de salida; al confirmarse la
+ * transacción despierta al despachador para no esperar al siguiente sondeo
+ */
+public class EmailQueuedEvent {
+
+    private final String recipient;
+
+    public EmailQueuedEvent(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getRecipient() { return recipient; }
+}
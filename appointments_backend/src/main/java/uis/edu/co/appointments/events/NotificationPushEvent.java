@@ -0,0 +1,21 @@
+package uis.edu.co.appointments.events;
+
+import uis.edu.co.appointments.dto.NotificationSummary;
+
+/**
+ * Evento publicado cuando cambian las notificaciones de un usuario: una nueva
+ * (notification presente) o un cambio en su contador de no leídas (notification null)
+ */
+public class NotificationPushEvent {
+
+    private final Long userId;
+    private final NotificationSummary notification;
+
+    public NotificationPushEvent(Long userId, NotificationSummary notification) {
+        this.userId = userId;
+        this.notification = notification;
+    }
+
+    public Long getUserId() { return userId; }
+    public NotificationSummary getNotification() { return notification; }
+}
@@ -0,0 +1,19 @@
+package uis.edu.co.appointments.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando cambian las categorías que atienden unos operarios
+ * o su estado activo
+ */
+public class OperatorCategoriesChangedEvent {
+
+    private final List<Long> operatorIds;
+
+    public OperatorCategoriesChangedEvent(Collection<Long> operatorIds) {
+        this.operatorIds = List.copyOf(operatorIds);
+    }
+
+    public List<Long> getOperatorIds() { return operatorIds; }
+}
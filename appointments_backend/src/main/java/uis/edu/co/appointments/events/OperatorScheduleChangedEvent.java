@@ -0,0 +1,15 @@
+package uis.edu.co.appointments.events;
+
+/**
+ * Evento publicado cuando cambia el horario semanal de un operario
+ */
+public class OperatorScheduleChangedEvent {
+
+    private final Long operatorId;
+
+    public OperatorScheduleChangedEvent(Long operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public Long getOperatorId() { return operatorId; }
+}
@@ -0,0 +1,20 @@
+package uis.edu.co.appointments.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado al crear una notificación programada (recordatorio)
+ */
+public class ReminderScheduledEvent {
+
+    private final Long notificationId;
+    private final LocalDateTime scheduledFor;
+
+    public ReminderScheduledEvent(Long notificationId, LocalDateTime scheduledFor) {
+        this.notificationId = notificationId;
+        this.scheduledFor = scheduledFor;
+    }
+
+    public Long getNotificationId() { return notificationId; }
+    public LocalDateTime getScheduledFor() { return scheduledFor; }
+}
@@ -0,0 +1,28 @@
+package uis.edu.co.appointments.events;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Evento publicado cuando un usuario entra a la lista de espera
+ * (el buscador revisa de inmediato si ya hay un cupo en su ventana)
+ */
+public class WaitlistJoinedEvent {
+
+    private final Long categoryId;
+    private final LocalDate date;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+
+    public WaitlistJoinedEvent(Long categoryId, LocalDate date, LocalTime windowStart, LocalTime windowEnd) {
+        this.categoryId = categoryId;
+        this.date = date;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public LocalDate getDate() { return date; }
+    public LocalTime getWindowStart() { return windowStart; }
+    public LocalTime getWindowEnd() { return windowEnd; }
+}
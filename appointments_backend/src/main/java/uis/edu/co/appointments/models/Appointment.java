@@ -51,6 +51,11 @@ public class Appointment {
     @JsonIgnoreProperties({"appointments", "passwordHash", "operatorSchedules", "operatorCategories"})
     private User operator;
 
+    @ManyToOne
+    @JoinColumn(name = "series_id")
+    @JsonIgnoreProperties({"user", "category"})
+    private AppointmentSeries series;
+
     @Column(name = "duration_minutes", nullable = false)
     private Integer durationMinutes = 60;
 
@@ -0,0 +1,17 @@
+package uis.edu.co.appointments.models;
+
+public enum AssignmentStrategyType {
+    FIRST_AVAILABLE,    // Primer operario libre (orden del repositorio)
+    LEAST_LOADED,       // Operario con menos minutos reservados ese día
+    ROUND_ROBIN,        // Turno rotativo entre los operarios de la categoría
+    RATING_WEIGHTED;    // Aleatorio ponderado por calificación y carga del día
+
+    public static AssignmentStrategyType fromString(String type) {
+        if (type == null) return LEAST_LOADED;
+        try {
+            return AssignmentStrategyType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estrategia de asignación no válida: " + type);
+        }
+    }
+}
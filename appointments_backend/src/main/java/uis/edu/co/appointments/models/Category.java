@@ -11,6 +11,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -42,6 +44,10 @@ public class Category {
     @JsonProperty("allowedDurations")
     private List<Integer> allowedDurations = new ArrayList<>();
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "assignment_strategy", length = 30)
+    private AssignmentStrategyType assignmentStrategy = AssignmentStrategyType.LEAST_LOADED;
+
     @ManyToMany(mappedBy = "operatorCategories")
     @JsonIgnoreProperties({"operatorCategories"})
     private List<User> operators = new ArrayList<>();
@@ -0,0 +1,31 @@
+package uis.edu.co.appointments.models;
+
+import java.time.LocalDate;
+
+public enum RecurrenceFrequency {
+    DAILY,      // Todos los días
+    WEEKLY,     // Cada semana
+    BIWEEKLY,   // Cada dos semanas
+    MONTHLY;    // Cada mes (mismo día del mes)
+
+    /**
+     * Fecha de la ocurrencia número index (0 = primera)
+     */
+    public LocalDate occurrence(LocalDate start, int index) {
+        return switch (this) {
+            case DAILY -> start.plusDays(index);
+            case WEEKLY -> start.plusWeeks(index);
+            case BIWEEKLY -> start.plusWeeks(2L * index);
+            case MONTHLY -> start.plusMonths(index);
+        };
+    }
+
+    public static RecurrenceFrequency fromString(String frequency) {
+        if (frequency == null) return WEEKLY;
+        try {
+            return RecurrenceFrequency.valueOf(frequency.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Frecuencia no válida: " + frequency);
+        }
+    }
+}
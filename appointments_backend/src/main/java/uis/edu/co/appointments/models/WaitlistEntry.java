@@ -0,0 +1,101 @@
+package uis.edu.co.appointments.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Solicitud en lista de espera: una cita de la categoría, en la fecha y dentro de la ventana
+ * [windowStart, windowEnd), que se reserva u ofrece cuando se libera un cupo
+ */
+@Entity
+@Table(name = "appointment_waitlist")
+@Getter
+@Setter
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnoreProperties({"appointments", "passwordHash", "operatorSchedules", "operatorCategories"})
+    private User user;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "category_id", nullable = false)
+    @JsonIgnoreProperties({"appointments", "operators"})
+    private Category category;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    private String description;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalTime windowEnd;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    // true: reservar automáticamente; false: solo ofrecer el cupo
+    @Column(name = "auto_book", nullable = false)
+    private Boolean autoBook = true;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // Cupo reservado u ofrecido
+    @Column(name = "matched_start_time")
+    private LocalTime matchedStartTime;
+
+    @Column(name = "matched_end_time")
+    private LocalTime matchedEndTime;
+
+    @ManyToOne
+    @JoinColumn(name = "appointment_id")
+    @JsonIgnoreProperties({"user", "operator", "notifications", "series"})
+    private Appointment appointment;
+
+    @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
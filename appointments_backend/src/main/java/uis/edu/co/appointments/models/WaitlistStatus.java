@@ -0,0 +1,9 @@
+package uis.edu.co.appointments.models;
+
+public enum WaitlistStatus {
+    WAITING,    // Esperando que se libere un cupo
+    BOOKED,     // Se reservó la cita automáticamente
+    OFFERED,    // Se ofreció un cupo libre al usuario
+    CANCELLED,  // El usuario salió de la lista
+    EXPIRED     // La fecha pasó sin cupo
+}
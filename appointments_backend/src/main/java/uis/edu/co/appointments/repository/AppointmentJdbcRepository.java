@@ -0,0 +1,99 @@
+package uis.edu.co.appointments.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import uis.edu.co.appointments.models.Appointment;
+
+/**
+ * Inserciones masivas de citas con JDBC batching.
+ * Las citas usan IDENTITY, así que Hibernate no puede agrupar sus INSERT.
+ */
+@Repository
+public class AppointmentJdbcRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO appointments (user_id, category_id, operator_id, duration_minutes, status, " +
+        "attendance_status, completed_by_operator, title, description, date, start_time, end_time, " +
+        "deleted, created_at, updated_at, series_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, false, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insertar las citas en un solo lote y asignarles el ID generado.
+     * Debe llamarse dentro de una transacción para que el lote sea atómico.
+     */
+    public void insertAll(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, appointments.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return appointments.size();
+                }
+            },
+            keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < appointments.size(); i++) {
+            appointments.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private void bind(PreparedStatement ps, Appointment appointment) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        ps.setLong(1, appointment.getUser().getId());
+        if (appointment.getCategory() != null) {
+            ps.setLong(2, appointment.getCategory().getId());
+        } else {
+            ps.setNull(2, Types.BIGINT);
+        }
+        ps.setLong(3, appointment.getOperator().getId());
+        ps.setInt(4, appointment.getDurationMinutes());
+        ps.setString(5, appointment.getStatus().name());
+        ps.setString(6, appointment.getAttendanceStatus().name());
+        ps.setString(7, appointment.getTitle());
+        ps.setString(8, appointment.getDescription());
+        ps.setDate(9, Date.valueOf(appointment.getDate()));
+        ps.setTime(10, Time.valueOf(appointment.getStartTime()));
+        ps.setTime(11, Time.valueOf(appointment.getEndTime()));
+        ps.setTimestamp(12, Timestamp.valueOf(now));
+        ps.setTimestamp(13, Timestamp.valueOf(now));
+        if (appointment.getSeries() != null) {
+            ps.setLong(14, appointment.getSeries().getId());
+        } else {
+            ps.setNull(14, Types.BIGINT);
+        }
+        appointment.setCreatedAt(now);
+        appointment.setUpdatedAt(now);
+    }
+}
@@ -2,6 +2,7 @@ package uis.edu.co.appointments.repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -11,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import uis.edu.co.appointments.dto.AppointmentSlotView;
 import uis.edu.co.appointments.models.Appointment;
 import uis.edu.co.appointments.models.AppointmentStatus;
 
@@ -106,6 +108,22 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         @Param("currentDate") LocalDate currentDate,
         @Param("currentTime") LocalTime currentTime
     );
+
+    // Citas pendientes de completar de todos los operarios, agrupadas por operario,
+    // con operario y usuario en la misma consulta (resumen periódico a operarios)
+    @Query("SELECT a FROM Appointment a " +
+        "JOIN FETCH a.operator o " +
+        "JOIN FETCH a.user " +
+        "WHERE (a.status = 'SCHEDULED' OR a.status = 'IN_PROGRESS') " +
+        "AND (a.date < :currentDate OR " +
+        "(a.date = :currentDate AND a.endTime <= :currentTime)) " +
+        "AND a.completedByOperator = false " +
+        "AND a.deleted = false " +
+        "ORDER BY o.id, a.date DESC, a.endTime DESC")
+    List<Appointment> findAllPendingCompletion(
+        @Param("currentDate") LocalDate currentDate,
+        @Param("currentTime") LocalTime currentTime
+    );
     
     // Verificar disponibilidad de operario
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.operator.id = :operatorId " +
@@ -119,6 +137,49 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         @Param("endTime") LocalTime endTime
     );
     
+    // Ocurrencias de una serie de citas recurrentes
+    List<Appointment> findBySeriesIdOrderByDateAsc(Long seriesId);
+
+    // Bloqueo de reserva entre nodos, sin esperar (false si lo tiene otra transacción);
+    // se libera solo al terminar la transacción
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:operatorKey, :dateKey)", nativeQuery = true)
+    boolean tryAcquireBookingLock(
+        @Param("operatorKey") int operatorKey,
+        @Param("dateKey") int dateKey
+    );
+
+    // Intervalos ocupados de varios operarios en una fecha (índice de disponibilidad)
+    @Query("SELECT a.id AS id, a.operator.id AS operatorId, a.date AS appointmentDate, " +
+           "a.startTime AS startTime, a.endTime AS endTime " +
+           "FROM Appointment a WHERE a.operator.id IN :operatorIds " +
+           "AND a.date = :date AND a.deleted = false " +
+           "AND a.status NOT IN ('CANCELLED', 'FAILED')")
+    List<AppointmentSlotView> findActiveSlotsByOperatorsAndDate(
+        @Param("operatorIds") Collection<Long> operatorIds,
+        @Param("date") LocalDate date
+    );
+
+    // Intervalos ocupados de todos los operarios en una fecha (carga diaria de operarios)
+    @Query("SELECT a.id AS id, a.operator.id AS operatorId, a.date AS appointmentDate, " +
+           "a.startTime AS startTime, a.endTime AS endTime " +
+           "FROM Appointment a WHERE a.operator IS NOT NULL " +
+           "AND a.date = :date AND a.deleted = false " +
+           "AND a.status NOT IN ('CANCELLED', 'FAILED')")
+    List<AppointmentSlotView> findActiveSlotsByDate(@Param("date") LocalDate date);
+
+    // Intervalos ocupados de varios operarios en un rango de fechas (búsqueda de franjas libres)
+    @Query("SELECT a.id AS id, a.operator.id AS operatorId, a.date AS appointmentDate, " +
+           "a.startTime AS startTime, a.endTime AS endTime " +
+           "FROM Appointment a WHERE a.operator.id IN :operatorIds " +
+           "AND a.date BETWEEN :startDate AND :endDate AND a.deleted = false " +
+           "AND a.status NOT IN ('CANCELLED', 'FAILED') " +
+           "ORDER BY a.date, a.startTime")
+    List<AppointmentSlotView> findActiveSlotsByOperatorsAndDateRange(
+        @Param("operatorIds") Collection<Long> operatorIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
     // Estadísticas - citas completadas por operario
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.operator.id = :operatorId " +
            "AND a.status = 'COMPLETED' AND a.date BETWEEN :startDate AND :endDate")
@@ -0,0 +1,10 @@
+package uis.edu.co.appointments.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import uis.edu.co.appointments.models.AppointmentSeries;
+
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, Long> {
+}
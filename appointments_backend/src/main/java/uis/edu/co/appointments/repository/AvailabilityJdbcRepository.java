@@ -0,0 +1,162 @@
+package uis.edu.co.appointments.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tabla materializada availability_slots: intervalos libres (minutos desde medianoche)
+ * por categoría, fecha y operario. La clave primaria empieza por (category_id, slot_date),
+ * así que las lecturas de disponibilidad son barridos de rango sobre la PK.
+ */
+@Repository
+public class AvailabilityJdbcRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO availability_slots (category_id, slot_date, operator_id, start_minute, end_minute) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String DELETE_OPERATOR_DAY_SQL =
+        "DELETE FROM availability_slots WHERE operator_id = ? AND slot_date = ?";
+
+    // Advisory locks con clave bigint (otro espacio que el de las reservas, que usan (int, int)):
+    // el primero elige el nodo que reconstruye, el segundo ordena reconstrucción y refrescos
+    private static final long REBUILD_LOCK_KEY = 0x617661696c00L;
+    private static final long TABLE_LOCK_KEY = 0x617661696c01L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AvailabilityJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Intervalo libre de un operario para una categoría en una fecha
+     */
+    public record SlotRow(Long categoryId, LocalDate date, Long operatorId, int startMinute, int endMinute) {
+    }
+
+    /**
+     * Clave de un día de operario
+     */
+    public record OperatorDay(Long operatorId, LocalDate date) {
+    }
+
+    /**
+     * Quedar como el nodo que reconstruye hasta el fin de la transacción, sin esperar
+     * @return false si otro nodo ya está reconstruyendo
+     */
+    public boolean tryClaimRebuild() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REBUILD_LOCK_KEY));
+    }
+
+    /**
+     * Esperar a que el nodo que reconstruye confirme o revierta
+     */
+    public void awaitRebuild() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?)", REBUILD_LOCK_KEY);
+    }
+
+    /**
+     * Bloquear la tabla en exclusiva hasta el fin de la transacción (espera a los refrescos en curso)
+     */
+    public void lockForRebuild() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", TABLE_LOCK_KEY);
+    }
+
+    /**
+     * Bloquear la tabla en modo compartido hasta el fin de la transacción: espera a una
+     * reconstrucción en curso, pero los refrescos de distintos nodos no se esperan entre sí
+     */
+    public void lockForRefresh() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?)", TABLE_LOCK_KEY);
+    }
+
+    /**
+     * Reemplazar las filas de los días de operario indicados
+     */
+    @Transactional
+    public void replaceOperatorDays(Collection<OperatorDay> days, List<SlotRow> rows) {
+        List<OperatorDay> keys = List.copyOf(days);
+        jdbcTemplate.batchUpdate(DELETE_OPERATOR_DAY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, keys.get(i).operatorId());
+                ps.setDate(2, Date.valueOf(keys.get(i).date()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return keys.size();
+            }
+        });
+        insertAll(rows);
+    }
+
+    /**
+     * Reconstruir toda la tabla (con lockForRebuild tomado en la misma transacción)
+     */
+    @Transactional
+    public void replaceAll(List<SlotRow> rows) {
+        jdbcTemplate.update("DELETE FROM availability_slots");
+        insertAll(rows);
+    }
+
+    /**
+     * Operarios de la categoría con un intervalo libre que contiene [startMinute, endMinute)
+     */
+    public List<Long> findFreeOperatorIds(Long categoryId, LocalDate date, int startMinute, int endMinute) {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT operator_id FROM availability_slots " +
+            "WHERE category_id = ? AND slot_date = ? AND start_minute <= ? AND end_minute >= ?",
+            Long.class, categoryId, Date.valueOf(date), startMinute, endMinute);
+    }
+
+    /**
+     * Intervalos libres de la categoría en [from, to], ordenados por fecha, operario e inicio
+     */
+    public List<SlotRow> findByCategoryAndDateRange(Long categoryId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT category_id, slot_date, operator_id, start_minute, end_minute FROM availability_slots " +
+            "WHERE category_id = ? AND slot_date BETWEEN ? AND ? " +
+            "ORDER BY slot_date, operator_id, start_minute",
+            (rs, rowNum) -> new SlotRow(
+                rs.getLong("category_id"),
+                rs.getDate("slot_date").toLocalDate(),
+                rs.getLong("operator_id"),
+                rs.getInt("start_minute"),
+                rs.getInt("end_minute")),
+            categoryId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private void insertAll(List<SlotRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SlotRow row = rows.get(i);
+                ps.setLong(1, row.categoryId());
+                ps.setDate(2, Date.valueOf(row.date()));
+                ps.setLong(3, row.operatorId());
+                ps.setInt(4, row.startMinute());
+                ps.setInt(5, row.endMinute());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
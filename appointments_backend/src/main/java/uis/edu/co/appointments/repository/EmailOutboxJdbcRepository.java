@@ -0,0 +1,156 @@
+package uis.edu.co.appointments.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bandeja de salida de correos (tabla email_outbox).
+ *
+ * Los correos se insertan en la misma transacción que el cambio que los origina y un
+ * proceso en segundo plano los reclama por lotes (FOR UPDATE SKIP LOCKED, así varias
+ * instancias no se pisan) para enviarlos fuera de la petición. Los que agotan los
+ * reintentos quedan en FAILED: son la cola de mensajes muertos, que se puede revisar
+ * y reencolar.
+ */
+@Repository
+public class EmailOutboxJdbcRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO email_outbox (recipient, subject, template_name, variables, status, attempts, " +
+        "next_attempt_at, created_at) VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // Los mensajes en SENDING con el plazo vencido (instancia caída a mitad de envío) se reintentan
+    private static final String CLAIM_SQL =
+        "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+        "WHERE id IN (SELECT id FROM email_outbox " +
+        "             WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? " +
+        "             ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "RETURNING id, recipient, subject, template_name, variables, attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Correo reclamado para envío
+     */
+    public record OutboxEmail(Long id, String recipient, String subject, String templateName,
+                              String variables, int attempts) {
+    }
+
+    /**
+     * Correo descartado tras agotar los reintentos
+     */
+    public record DeadLetter(Long id, String recipient, String subject, String templateName,
+                             int attempts, String lastError, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Encolar un correo (participa en la transacción en curso)
+     */
+    public void insert(String recipient, String subject, String templateName, String variables) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, recipient, subject, templateName, variables, now, now);
+    }
+
+    /**
+     * Reclamar hasta limit correos vencidos; quedan en SENDING hasta leaseUntil
+     */
+    public List<OutboxEmail> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL,
+            (rs, rowNum) -> new OutboxEmail(
+                rs.getLong("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("template_name"),
+                rs.getString("variables"),
+                rs.getInt("attempts")
+            ),
+            Timestamp.valueOf(leaseUntil), Timestamp.valueOf(now), limit);
+    }
+
+    public void markSent(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "UPDATE email_outbox SET status = 'SENT', sent_at = ?, last_error = NULL WHERE id = ?",
+            ids, ids.size(), (ps, id) -> {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, id);
+            });
+    }
+
+    public void markRetry(Long id, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, last_error = ? WHERE id = ?",
+            Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+
+    public void markFailed(Long id, String error) {
+        jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'FAILED', last_error = ? WHERE id = ?",
+            truncate(error), id);
+    }
+
+    /**
+     * Correos muertos, los más recientes primero
+     */
+    public List<DeadLetter> findDeadLetters(int limit) {
+        return jdbcTemplate.query(
+            "SELECT id, recipient, subject, template_name, attempts, last_error, created_at " +
+            "FROM email_outbox WHERE status = 'FAILED' ORDER BY id DESC LIMIT ?",
+            (rs, rowNum) -> new DeadLetter(
+                rs.getLong("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("template_name"),
+                rs.getInt("attempts"),
+                rs.getString("last_error"),
+                rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null
+            ),
+            limit);
+    }
+
+    /**
+     * Volver a encolar un correo muerto con los intentos a cero
+     * @return true si el correo existía y estaba en FAILED
+     */
+    public boolean requeue(Long id) {
+        return jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'PENDING', attempts = 0, next_attempt_at = ? " +
+            "WHERE id = ? AND status = 'FAILED'",
+            Timestamp.valueOf(LocalDateTime.now()), id) > 0;
+    }
+
+    /**
+     * Número de correos por estado
+     */
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*) AS total FROM email_outbox GROUP BY status",
+            rs -> { counts.put(rs.getString("status"), rs.getLong("total")); });
+        return counts;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
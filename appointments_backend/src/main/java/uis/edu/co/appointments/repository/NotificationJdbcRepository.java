@@ -0,0 +1,213 @@
+package uis.edu.co.appointments.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import uis.edu.co.appointments.dto.NotificationSummary;
+import uis.edu.co.appointments.models.Notification;
+
+/**
+ * Inserciones masivas de notificaciones con JDBC batching, borrados por lotes acotados,
+ * el reclamo de recordatorios vencidos y la bandeja paginada por cursor
+ */
+@Repository
+public class NotificationJdbcRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (user_id, appointment_id, message, is_read, type, metadata, " +
+        "scheduled_for, is_sent, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Inferencia del índice único parcial uq_notifications_appointment_reminder
+    private static final String REMINDER_CONFLICT =
+        " ON CONFLICT (appointment_id, type) WHERE type IN ('REMINDER_DAY', 'REMINDER_HOUR') DO NOTHING";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insertar las notificaciones en lotes (no se recuperan los IDs generados)
+     */
+    public void insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, BATCH_SIZE,
+            (ps, notification) -> bind(ps, notification, now, 0));
+    }
+
+    /**
+     * Insertar recordatorios con un INSERT multi-fila por cada BATCH_SIZE filas. Los que ya
+     * existen para la misma cita y tipo se descartan en la BD (ON CONFLICT DO NOTHING), sin
+     * consultas previas ni carreras entre ediciones concurrentes.
+     * @return los recordatorios realmente insertados, con su ID asignado
+     */
+    public List<Notification> insertReminders(List<Notification> reminders) {
+        Map<String, Notification> byKey = new LinkedHashMap<>();
+        for (Notification reminder : reminders) {
+            byKey.putIfAbsent(reminderKey(reminder.getAppointment().getId(), reminder.getType()), reminder);
+        }
+        List<Notification> unique = new ArrayList<>(byKey.values());
+        List<Notification> inserted = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < unique.size(); from += BATCH_SIZE) {
+            List<Notification> chunk = unique.subList(from, Math.min(from + BATCH_SIZE, unique.size()));
+            String sql = INSERT_SQL.substring(0, INSERT_SQL.indexOf(" VALUES")) + " VALUES " +
+                String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, ?, ?, ?, ?)")) +
+                REMINDER_CONFLICT + " RETURNING id, appointment_id, type";
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                for (int k = 0; k < chunk.size(); k++) {
+                    bind(ps, chunk.get(k), now, k * 9);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                Notification reminder = byKey.get(reminderKey(rs.getLong("appointment_id"), rs.getString("type")));
+                reminder.setId(rs.getLong("id"));
+                reminder.setCreatedAt(now.toLocalDateTime());
+                inserted.add(reminder);
+            });
+        }
+        return inserted;
+    }
+
+    /**
+     * Reclamar, de las notificaciones indicadas, las programadas que ya vencieron y siguen sin
+     * enviar: se marcan como enviadas en el mismo UPDATE. Si otro nodo reclama las mismas filas
+     * a la vez, la BD serializa los UPDATE y el segundo ya no las ve pendientes, así cada
+     * recordatorio lo envía un solo nodo. Si la transacción se revierte, vuelven a quedar pendientes.
+     * @return IDs reclamados por esta transacción
+     */
+    public List<Long> claimDueReminders(Collection<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(ids);
+        args.add(Timestamp.valueOf(now));
+        return jdbcTemplate.queryForList(
+            "UPDATE notifications SET is_sent = true " +
+            "WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") " +
+            "AND is_sent = false AND scheduled_for IS NOT NULL AND scheduled_for <= ? " +
+            "RETURNING id",
+            Long.class, args.toArray());
+    }
+
+    /**
+     * Página de la bandeja de un usuario, de la más reciente a la más antigua, empezando
+     * después de (beforeCreatedAt, beforeId) si se indica (keyset: sin OFFSET, siempre
+     * un recorrido corto del índice (user_id, created_at DESC, id DESC))
+     */
+    public List<NotificationSummary> findInboxPage(Long userId, LocalDateTime beforeCreatedAt, Long beforeId,
+                                                   boolean unreadOnly, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, type, message, is_read, created_at, scheduled_for, appointment_id " +
+            "FROM notifications WHERE user_id = ?");
+        if (unreadOnly) {
+            sql.append(" AND is_read = false");
+        }
+        if (beforeCreatedAt != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(beforeCreatedAt));
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            NotificationSummary summary = new NotificationSummary();
+            summary.setId(rs.getLong("id"));
+            summary.setType(rs.getString("type"));
+            summary.setMessage(rs.getString("message"));
+            summary.setIsRead(rs.getBoolean("is_read"));
+            summary.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+            summary.setScheduledFor(toLocalDateTime(rs.getTimestamp("scheduled_for")));
+            summary.setAppointmentId(rs.getObject("appointment_id", Long.class));
+            return summary;
+        }, args.toArray());
+    }
+
+    /**
+     * Borrar hasta limit notificaciones leídas de un tipo creadas antes de cutoff
+     * @return filas borradas (menos que limit cuando ya no quedan)
+     */
+    public int deleteReadBefore(String type, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+            "DELETE FROM notifications WHERE id IN (" +
+            "  SELECT id FROM notifications WHERE is_read = true AND type = ? AND created_at < ? " +
+            "  ORDER BY id LIMIT ?)",
+            type, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Igual que deleteReadBefore pero para los tipos que no están en excludedTypes (política por defecto)
+     */
+    public int deleteReadBeforeExcept(Collection<String> excludedTypes, LocalDateTime cutoff, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(cutoff));
+        String typeFilter = "";
+        if (!excludedTypes.isEmpty()) {
+            typeFilter = " AND (type IS NULL OR type NOT IN (" +
+                String.join(", ", Collections.nCopies(excludedTypes.size(), "?")) + "))";
+            args.addAll(excludedTypes);
+        }
+        args.add(limit);
+        return jdbcTemplate.update(
+            "DELETE FROM notifications WHERE id IN (" +
+            "  SELECT id FROM notifications WHERE is_read = true AND created_at < ?" + typeFilter +
+            "  ORDER BY id LIMIT ?)",
+            args.toArray());
+    }
+
+    /**
+     * Asignar los 9 parámetros de una fila a partir de la posición offset + 1
+     */
+    private void bind(PreparedStatement ps, Notification notification, Timestamp now, int offset) throws SQLException {
+        ps.setLong(offset + 1, notification.getUser().getId());
+        if (notification.getAppointment() != null) {
+            ps.setLong(offset + 2, notification.getAppointment().getId());
+        } else {
+            ps.setNull(offset + 2, Types.BIGINT);
+        }
+        ps.setString(offset + 3, notification.getMessage());
+        ps.setBoolean(offset + 4, Boolean.TRUE.equals(notification.getIsRead()));
+        ps.setString(offset + 5, notification.getType());
+        ps.setString(offset + 6, notification.getMetadata());
+        if (notification.getScheduledFor() != null) {
+            ps.setTimestamp(offset + 7, Timestamp.valueOf(notification.getScheduledFor()));
+        } else {
+            ps.setNull(offset + 7, Types.TIMESTAMP);
+        }
+        ps.setBoolean(offset + 8, Boolean.TRUE.equals(notification.getIsSent()));
+        ps.setTimestamp(offset + 9, now);
+    }
+
+    private static String reminderKey(Long appointmentId, String type) {
+        return appointmentId + ":" + type;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,6 +1,7 @@
 package uis.edu.co.appointments.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import uis.edu.co.appointments.dto.ScheduledReminderView;
+import uis.edu.co.appointments.dto.UnreadCountView;
 import uis.edu.co.appointments.models.Notification;
 
 @Repository
@@ -30,29 +33,53 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByUserIdAndIsRead(Long userId, Boolean isRead);
 
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS unread FROM Notification n " +
+           "WHERE n.user.id IN :userIds AND n.isRead = false " +
+           "GROUP BY n.user.id")
+    List<UnreadCountView> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT n FROM Notification n WHERE " +
            "n.scheduledFor IS NOT NULL AND " +
            "n.scheduledFor <= :currentTime AND " +
            "n.isSent = false")
     List<Notification> findPendingScheduledNotifications(@Param("currentTime") LocalDateTime currentTime);
 
-    @Query("SELECT COUNT(n) > 0 FROM Notification n WHERE " +
-           "n.appointment.id = :appointmentId AND " +
-           "n.type = :type")
-    boolean existsByAppointmentIdAndType(
-        @Param("appointmentId") Long appointmentId,
-        @Param("type") String type
+    // Con usuario, cita y operario en la misma consulta (sin una carga por fila)
+    @Query("SELECT n FROM Notification n " +
+           "JOIN FETCH n.user " +
+           "LEFT JOIN FETCH n.appointment a " +
+           "LEFT JOIN FETCH a.user " +
+           "LEFT JOIN FETCH a.operator " +
+           "LEFT JOIN FETCH a.category " +
+           "LEFT JOIN FETCH a.series " +
+           "WHERE n.id IN :ids " +
+           "ORDER BY n.id")
+    List<Notification> findWithRecipientsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT n.id AS id, n.scheduledFor AS scheduledFor FROM Notification n WHERE " +
+           "n.scheduledFor IS NOT NULL AND " +
+           "n.scheduledFor <= :until AND " +
+           "n.isSent = false")
+    List<ScheduledReminderView> findPendingReminderTimes(@Param("until") LocalDateTime until);
+
+    @Query("SELECT n.id AS id, n.scheduledFor AS scheduledFor FROM Notification n WHERE " +
+           "n.appointment.id IN :appointmentIds AND " +
+           "n.scheduledFor IS NOT NULL AND " +
+           "n.isSent = false")
+    List<ScheduledReminderView> findPendingReminderTimesByAppointmentIds(
+        @Param("appointmentIds") Collection<Long> appointmentIds
     );
 
+    @Query("SELECT n.id AS id, n.scheduledFor AS scheduledFor FROM Notification n WHERE " +
+           "n.appointment.series.id = :seriesId AND " +
+           "n.scheduledFor IS NOT NULL AND " +
+           "n.isSent = false")
+    List<ScheduledReminderView> findPendingReminderTimesBySeriesId(@Param("seriesId") Long seriesId);
+
     List<Notification> findByAppointmentId(Long appointmentId);
 
     List<Notification> findByType(String type);
 
-    @Query("SELECT n FROM Notification n WHERE " +
-           "n.isRead = true AND " +
-           "n.createdAt < :cutoffDate")
-    List<Notification> findOldReadNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
-
     @Query("SELECT n FROM Notification n WHERE " +
            "n.user.id = :userId AND " +
            "n.type IN ('ADMIN_MODIFICATION', 'ADMIN_CANCELLATION') " +
@@ -61,5 +88,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
-    void markAllAsReadByUserId(@Param("userId") Long userId);
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
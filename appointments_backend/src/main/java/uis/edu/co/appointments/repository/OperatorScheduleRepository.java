@@ -1,6 +1,7 @@
 package uis.edu.co.appointments.repository;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import uis.edu.co.appointments.dto.ScheduleSlotView;
 import uis.edu.co.appointments.models.OperatorSchedule;
 
 @Repository
@@ -38,6 +40,13 @@ public interface OperatorScheduleRepository extends JpaRepository<OperatorSchedu
            "AND os.active = true ORDER BY os.dayOfWeek, os.startTime")
     List<OperatorSchedule> findActiveSchedulesByOperator(@Param("operatorId") Long operatorId);
 
+    // Horarios activos de varios operarios, todos los días (caché de horarios semanales)
+    @Query("SELECT os.operator.id AS operatorId, os.dayOfWeek AS dayOfWeek, " +
+           "os.startTime AS startTime, os.endTime AS endTime " +
+           "FROM OperatorSchedule os WHERE os.operator.id IN :operatorIds " +
+           "AND os.active = true ORDER BY os.startTime")
+    List<ScheduleSlotView> findActiveSlotsByOperators(@Param("operatorIds") Collection<Long> operatorIds);
+
     // Método sobrecargado sin excludeId (para creaciones nuevas)
     default boolean hasScheduleConflict(Long operatorId, DayOfWeek dayOfWeek,
                                        java.time.LocalTime startTime, 
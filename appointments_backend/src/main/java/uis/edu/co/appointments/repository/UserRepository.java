@@ -1,5 +1,9 @@
 package uis.edu.co.appointments.repository;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +14,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import uis.edu.co.appointments.dto.OperatorCategoryView;
 import uis.edu.co.appointments.models.User;
 
 @Repository
@@ -62,6 +67,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "WHERE c.id = :categoryId AND u.active = true AND u.role.name = 'OPERARIO'")
     List<User> findActiveOperatorsByCategory(@Param("categoryId") Long categoryId);
     
+    // Operarios disponibles para una categoría, fecha y horario en una sola consulta:
+    // atiende la categoría, el horario cabe en una jornada activa de ese día
+    // y no tiene citas activas que se solapen
+    @Query("SELECT u FROM User u JOIN FETCH u.role r JOIN u.operatorCategories c " +
+           "WHERE c.id = :categoryId AND u.active = true AND r.name = 'OPERARIO' " +
+           "AND EXISTS (SELECT os.id FROM OperatorSchedule os WHERE os.operator = u " +
+           "    AND os.active = true AND os.dayOfWeek = :dayOfWeek " +
+           "    AND os.startTime <= :startTime AND os.endTime >= :endTime) " +
+           "AND NOT EXISTS (SELECT a.id FROM Appointment a WHERE a.operator = u " +
+           "    AND a.date = :date AND a.deleted = false " +
+           "    AND a.status NOT IN ('CANCELLED', 'FAILED') " +
+           "    AND a.startTime < :endTime AND a.endTime > :startTime) " +
+           "ORDER BY u.id")
+    List<User> findAvailableOperators(
+        @Param("categoryId") Long categoryId,
+        @Param("date") LocalDate date,
+        @Param("dayOfWeek") DayOfWeek dayOfWeek,
+        @Param("startTime") LocalTime startTime,
+        @Param("endTime") LocalTime endTime
+    );
+    
+    // Categorías de los operarios activos (tabla de disponibilidad materializada)
+    @Query("SELECT u.id AS operatorId, c.id AS categoryId FROM User u JOIN u.operatorCategories c " +
+           "WHERE u.active = true AND u.role.name = 'OPERARIO'")
+    List<OperatorCategoryView> findActiveOperatorCategories();
+
+    @Query("SELECT u.id AS operatorId, c.id AS categoryId FROM User u JOIN u.operatorCategories c " +
+           "WHERE u.id IN :operatorIds AND u.active = true AND u.role.name = 'OPERARIO'")
+    List<OperatorCategoryView> findActiveOperatorCategories(@Param("operatorIds") Collection<Long> operatorIds);
+
+    // Operarios activos por ID en orden (para resultados de la tabla materializada)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.active = true ORDER BY u.id")
+    List<User> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
     // Verificar si usuario es operario
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :userId " +
            "AND u.role.name = 'OPERARIO'")
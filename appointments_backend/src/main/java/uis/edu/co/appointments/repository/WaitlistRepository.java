@@ -0,0 +1,54 @@
+package uis.edu.co.appointments.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.models.WaitlistStatus;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.user.id = :userId ORDER BY w.createdAt DESC")
+    List<WaitlistEntry> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.user.id = :userId AND w.status = 'WAITING'")
+    long countWaitingByUserId(@Param("userId") Long userId);
+
+    // Solicitudes en espera de varias categorías y fechas, en orden de llegada (una sola consulta por lote)
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.user JOIN FETCH w.category " +
+           "WHERE w.status = 'WAITING' AND w.category.id IN :categoryIds AND w.date IN :dates " +
+           "ORDER BY w.createdAt, w.id")
+    List<WaitlistEntry> findWaiting(
+        @Param("categoryIds") Collection<Long> categoryIds,
+        @Param("dates") Collection<LocalDate> dates
+    );
+
+    /**
+     * Pasar una solicitud de WAITING al estado indicado. La fila queda bloqueada hasta el fin de
+     * la transacción, así dos reservas u ofertas concurrentes no toman la misma solicitud.
+     * @return 1 si la solicitud seguía en espera, 0 si no
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :status, w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.id = :id AND w.status = 'WAITING'")
+    int claimWaiting(@Param("id") Long id, @Param("status") WaitlistStatus status);
+
+    // Cancelar solo si sigue activa (no pisa una reserva confirmada en paralelo)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry w SET w.status = 'CANCELLED', w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.id = :id AND w.status IN ('WAITING', 'OFFERED')")
+    int cancelIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED', w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.status = 'WAITING' AND w.date < :today")
+    int expireBefore(@Param("today") LocalDate today);
+}
@@ -18,6 +18,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 
 @Configuration
 @EnableMethodSecurity
@@ -36,6 +38,9 @@ public class SecurityConfig {
             .cors(cors -> {})
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Despachos asíncronos (canal SSE): la petición original ya se autorizó
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Rutas públicas
                 .requestMatchers("/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 
@@ -47,10 +52,14 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/appointments/user-stats/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/pending-completion").hasAuthority("OPERARIO")
                 .requestMatchers(HttpMethod.GET, "/api/appointments/available-operators").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/appointments/free-slots").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/operator/**").hasAnyAuthority("OPERARIO", "ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/appointments/search").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/dashboard/stats").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/upcoming").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/appointments/batch").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/appointments/series").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/appointments/holds/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/appointments").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/appointments/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/appointments/**").authenticated()
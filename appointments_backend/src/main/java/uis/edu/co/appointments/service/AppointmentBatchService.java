@@ -0,0 +1,281 @@
+package uis.edu.co.appointments.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import uis.edu.co.appointments.dto.BatchAppointmentResult;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.events.AppointmentsCreatedEvent;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.AppointmentStatus;
+import uis.edu.co.appointments.models.AttendanceStatus;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentJdbcRepository;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.BookingLockService.BookingKey;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+import uis.edu.co.appointments.util.AppointmentTimeRules;
+
+/**
+ * Creación de citas por lote (p. ej. un día completo de turnos presenciales).
+ *
+ * Bloquea las agendas involucradas, carga una sola foto de horarios y citas activas,
+ * valida cada cita en memoria (incluyendo las del mismo lote) e inserta las aceptadas
+ * con JDBC batching en una sola transacción. Las notificaciones y correos se envían
+ * en segundo plano después del commit.
+ */
+@Service
+public class AppointmentBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentBatchService.class);
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentJdbcRepository appointmentJdbcRepository;
+    private final BookingLockService bookingLockService;
+    private final SlotHoldRegistry holdRegistry;
+    private final OperatorAssignmentService assignmentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxSize;
+
+    public AppointmentBatchService(UserRepository userRepository,
+                                   CategoryRepository categoryRepository,
+                                   OperatorScheduleService scheduleService,
+                                   AppointmentRepository appointmentRepository,
+                                   AppointmentJdbcRepository appointmentJdbcRepository,
+                                   BookingLockService bookingLockService,
+                                   SlotHoldRegistry holdRegistry,
+                                   OperatorAssignmentService assignmentService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${appointments.batch.max-size:200}") int maxSize) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentJdbcRepository = appointmentJdbcRepository;
+        this.bookingLockService = bookingLockService;
+        this.holdRegistry = holdRegistry;
+        this.assignmentService = assignmentService;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Crear varias citas. Cada cita se acepta o se rechaza por separado;
+     * el resultado conserva el orden (índice) de la solicitud.
+     */
+    @Transactional
+    public List<BatchAppointmentResult> createAll(List<Appointment> requested) {
+        if (requested == null || requested.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos una cita");
+        }
+        if (requested.size() > maxSize) {
+            throw new IllegalArgumentException(
+                "El lote no puede tener más de " + maxSize + " citas"
+            );
+        }
+
+        // 1) Usuarios, categorías y operarios involucrados (consultas agrupadas)
+        Map<Long, User> users = byId(userRepository.findAllById(idsOf(requested, a -> a.getUser() != null ? a.getUser().getId() : null)));
+        Map<Long, Category> categories = byId(categoryRepository.findAllById(
+            idsOf(requested, a -> a.getCategory() != null ? a.getCategory().getId() : null)), Category::getId);
+
+        Map<Long, List<User>> categoryOperators = new HashMap<>();
+        for (Long categoryId : categories.keySet()) {
+            categoryOperators.put(categoryId, userRepository.findActiveOperatorsByCategory(categoryId));
+        }
+        Map<Long, User> operators = byId(userRepository.findAllById(idsOf(requested, a -> a.getOperator() != null ? a.getOperator().getId() : null)));
+        categoryOperators.values().forEach(list -> list.forEach(op -> operators.putIfAbsent(op.getId(), op)));
+
+        // 2) Validación de datos de cada cita (sin disponibilidad)
+        BatchAppointmentResult[] results = new BatchAppointmentResult[requested.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < requested.size(); i++) {
+            String error = validateFields(requested.get(i), users, categories, operators, categoryOperators);
+            if (error != null) {
+                results[i] = BatchAppointmentResult.invalid(i, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // 3) Bloquear agendas y cargar una sola foto de disponibilidad
+        Set<BookingKey> keys = new LinkedHashSet<>();
+        for (int i : candidates) {
+            Appointment appointment = requested.get(i);
+            for (User operator : possibleOperators(appointment, operators, categoryOperators)) {
+                keys.add(new BookingKey(operator.getId(), appointment.getDate()));
+            }
+        }
+        bookingLockService.lockAll(keys);
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.load(scheduleService, appointmentRepository, holdRegistry, keys);
+
+        // 4) Asignar y validar disponibilidad en orden, reservando en la foto
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i : candidates) {
+            Appointment appointment = requested.get(i);
+            User operator = assign(appointment, operators, categoryOperators, snapshot);
+            if (operator == null) {
+                results[i] = BatchAppointmentResult.conflict(i, appointment.getOperator() != null
+                    && appointment.getOperator().getId() != null
+                        ? "El operario no está disponible en ese horario"
+                        : "No hay operarios disponibles para esa fecha y hora");
+                continue;
+            }
+            snapshot.book(operator.getId(), appointment.getDate(),
+                          appointment.getStartTime(), appointment.getEndTime());
+            prepare(appointment, users, categories, operator);
+            accepted.add(appointment);
+            acceptedIndexes.add(i);
+        }
+
+        // 5) Insertar con JDBC batching
+        appointmentJdbcRepository.insertAll(accepted);
+        for (int k = 0; k < accepted.size(); k++) {
+            Appointment saved = accepted.get(k);
+            results[acceptedIndexes.get(k)] = BatchAppointmentResult.created(
+                acceptedIndexes.get(k), saved.getId(), saved.getOperator().getId());
+            eventPublisher.publishEvent(AppointmentChangedEvent.from(saved));
+        }
+
+        // 6) Notificaciones y correos en segundo plano
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(new AppointmentsCreatedEvent(
+                accepted.stream().map(Appointment::getId).collect(Collectors.toList())));
+        }
+
+        logger.info("Lote de citas: {} solicitadas, {} creadas", requested.size(), accepted.size());
+        return List.of(results);
+    }
+
+    private String validateFields(Appointment appointment, Map<Long, User> users,
+                                  Map<Long, Category> categories, Map<Long, User> operators,
+                                  Map<Long, List<User>> categoryOperators) {
+        if (appointment.getUser() == null || !users.containsKey(appointment.getUser().getId())) {
+            return "Usuario no encontrado";
+        }
+        if (appointment.getTitle() == null || appointment.getTitle().isBlank()) {
+            return "El título es obligatorio";
+        }
+        if (appointment.getDate() == null || appointment.getStartTime() == null
+                || appointment.getEndTime() == null) {
+            return "La fecha y las horas de inicio y fin son obligatorias";
+        }
+        String timeError = AppointmentTimeRules.checkTimes(appointment.getStartTime(), appointment.getEndTime());
+        if (timeError != null) {
+            return timeError;
+        }
+        String pastError = AppointmentTimeRules.checkNotPast(appointment.getDate(), appointment.getStartTime());
+        if (pastError != null) {
+            return pastError;
+        }
+
+        boolean hasCategory = appointment.getCategory() != null && appointment.getCategory().getId() != null;
+        boolean hasOperator = appointment.getOperator() != null && appointment.getOperator().getId() != null;
+        if (hasCategory && !categories.containsKey(appointment.getCategory().getId())) {
+            return "Categoría no encontrada";
+        }
+        if (!hasOperator && !hasCategory) {
+            return "Debe indicar la categoría o el operario de la cita";
+        }
+        if (hasOperator && !operators.containsKey(appointment.getOperator().getId())) {
+            return "Operario no encontrado";
+        }
+        if (hasOperator && hasCategory && categoryOperators.get(appointment.getCategory().getId()).stream()
+                .noneMatch(op -> op.getId().equals(appointment.getOperator().getId()))) {
+            return "El operario no atiende esta categoría";
+        }
+        return null;
+    }
+
+    /**
+     * Operarios que podrían atender la cita: el indicado o los de su categoría
+     */
+    private List<User> possibleOperators(Appointment appointment, Map<Long, User> operators,
+                                         Map<Long, List<User>> categoryOperators) {
+        if (appointment.getOperator() != null && appointment.getOperator().getId() != null) {
+            return List.of(operators.get(appointment.getOperator().getId()));
+        }
+        return categoryOperators.getOrDefault(appointment.getCategory().getId(), List.of());
+    }
+
+    private User assign(Appointment appointment, Map<Long, User> operators,
+                        Map<Long, List<User>> categoryOperators, AvailabilitySnapshot snapshot) {
+        LocalDate date = appointment.getDate();
+        LocalTime start = appointment.getStartTime();
+        LocalTime end = appointment.getEndTime();
+        Long categoryId = appointment.getCategory() != null ? appointment.getCategory().getId() : null;
+
+        if (appointment.getOperator() != null && appointment.getOperator().getId() != null) {
+            User operator = operators.get(appointment.getOperator().getId());
+            return snapshot.isFree(operator.getId(), date, start, end) ? operator : null;
+        }
+
+        List<User> free = categoryOperators.getOrDefault(categoryId, List.of()).stream()
+            .filter(op -> snapshot.isFree(op.getId(), date, start, end))
+            .collect(Collectors.toList());
+        return assignmentService.choose(categoryId, free, date);
+    }
+
+    private void prepare(Appointment appointment, Map<Long, User> users,
+                         Map<Long, Category> categories, User operator) {
+        appointment.setId(null);
+        appointment.setUser(users.get(appointment.getUser().getId()));
+        if (appointment.getCategory() != null && appointment.getCategory().getId() != null) {
+            appointment.setCategory(categories.get(appointment.getCategory().getId()));
+        }
+        appointment.setOperator(operator);
+        appointment.setDurationMinutes((int) Duration.between(
+            appointment.getStartTime(), appointment.getEndTime()).toMinutes());
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setAttendanceStatus(AttendanceStatus.PENDING);
+        appointment.setDeleted(false);
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static Set<Long> idsOf(List<Appointment> appointments, Function<Appointment, Long> relationId) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Appointment appointment : appointments) {
+            Long id = relationId.apply(appointment);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Map<Long, User> byId(List<User> users) {
+        return byId(users, User::getId);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> items, Function<T, Long> id) {
+        Map<Long, T> map = new HashMap<>();
+        for (T item : items) {
+            map.put(id.apply(item), item);
+        }
+        return map;
+    }
+}
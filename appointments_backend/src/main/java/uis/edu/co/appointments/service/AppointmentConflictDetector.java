@@ -0,0 +1,137 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.dto.AppointmentConflictDTO;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.util.IntervalTree;
+
+/**
+ * Detección de solapamientos con un árbol de intervalos por operario y día.
+ *
+ * Cada árbol se construye con una consulta de las citas activas de ese día (no del historial
+ * completo del operario) y responde en O(log n + k). Las reservas recargan el día bajo el
+ * bloqueo de BookingLockService para validar contra datos confirmados; las consultas de solo
+ * lectura usan el árbol en caché, que se descarta con los eventos de cita.
+ */
+@Component
+public class AppointmentConflictDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentConflictDetector.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlMillis;
+
+    private final Map<DayKey, DayTree> days = new ConcurrentHashMap<>();
+    private final Map<Long, DayKey> appointmentDays = new ConcurrentHashMap<>();
+
+    public AppointmentConflictDetector(AppointmentRepository appointmentRepository,
+                                       @Value("${availability.index.ttl-minutes:10}") long ttlMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlMillis = ttlMinutes * 60_000L;
+    }
+
+    /**
+     * Citas que se solapan con [start, end), usando el árbol en caché
+     * @param excludeAppointmentId - cita que se está editando (puede ser null)
+     */
+    public List<AppointmentConflictDTO> findConflicts(Long operatorId, LocalDate date,
+                                                      LocalTime start, LocalTime end,
+                                                      Long excludeAppointmentId) {
+        DayKey key = new DayKey(operatorId, date);
+        DayTree day = days.get(key);
+        if (day == null || System.currentTimeMillis() - day.loadedAt() > ttlMillis) {
+            day = load(key);
+        }
+        return query(day, start, end, excludeAppointmentId);
+    }
+
+    /**
+     * Igual que findConflicts, pero recargando el día desde la BD.
+     * Usar con la agenda del operario bloqueada (BookingLockService) al reservar.
+     */
+    public List<AppointmentConflictDTO> findConflictsForBooking(Long operatorId, LocalDate date,
+                                                                LocalTime start, LocalTime end,
+                                                                Long excludeAppointmentId) {
+        return query(load(new DayKey(operatorId, date)), start, end, excludeAppointmentId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getAppointmentId() != null) {
+            DayKey previous = appointmentDays.remove(event.getAppointmentId());
+            if (previous != null) {
+                days.remove(previous);
+            }
+        }
+        if (event.getOperatorId() != null && event.getDate() != null) {
+            days.remove(new DayKey(event.getOperatorId(), event.getDate()));
+        }
+    }
+
+    /**
+     * Tarea programada: descartar días pasados (cada día a medianoche)
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+        appointmentDays.values().removeIf(key -> key.date().isBefore(today));
+    }
+
+    // ==================== CARGA Y CONSULTA ====================
+
+    private DayTree load(DayKey key) {
+        List<BookedSlot> appointments = appointmentRepository
+            .findActiveSlotsByOperatorsAndDate(List.of(key.operatorId()), key.date())
+            .stream()
+            .map(a -> new BookedSlot(a.getId(), a.getStartTime(), a.getEndTime()))
+            .collect(Collectors.toList());
+
+        DayTree day = new DayTree(
+            key.date(),
+            IntervalTree.of(appointments, a -> seconds(a.start()), a -> seconds(a.end())),
+            System.currentTimeMillis()
+        );
+        days.put(key, day);
+        appointments.forEach(a -> appointmentDays.put(a.appointmentId(), key));
+        logger.debug("Árbol de citas cargado: operario {}, {} ({} citas)",
+                    key.operatorId(), key.date(), appointments.size());
+        return day;
+    }
+
+    private List<AppointmentConflictDTO> query(DayTree day, LocalTime start, LocalTime end,
+                                               Long excludeAppointmentId) {
+        return day.tree().overlapping(seconds(start), seconds(end)).stream()
+            .filter(a -> excludeAppointmentId == null || !excludeAppointmentId.equals(a.appointmentId()))
+            .map(a -> new AppointmentConflictDTO(day.date(), a.start(), a.end()))
+            .collect(Collectors.toList());
+    }
+
+    private static int seconds(LocalTime time) {
+        return time.toSecondOfDay();
+    }
+
+    private record DayKey(Long operatorId, LocalDate date) {
+    }
+
+    // Cita activa del día; el id solo se usa para excluir la cita en edición y para invalidar
+    private record BookedSlot(Long appointmentId, LocalTime start, LocalTime end) {
+    }
+
+    private record DayTree(LocalDate date, IntervalTree<BookedSlot> tree, long loadedAt) {
+    }
+}
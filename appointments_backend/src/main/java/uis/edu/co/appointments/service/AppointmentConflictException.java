@@ -0,0 +1,24 @@
+package uis.edu.co.appointments.service;
+
+import java.util.List;
+
+import uis.edu.co.appointments.dto.AppointmentConflictDTO;
+
+/**
+ * Rechazo de una reserva por solapamiento, con los horarios ocupados que la impiden
+ */
+public class AppointmentConflictException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<AppointmentConflictDTO> conflicts;
+
+    public AppointmentConflictException(String message, List<AppointmentConflictDTO> conflicts) {
+        super(message);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public List<AppointmentConflictDTO> getConflicts() {
+        return conflicts;
+    }
+}
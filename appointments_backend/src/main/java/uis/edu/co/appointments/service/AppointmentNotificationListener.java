@@ -0,0 +1,61 @@
+package uis.edu.co.appointments.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.events.AppointmentSeriesCreatedEvent;
+import uis.edu.co.appointments.events.AppointmentsCreatedEvent;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+/**
+ * Envía en segundo plano las notificaciones de las citas creadas por lote o por serie,
+ * después de que la transacción de inserción se confirma.
+ */
+@Component
+public class AppointmentNotificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentNotificationListener.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+
+    public AppointmentNotificationListener(AppointmentRepository appointmentRepository,
+                                           AppointmentService appointmentService) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentService = appointmentService;
+    }
+
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAppointmentsCreated(AppointmentsCreatedEvent event) {
+        int notified = 0;
+        for (Appointment appointment : appointmentRepository.findAllById(event.getAppointmentIds())) {
+            try {
+                appointmentService.notifyAppointmentCreated(appointment);
+                notified++;
+            } catch (Exception e) {
+                logger.error("Error notificando cita {}: {}", appointment.getId(), e.getMessage());
+            }
+        }
+        logger.info("Notificaciones enviadas para {} cita(s) creadas por lote", notified);
+    }
+
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSeriesCreated(AppointmentSeriesCreatedEvent event) {
+        try {
+            appointmentService.notifySeriesCreated(
+                appointmentRepository.findBySeriesIdOrderByDateAsc(event.getSeriesId()));
+        } catch (Exception e) {
+            logger.error("Error notificando serie {}: {}", event.getSeriesId(), e.getMessage());
+        }
+    }
+}
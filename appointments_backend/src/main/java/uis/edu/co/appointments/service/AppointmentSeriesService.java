@@ -0,0 +1,283 @@
+package uis.edu.co.appointments.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import uis.edu.co.appointments.dto.AppointmentSeriesResult;
+import uis.edu.co.appointments.dto.RecurringAppointmentRequest;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.events.AppointmentSeriesCreatedEvent;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.AppointmentSeries;
+import uis.edu.co.appointments.models.AppointmentStatus;
+import uis.edu.co.appointments.models.AttendanceStatus;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.Notification;
+import uis.edu.co.appointments.models.RecurrenceFrequency;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentJdbcRepository;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.AppointmentSeriesRepository;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.BookingLockService.BookingKey;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+import uis.edu.co.appointments.util.AppointmentTimeRules;
+
+/**
+ * Citas recurrentes (p. ej. semanal durante 12 semanas).
+ *
+ * Todas las ocurrencias se validan en una sola pasada contra una foto de horarios y citas.
+ * Se intenta mantener el mismo operario en toda la serie; si no está libre en alguna fecha
+ * se elige otro solo para esa ocurrencia. Las citas y sus recordatorios se insertan por lote.
+ */
+@Service
+public class AppointmentSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentSeriesService.class);
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSeriesRepository seriesRepository;
+    private final AppointmentJdbcRepository appointmentJdbcRepository;
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationService notificationService;
+    private final NotificationSchedulerService schedulerService;
+    private final BookingLockService bookingLockService;
+    private final SlotHoldRegistry holdRegistry;
+    private final OperatorAssignmentService assignmentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxOccurrences;
+
+    public AppointmentSeriesService(UserRepository userRepository,
+                                    CategoryRepository categoryRepository,
+                                    OperatorScheduleService scheduleService,
+                                    AppointmentRepository appointmentRepository,
+                                    AppointmentSeriesRepository seriesRepository,
+                                    AppointmentJdbcRepository appointmentJdbcRepository,
+                                    NotificationJdbcRepository notificationJdbcRepository,
+                                    NotificationService notificationService,
+                                    NotificationSchedulerService schedulerService,
+                                    BookingLockService bookingLockService,
+                                    SlotHoldRegistry holdRegistry,
+                                    OperatorAssignmentService assignmentService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${appointments.series.max-occurrences:52}") int maxOccurrences) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+        this.seriesRepository = seriesRepository;
+        this.appointmentJdbcRepository = appointmentJdbcRepository;
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationService = notificationService;
+        this.schedulerService = schedulerService;
+        this.bookingLockService = bookingLockService;
+        this.holdRegistry = holdRegistry;
+        this.assignmentService = assignmentService;
+        this.eventPublisher = eventPublisher;
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    /**
+     * Crear una serie de citas para el usuario indicado.
+     * Si alguna ocurrencia tiene conflicto y no se permite creación parcial,
+     * no se guarda nada y el resultado indica qué fechas fallan.
+     */
+    @Transactional
+    public AppointmentSeriesResult createSeries(RecurringAppointmentRequest request, Long userId) {
+        validate(request);
+        RecurrenceFrequency frequency = RecurrenceFrequency.fromString(request.getFrequency());
+
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
+        Category category = categoryRepository.findById(request.getCategoryId())
+            .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada"));
+
+        List<User> candidates = userRepository.findActiveOperatorsByCategory(category.getId());
+        if (request.getOperatorId() != null) {
+            candidates = candidates.stream()
+                .filter(op -> op.getId().equals(request.getOperatorId()))
+                .toList();
+            if (candidates.isEmpty()) {
+                throw new IllegalArgumentException("El operario no atiende esta categoría");
+            }
+        }
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No hay operarios que atiendan esta categoría");
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            dates.add(frequency.occurrence(request.getStartDate(), i));
+        }
+
+        // 1) Bloquear agendas y cargar una sola foto de disponibilidad
+        Set<BookingKey> keys = new LinkedHashSet<>();
+        for (User operator : candidates) {
+            for (LocalDate date : dates) {
+                keys.add(new BookingKey(operator.getId(), date));
+            }
+        }
+        bookingLockService.lockAll(keys);
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.load(scheduleService, appointmentRepository, holdRegistry, keys);
+
+        // 2) Una pasada: disponibilidad de cada candidato en cada fecha
+        boolean[][] free = new boolean[candidates.size()][dates.size()];
+        int[] coverage = new int[candidates.size()];
+        for (int c = 0; c < candidates.size(); c++) {
+            for (int d = 0; d < dates.size(); d++) {
+                free[c][d] = snapshot.isFree(candidates.get(c).getId(), dates.get(d),
+                                             request.getStartTime(), request.getEndTime());
+                if (free[c][d]) {
+                    coverage[c]++;
+                }
+            }
+        }
+
+        // 3) Operario preferido: libre en todas las fechas o, si no hay, el que cubre más
+        int preferred = preferredOperator(category.getId(), candidates, coverage, dates);
+
+        // 4) Asignación por ocurrencia con respaldo
+        AppointmentSeriesResult result = new AppointmentSeriesResult();
+        result.setPreferredOperatorId(candidates.get(preferred).getId());
+        List<User> assigned = new ArrayList<>();
+        for (int d = 0; d < dates.size(); d++) {
+            User operator = null;
+            if (free[preferred][d]) {
+                operator = candidates.get(preferred);
+            } else {
+                List<User> freeThatDay = new ArrayList<>();
+                for (int c = 0; c < candidates.size(); c++) {
+                    if (free[c][d]) {
+                        freeThatDay.add(candidates.get(c));
+                    }
+                }
+                operator = assignmentService.choose(category.getId(), freeThatDay, dates.get(d));
+            }
+
+            assigned.add(operator);
+            result.getOccurrences().add(operator != null
+                ? new AppointmentSeriesResult.Occurrence(dates.get(d), AppointmentSeriesResult.AVAILABLE,
+                                                         operator.getId(), null)
+                : new AppointmentSeriesResult.Occurrence(dates.get(d), AppointmentSeriesResult.CONFLICT,
+                                                         null, "No hay operarios disponibles para esa fecha y hora"));
+        }
+
+        boolean noneAvailable = assigned.stream().allMatch(Objects::isNull);
+        if (result.hasConflicts() && (!request.isAllowPartial() || noneAvailable)) {
+            logger.info("Serie rechazada para usuario {}: ocurrencias con conflicto", userId);
+            return result;
+        }
+
+        // 5) Guardar la serie, sus ocurrencias y los recordatorios (por lote)
+        AppointmentSeries series = new AppointmentSeries();
+        series.setUser(user);
+        series.setCategory(category);
+        series.setTitle(request.getTitle());
+        series.setDescription(request.getDescription());
+        series.setFrequency(frequency);
+        series.setStartDate(request.getStartDate());
+        series.setOccurrences(request.getOccurrences());
+        series.setStartTime(request.getStartTime());
+        series.setEndTime(request.getEndTime());
+        series = seriesRepository.save(series);
+
+        List<Appointment> appointments = new ArrayList<>();
+        List<AppointmentSeriesResult.Occurrence> createdOccurrences = new ArrayList<>();
+        for (int d = 0; d < dates.size(); d++) {
+            if (assigned.get(d) == null) {
+                continue;
+            }
+            appointments.add(occurrence(series, user, category, assigned.get(d), dates.get(d)));
+            createdOccurrences.add(result.getOccurrences().get(d));
+        }
+        appointmentJdbcRepository.insertAll(appointments);
+
+        List<Notification> reminders = new ArrayList<>();
+        for (int k = 0; k < appointments.size(); k++) {
+            Appointment appointment = appointments.get(k);
+            AppointmentSeriesResult.Occurrence occurrence = createdOccurrences.get(k);
+            occurrence.setStatus(AppointmentSeriesResult.CREATED);
+            occurrence.setAppointmentId(appointment.getId());
+            reminders.addAll(schedulerService.buildReminders(appointment));
+            eventPublisher.publishEvent(AppointmentChangedEvent.from(appointment));
+        }
+        notificationJdbcRepository.insertAll(reminders);
+        notificationService.registerInserted(reminders);
+        eventPublisher.publishEvent(new AppointmentSeriesCreatedEvent(series.getId()));
+
+        result.setSeriesId(series.getId());
+        result.setCreated(appointments.size());
+        logger.info("Serie {} creada: {} de {} ocurrencias, {} recordatorios",
+                   series.getId(), appointments.size(), dates.size(), reminders.size());
+        return result;
+    }
+
+    private void validate(RecurringAppointmentRequest request) {
+        if (request.getOccurrences() == null || request.getOccurrences() < 1) {
+            throw new IllegalArgumentException("Debe haber al menos una ocurrencia");
+        }
+        if (request.getOccurrences() > maxOccurrences) {
+            throw new IllegalArgumentException(
+                "Una serie no puede tener más de " + maxOccurrences + " ocurrencias"
+            );
+        }
+        // Mismas reglas de horario que una cita individual; la primera ocurrencia es startDate
+        AppointmentTimeRules.validateTimes(request.getStartTime(), request.getEndTime());
+        AppointmentTimeRules.validateNotPast(request.getStartDate(), request.getStartTime());
+    }
+
+    private int preferredOperator(Long categoryId, List<User> candidates, int[] coverage, List<LocalDate> dates) {
+        List<User> fullyFree = new ArrayList<>();
+        int best = 0;
+        for (int c = 0; c < candidates.size(); c++) {
+            if (coverage[c] == dates.size()) {
+                fullyFree.add(candidates.get(c));
+            }
+            if (coverage[c] > coverage[best]) {
+                best = c;
+            }
+        }
+        if (!fullyFree.isEmpty()) {
+            User chosen = assignmentService.choose(categoryId, fullyFree, dates.get(0));
+            return candidates.indexOf(chosen);
+        }
+        return best;
+    }
+
+    private Appointment occurrence(AppointmentSeries series, User user, Category category,
+                                   User operator, LocalDate date) {
+        Appointment appointment = new Appointment();
+        appointment.setSeries(series);
+        appointment.setUser(user);
+        appointment.setCategory(category);
+        appointment.setOperator(operator);
+        appointment.setTitle(series.getTitle());
+        appointment.setDescription(series.getDescription());
+        appointment.setDate(date);
+        appointment.setStartTime(series.getStartTime());
+        appointment.setEndTime(series.getEndTime());
+        appointment.setDurationMinutes((int) Duration.between(
+            series.getStartTime(), series.getEndTime()).toMinutes());
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setAttendanceStatus(AttendanceStatus.PENDING);
+        appointment.setDeleted(false);
+        return appointment;
+    }
+}
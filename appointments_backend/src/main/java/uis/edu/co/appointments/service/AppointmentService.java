@@ -13,16 +13,19 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import uis.edu.co.appointments.dto.AppointmentConflictDTO;
 import uis.edu.co.appointments.dto.CompleteAppointmentRequest;
 import uis.edu.co.appointments.dto.DashboardStatsDTO;
 import uis.edu.co.appointments.dto.OperatorStats;
 import uis.edu.co.appointments.dto.UserAppointmentStats;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
 import uis.edu.co.appointments.models.Appointment;
 import uis.edu.co.appointments.models.AppointmentStatus;
 import uis.edu.co.appointments.models.AttendanceStatus;
@@ -30,6 +33,9 @@ import uis.edu.co.appointments.models.Notification;
 import uis.edu.co.appointments.models.NotificationType;
 import uis.edu.co.appointments.models.User;
 import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+import uis.edu.co.appointments.util.AppointmentTimeRules;
+import uis.edu.co.appointments.util.MinuteIntervals;
 
 @Service
 public class AppointmentService {
@@ -42,6 +48,13 @@ public class AppointmentService {
     private final EmailService emailService;
     private final UserService userService;
     private final OperatorScheduleService operatorScheduleService;
+    private final OperatorAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OperatorAssignmentService assignmentService;
+    private final BookingLockService bookingLockService;
+    private final AppointmentConflictDetector conflictDetector;
+    private final SlotHoldRegistry holdRegistry;
+    private final MaterializedAvailabilityService materializedAvailability;
 
     // Modificar el constructor para incluir:
     public AppointmentService(AppointmentRepository appointmentRepository,
@@ -49,13 +62,27 @@ public class AppointmentService {
                               @Lazy NotificationSchedulerService schedulerService,
                               EmailService emailService,
                               UserService userService,
-                              OperatorScheduleService operatorScheduleService) { // NUEVO
+                              OperatorScheduleService operatorScheduleService,
+                              OperatorAvailabilityIndex availabilityIndex,
+                              ApplicationEventPublisher eventPublisher,
+                              OperatorAssignmentService assignmentService,
+                              BookingLockService bookingLockService,
+                              AppointmentConflictDetector conflictDetector,
+                              SlotHoldRegistry holdRegistry,
+                              MaterializedAvailabilityService materializedAvailability) {
         this.appointmentRepository = appointmentRepository;
         this.notificationService = notificationService;
         this.schedulerService = schedulerService;
         this.emailService = emailService;
         this.userService = userService;
-        this.operatorScheduleService = operatorScheduleService; // NUEVO
+        this.operatorScheduleService = operatorScheduleService;
+        this.availabilityIndex = availabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.assignmentService = assignmentService;
+        this.bookingLockService = bookingLockService;
+        this.conflictDetector = conflictDetector;
+        this.holdRegistry = holdRegistry;
+        this.materializedAvailability = materializedAvailability;
     }
 
     /**
@@ -104,6 +131,26 @@ public class AppointmentService {
      */
     @Transactional
     public Appointment save(Appointment appointment) {
+        return persist(appointment, null);
+    }
+
+    /**
+     * Crear la cita de un apartado (hold) vigente.
+     * El operario y el horario vienen del apartado: no se busca operario. Los apartados viven
+     * en la memoria de cada nodo, así que igual se validan los solapamientos contra la BD.
+     */
+    @Transactional
+    public Appointment confirmHold(Appointment appointment, SlotHoldRegistry.SlotHold hold) {
+        User operator = new User();
+        operator.setId(hold.operatorId());
+        appointment.setOperator(operator);
+        appointment.setDate(hold.date());
+        appointment.setStartTime(hold.startTime());
+        appointment.setEndTime(hold.endTime());
+        return persist(appointment, hold.id());
+    }
+
+    private Appointment persist(Appointment appointment, String holdId) {
         boolean isNew = (appointment.getId() == null);
 
         // 1) Validar usuario
@@ -115,37 +162,32 @@ public class AppointmentService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
         appointment.setUser(user);
 
-        // 2) Validar y asignar operario si no viene
+        // Una cita nueva no puede quedar en el pasado (mismas reglas que el lote y las series)
+        if (isNew) {
+            AppointmentTimeRules.validateNotPast(appointment.getDate(), appointment.getStartTime());
+        }
+
+        // 2) Validar y asignar operario si no viene, 3) validaciones completas, con la agenda
+        //    del operario bloqueada hasta el commit para que dos reservas simultáneas no pasen
+        //    ambas la verificación de solapamiento
         if (appointment.getOperator() == null || appointment.getOperator().getId() == null) {
             // Buscar operario disponible automáticamente
             if (appointment.getCategory() == null || appointment.getCategory().getId() == null) {
                 throw new IllegalArgumentException("Debe especificar una categoría o un operario");
             }
-            
-            User availableOperator = findAvailableOperator(
-                appointment.getCategory().getId(),
-                appointment.getDate(),
-                appointment.getStartTime(),
-                appointment.getDurationMinutes()
-            );
-            
-            if (availableOperator == null) {
-                throw new IllegalArgumentException(
-                    "No hay operarios disponibles para esa fecha y hora"
-                );
-            }
-            
-            appointment.setOperator(availableOperator);
+            assignAvailableOperator(appointment, holdId);
         } else {
             // Validar operario proporcionado
             Long operatorId = appointment.getOperator().getId();
             User operator = userService.findById(operatorId)
                     .orElseThrow(() -> new IllegalArgumentException("Operario no encontrado"));
             appointment.setOperator(operator);
-        }
 
-        // 3) Validaciones completas
-        validateAppointment(appointment);
+            if (appointment.getDate() != null) {
+                bookingLockService.lock(operator.getId(), appointment.getDate());
+            }
+            validateAppointment(appointment, holdId);
+        }
 
         // 4) Calcular duración si viene startTime y endTime
         if (appointment.getDurationMinutes() == null || appointment.getDurationMinutes() == 0) {
@@ -167,6 +209,7 @@ public class AppointmentService {
 
         // 6) Guardar
         Appointment saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.from(saved));
 
         // 7) Programar notificaciones
         if (isNew) {
@@ -183,45 +226,7 @@ public class AppointmentService {
         }
 
         // 8) Notificación y email al usuario
-        String action = isNew ? "creada" : "modificada";
-        String subject = "Cita " + action;
-        String text = String.format(
-            "Tu cita '%s' ha sido %s para el %s de %s a %s.\n" +
-            "Operario asignado: %s",
-            saved.getTitle(), action,
-            saved.getDate(),
-            saved.getStartTime(),
-            saved.getEndTime(),
-            saved.getOperator().getFullName()
-        );
-
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setAppointment(saved);
-        notification.setMessage(text);
-        notification.setNotificationType(NotificationType.SYSTEM);
-        notification.setIsRead(false);
-        notification.setIsSent(true);
-        notificationService.save(notification);
-
-        // Email al usuario
-        try {
-           String emailType = isNew ? "created" : "modified";
-            emailService.sendAppointmentEmail(
-                user.getEmail(),
-                subject,
-                user.getFullName(),
-                saved.getTitle(),
-                saved.getDate().toString(),
-                saved.getStartTime() + " - " + saved.getEndTime(),
-                text,
-                null, // observacion
-                saved.getOperator().getFullName(), // operatorName
-                emailType
-            );
-        } catch (Exception e) {
-            logger.warn("No se pudo enviar email a {}: {}", user.getEmail(), e.getMessage());
-        }
+        notifyUser(saved, isNew);
 
         return saved;
     }
@@ -244,6 +249,7 @@ public class AppointmentService {
         appt.setDeletedAt(LocalDateTime.now());
         appt.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appt);
+        eventPublisher.publishEvent(AppointmentChangedEvent.from(appt));
 
         // Notificar al usuario
         String subject = "Cita cancelada";
@@ -350,18 +356,16 @@ public class AppointmentService {
     }
 
     // --- Validaciones ---
-    private void validateAppointment(Appointment newAppointment) {
+    /**
+     * Validar una cita antes de guardarla.
+     * @param holdId - apartado que se está confirmando (null si no viene de un apartado)
+     */
+    void validateAppointment(Appointment newAppointment, String holdId) {
         LocalTime start = newAppointment.getStartTime();
         LocalTime end = newAppointment.getEndTime();
 
-        if (start == null || end == null) {
-            throw new IllegalArgumentException("startTime y endTime son obligatorios");
-        }
-
-        // Validar duración mínima
-        if (end.isBefore(start.plusMinutes(5))) {
-            throw new IllegalArgumentException("La cita debe durar al menos 5 minutos");
-        }
+        // Validar horas y duración mínima (mismas reglas que el lote y las series)
+        AppointmentTimeRules.validateTimes(start, end);
 
         // Validar operario
         if (newAppointment.getOperator() == null || newAppointment.getOperator().getId() == null) {
@@ -405,159 +409,159 @@ public class AppointmentService {
             // (Implementar si usas allowed_durations)
         }
 
-        // Validar solapamientos
-        if (!isOperatorAvailable(operatorId, date, start, end)) {
-            // Si es una edición, excluir la cita actual
-            if (newAppointment.getId() != null) {
-                List<Appointment> overlapping = appointmentRepository
-                    .findByOperatorIdWithDeletedFilter(operatorId, false)
-                    .stream()
-                    .filter(a -> !a.getId().equals(newAppointment.getId()))
-                    .filter(a -> a.getDate().equals(date))
-                    .filter(a -> a.getStatus() != AppointmentStatus.CANCELLED)
-                    .filter(a -> a.getStatus() != AppointmentStatus.FAILED)
-                    .filter(a -> start.isBefore(a.getEndTime()) && end.isAfter(a.getStartTime()))
-                    .collect(Collectors.toList());
-                
-                if (!overlapping.isEmpty()) {
-                    throw new IllegalArgumentException(
-                        "Conflicto: el operario ya tiene una cita en ese horario"
-                    );
-                }
-            } else {
-                throw new IllegalArgumentException(
-                    "Conflicto: el operario ya tiene una cita en ese horario"
-                );
+        // Validar apartados temporales de otros usuarios (en memoria de este nodo; el propio
+        // apartado se excluye)
+        if (!holdRegistry.overlapping(operatorId, date, start, end, holdId).isEmpty()) {
+            throw new AppointmentConflictException(
+                "El horario está apartado temporalmente por otro usuario", List.of()
+            );
+        }
+
+        // Validar solapamientos contra la BD, también al confirmar un apartado: otro nodo no ve
+        // los apartados de este y pudo reservar el mismo horario
+        // (árbol de intervalos del día; en edición se excluye la cita actual)
+        List<AppointmentConflictDTO> conflicts = conflictDetector.findConflictsForBooking(
+            operatorId, date, start, end, newAppointment.getId()
+        );
+        if (!conflicts.isEmpty()) {
+            throw new AppointmentConflictException(
+                "Conflicto: el operario ya tiene una cita en ese horario", conflicts
+            );
+        }
+    }
+
+    /**
+     * Asignar a la cita un operario libre de su categoría, con su agenda bloqueada y validada.
+     *
+     * Los candidatos salen del índice de disponibilidad de este nodo, que puede no conocer aún
+     * una reserva hecha en otro: si el elegido no pasa la validación de solapamientos bajo el
+     * bloqueo, se recarga su día en el índice y se prueba con el siguiente candidato. Solo se
+     * rechaza la reserva cuando ninguno queda libre.
+     */
+    private void assignAvailableOperator(Appointment appointment, String holdId) {
+        Long categoryId = appointment.getCategory().getId();
+        LocalDate date = appointment.getDate();
+        List<User> candidates = findAvailableCandidates(
+            categoryId, date, appointment.getStartTime(), appointment.getDurationMinutes()
+        );
+
+        AppointmentConflictException lastConflict = null;
+        while (!candidates.isEmpty()) {
+            User operator = assignmentService.choose(categoryId, candidates, date);
+            appointment.setOperator(operator);
+            bookingLockService.lock(operator.getId(), date);
+            try {
+                validateAppointment(appointment, holdId);
+                logger.info("Operario disponible encontrado: {} (ID: {})", operator.getFullName(), operator.getId());
+                return;
+            } catch (AppointmentConflictException e) {
+                logger.info("Operario {} ocupado el {} según la BD; se prueba con otro candidato",
+                           operator.getId(), date);
+                availabilityIndex.invalidateDay(operator.getId(), date);
+                candidates.remove(operator);
+                lastConflict = e;
             }
         }
+
+        appointment.setOperator(null);
+        if (lastConflict != null) {
+            throw lastConflict;
+        }
+        logger.info("Sin operarios disponibles: categoría={}, fecha={}, hora={}, duración={}",
+                   categoryId, date, appointment.getStartTime(), appointment.getDurationMinutes());
+        throw new IllegalArgumentException(
+            "No hay operarios disponibles para esa fecha y hora. Puedes unirte a la lista de espera"
+        );
     }
 
     /**
      * Buscar operario disponible automáticamente
+     * (consulta el índice de disponibilidad en memoria, sin consultas por operario)
+     * y elige entre los libres con la estrategia de asignación de la categoría
      */
     public User findAvailableOperator(Long categoryId, LocalDate date, 
                                  LocalTime startTime, int durationMinutes) {
-        // LOG 1: Parámetros recibidos
-        logger.info("🔍 === BUSCANDO OPERARIO DISPONIBLE ===");
-        logger.info("📋 CategoryId: {}", categoryId);
-        logger.info("📅 Date: {} ({})", date, date.getDayOfWeek());
-        logger.info("⏰ StartTime: {}", startTime);
-        logger.info("⏱️ Duration: {} minutos", durationMinutes);
-        
+        List<User> available = findAvailableCandidates(categoryId, date, startTime, durationMinutes);
+        if (available.isEmpty()) {
+            logger.info("Sin operarios disponibles: categoría={}, fecha={}, hora={}, duración={}",
+                       categoryId, date, startTime, durationMinutes);
+            return null; // No hay operarios disponibles
+        }
+
+        User operator = assignmentService.choose(categoryId, available, date);
+        logger.info("Operario disponible encontrado: {} (ID: {})", operator.getFullName(), operator.getId());
+        return operator;
+    }
+
+    /**
+     * Operarios de la categoría libres según el índice de disponibilidad
+     */
+    private List<User> findAvailableCandidates(Long categoryId, LocalDate date,
+                                               LocalTime startTime, int durationMinutes) {
         // Obtener operarios que manejan esta categoría
         List<User> operators = userService.getOperatorsByCategory(categoryId);
         
-        // LOG 2: Operarios encontrados para la categoría
-        logger.info("👥 Operarios que manejan la categoría: {}", operators.size());
-        operators.forEach(op -> logger.info("  - Operario: {} (ID: {})", op.getFullName(), op.getId()));
-        
         if (operators.isEmpty()) {
-            logger.warn("❌ No hay operarios que atiendan esta categoría");
+            logger.warn("No hay operarios que atiendan la categoría {}", categoryId);
             throw new IllegalArgumentException("No hay operarios que atiendan esta categoría");
         }
 
-        LocalTime endTime = startTime.plusMinutes(durationMinutes);
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        
-        logger.info("🕐 EndTime calculado: {}", endTime);
-        logger.info("📆 DayOfWeek: {}", dayOfWeek);
-
-        // Buscar el primer operario disponible
-        for (User operator : operators) {
-            logger.info("🔎 Evaluando operario: {} (ID: {})", operator.getFullName(), operator.getId());
-            
-            // Verificar que trabaje ese día
-            boolean worksOnDay = operatorScheduleService.isOperatorWorkingOn(operator.getId(), dayOfWeek);
-            logger.info("  ✓ ¿Trabaja el {}? {}", dayOfWeek, worksOnDay);
-            
-            if (!worksOnDay) {
-                logger.info("  ❌ Descartado: No trabaja este día");
-                continue;
-            }
-
-            // Verificar que el horario esté dentro de su jornada laboral
-            boolean withinSchedule = operatorScheduleService.isWithinOperatorSchedule(
-                    operator.getId(), dayOfWeek, startTime, endTime);
-            logger.info("  ✓ ¿Horario {} - {} dentro de jornada? {}", startTime, endTime, withinSchedule);
-            
-            if (!withinSchedule) {
-                logger.info("  ❌ Descartado: Horario fuera de jornada laboral");
-                continue;
-            }
-
-            // Verificar disponibilidad (sin solapamientos)
-            boolean isAvailable = isOperatorAvailable(operator.getId(), date, startTime, endTime);
-            logger.info("  ✓ ¿Disponible (sin solapamientos)? {}", isAvailable);
-            
-            if (isAvailable) {
-                logger.info("✅ OPERARIO ENCONTRADO: {} (ID: {})", operator.getFullName(), operator.getId());
-                return operator;
-            } else {
-                logger.info("  ❌ Descartado: Tiene solapamiento de citas");
-            }
-        }
-
-        logger.warn("❌ No se encontró ningún operario disponible");
-        return null; // No hay operarios disponibles
+        return filterAvailable(operators, date, startTime, durationMinutes);
     }
+
     /**
      * Buscar TODOS los operarios disponibles (para el frontend)
+     * Dentro del horizonte materializado es un barrido de rango sobre availability_slots;
+     * fuera de él, una sola consulta en la BD (categoría + jornada + solapamientos)
      */
     public List<User> findAllAvailableOperators(Long categoryId, LocalDate date, 
                                             LocalTime startTime, int durationMinutes) {
-        logger.info("🔍 === BUSCANDO TODOS LOS OPERARIOS DISPONIBLES ===");
-        logger.info("📋 CategoryId: {}", categoryId);
-        logger.info("📅 Date: {} ({})", date, date.getDayOfWeek());
-        logger.info("⏰ StartTime: {}", startTime);
-        logger.info("⏱️ Duration: {} minutos", durationMinutes);
-        
-        List<User> operators = userService.getOperatorsByCategory(categoryId);
-        logger.info("👥 Operarios que manejan la categoría: {}", operators.size());
-        
-        if (operators.isEmpty()) {
+        LocalTime endTime = startTime.plusMinutes(durationMinutes);
+        if (!startTime.isBefore(endTime)) {
             return new ArrayList<>();
         }
 
-        LocalTime endTime = startTime.plusMinutes(durationMinutes);
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        
-        List<User> availableOperators = new ArrayList<>();
-        
-        for (User operator : operators) {
-            logger.info("🔎 Evaluando operario: {} (ID: {})", operator.getFullName(), operator.getId());
-            
-            if (!operatorScheduleService.isOperatorWorkingOn(operator.getId(), dayOfWeek)) {
-                logger.info("  ❌ Descartado: No trabaja este día");
-                continue;
-            }
-
-            if (!operatorScheduleService.isWithinOperatorSchedule(
-                    operator.getId(), dayOfWeek, startTime, endTime)) {
-                logger.info("  ❌ Descartado: Horario fuera de jornada");
-                continue;
-            }
-
-            if (isOperatorAvailable(operator.getId(), date, startTime, endTime)) {
-                logger.info("✅ OPERARIO DISPONIBLE: {} (ID: {})", operator.getFullName(), operator.getId());
-                availableOperators.add(operator);
-            } else {
-                logger.info("  ❌ Descartado: Tiene solapamiento");
-            }
+        List<User> availableOperators;
+        if (materializedAvailability.covers(date, date)) {
+            List<Long> operatorIds = materializedAvailability.findFreeOperatorIds(
+                categoryId, date, MinuteIntervals.minutes(startTime), MinuteIntervals.minutes(endTime)
+            );
+            availableOperators = operatorIds.isEmpty()
+                ? new ArrayList<>()
+                : userService.findActiveByIds(operatorIds);
+        } else {
+            availableOperators = userService.findAvailableOperators(
+                categoryId, date, startTime, endTime
+            );
         }
-
-        logger.info("📊 Total operarios disponibles: {}", availableOperators.size());
+        availableOperators.removeIf(op ->
+            !holdRegistry.overlapping(op.getId(), date, startTime, endTime, null).isEmpty());
+        logger.debug("Operarios disponibles para categoría {} el {} a las {}: {}",
+                    categoryId, date, startTime, availableOperators.size());
         return availableOperators;
     }
 
+    /**
+     * Filtrar operarios libres usando el índice de disponibilidad
+     */
+    private List<User> filterAvailable(List<User> operators, LocalDate date,
+                                       LocalTime startTime, int durationMinutes) {
+        LocalTime endTime = startTime.plusMinutes(durationMinutes);
+        List<Long> operatorIds = operators.stream().map(User::getId).collect(Collectors.toList());
+        List<Long> freeIds = availabilityIndex.findFreeOperators(operatorIds, date, startTime, endTime);
+
+        return operators.stream()
+            .filter(op -> freeIds.contains(op.getId()))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Verificar disponibilidad de operario
      */
     public boolean isOperatorAvailable(Long operatorId, LocalDate date,
                                       LocalTime startTime, LocalTime endTime) {
-        long overlapping = appointmentRepository.countOverlappingAppointments(
-            operatorId, date, startTime, endTime
-        );
-        return overlapping == 0;
+        return conflictDetector.findConflicts(operatorId, date, startTime, endTime, null).isEmpty()
+            && holdRegistry.overlapping(operatorId, date, startTime, endTime, null).isEmpty();
     }
 
     /**
@@ -592,6 +596,7 @@ public class AppointmentService {
         );
 
         Appointment saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.from(saved));
 
         // Actualizar estadísticas del usuario
         userService.updateUserStats(appointment.getUser().getId());
@@ -770,6 +775,145 @@ public class AppointmentService {
         );
     }
 
+    /**
+     * Programar recordatorios y notificar al usuario y al operario de una cita nueva
+     * (usado por la creación por lote, fuera de la transacción que insertó la cita)
+     */
+    public void notifyAppointmentCreated(Appointment appointment) {
+        schedulerService.scheduleAppointmentNotifications(appointment);
+        notifyOperatorAssignment(appointment);
+        notifyUser(appointment, true);
+    }
+
+    /**
+     * Notificar una serie de citas recurrentes: un resumen al usuario y uno a cada operario
+     * (los recordatorios de cada ocurrencia se insertan al crear la serie)
+     */
+    public void notifySeriesCreated(List<Appointment> occurrences) {
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        Appointment first = occurrences.get(0);
+        User user = first.getUser();
+        String dates = occurrences.stream()
+            .map(a -> a.getDate().toString())
+            .collect(Collectors.joining(", "));
+        String time = first.getStartTime() + " - " + first.getEndTime();
+
+        String text = String.format(
+            "Tu serie de citas '%s' ha sido creada: %d cita(s) de %s.\nFechas: %s",
+            first.getTitle(), occurrences.size(), time, dates
+        );
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setAppointment(first);
+        notification.setMessage(text);
+        notification.setNotificationType(NotificationType.SYSTEM);
+        notification.setIsRead(false);
+        notification.setIsSent(true);
+        notificationService.save(notification);
+
+        try {
+            emailService.sendAppointmentEmail(
+                user.getEmail(),
+                "Serie de citas creada",
+                user.getFullName(),
+                first.getTitle(),
+                dates,
+                time,
+                text,
+                null,
+                first.getOperator().getFullName(),
+                "created"
+            );
+        } catch (Exception e) {
+            logger.warn("No se pudo enviar email a {}: {}", user.getEmail(), e.getMessage());
+        }
+
+        // Un aviso por operario con las fechas que le corresponden
+        Map<User, List<Appointment>> byOperator = occurrences.stream()
+            .collect(Collectors.groupingBy(Appointment::getOperator, LinkedHashMap::new, Collectors.toList()));
+        byOperator.forEach((operator, assigned) -> {
+            String operatorDates = assigned.stream()
+                .map(a -> a.getDate().toString())
+                .collect(Collectors.joining(", "));
+
+            Notification operatorNotification = new Notification();
+            operatorNotification.setUser(operator);
+            operatorNotification.setAppointment(assigned.get(0));
+            operatorNotification.setMessage(String.format(
+                "Se te han asignado %d cita(s) de la serie '%s' (%s).\nUsuario: %s\nFechas: %s",
+                assigned.size(), first.getTitle(), time, user.getFullName(), operatorDates
+            ));
+            operatorNotification.setNotificationType(NotificationType.OPERATOR_ASSIGNED);
+            operatorNotification.setIsRead(false);
+            operatorNotification.setIsSent(true);
+            notificationService.save(operatorNotification);
+
+            try {
+                emailService.sendOperatorAssignmentEmail(
+                    operator.getEmail(),
+                    operator.getFullName(),
+                    first.getTitle(),
+                    user.getFullName(),
+                    operatorDates,
+                    time,
+                    first.getCategory() != null ? first.getCategory().getName() : null,
+                    first.getDescription()
+                );
+            } catch (Exception e) {
+                logger.warn("No se pudo enviar email al operario: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Notificación en la app y email al usuario de la cita creada o modificada
+     */
+    private void notifyUser(Appointment saved, boolean isNew) {
+        User user = saved.getUser();
+        String action = isNew ? "creada" : "modificada";
+        String subject = "Cita " + action;
+        String text = String.format(
+            "Tu cita '%s' ha sido %s para el %s de %s a %s.\n" +
+            "Operario asignado: %s",
+            saved.getTitle(), action,
+            saved.getDate(),
+            saved.getStartTime(),
+            saved.getEndTime(),
+            saved.getOperator().getFullName()
+        );
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setAppointment(saved);
+        notification.setMessage(text);
+        notification.setNotificationType(NotificationType.SYSTEM);
+        notification.setIsRead(false);
+        notification.setIsSent(true);
+        notificationService.save(notification);
+
+        // Email al usuario
+        try {
+           String emailType = isNew ? "created" : "modified";
+            emailService.sendAppointmentEmail(
+                user.getEmail(),
+                subject,
+                user.getFullName(),
+                saved.getTitle(),
+                saved.getDate().toString(),
+                saved.getStartTime() + " - " + saved.getEndTime(),
+                text,
+                null, // observacion
+                saved.getOperator().getFullName(), // operatorName
+                emailType
+            );
+        } catch (Exception e) {
+            logger.warn("No se pudo enviar email a {}: {}", user.getEmail(), e.getMessage());
+        }
+    }
+
     /**
      * Notificar asignación de operario
      */
@@ -0,0 +1,81 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.service.BookingLockService.BookingKey;
+
+/**
+ * Foto en memoria de jornadas y citas ocupadas de un grupo de operarios y fechas.
+ * Se carga con una consulta de citas más los apartados temporales vigentes
+ * (los horarios vienen de la caché semanal)
+ * y permite validar muchas citas sin volver a la BD;
+ * las citas aceptadas se reservan en la foto para que cuenten en las siguientes.
+ */
+public final class AvailabilitySnapshot {
+
+    private Map<Long, WeeklySchedule> schedules = Map.of();
+    private final Map<BookingKey, List<LocalTime[]>> booked = new HashMap<>();
+
+    private AvailabilitySnapshot() {
+    }
+
+    /**
+     * Cargar jornadas y citas activas de las agendas indicadas.
+     * Llamar después de bloquear esas agendas con BookingLockService.
+     */
+    public static AvailabilitySnapshot load(OperatorScheduleService scheduleService,
+                                            AppointmentRepository appointmentRepository,
+                                            SlotHoldRegistry holdRegistry,
+                                            Collection<BookingKey> keys) {
+        AvailabilitySnapshot snapshot = new AvailabilitySnapshot();
+        if (keys.isEmpty()) {
+            return snapshot;
+        }
+
+        Set<Long> operatorIds = keys.stream().map(BookingKey::operatorId).collect(Collectors.toSet());
+        LocalDate from = keys.stream().map(BookingKey::date).min(Comparator.naturalOrder()).get();
+        LocalDate to = keys.stream().map(BookingKey::date).max(Comparator.naturalOrder()).get();
+
+        snapshot.schedules = scheduleService.getWeeklySchedules(operatorIds);
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByOperatorsAndDateRange(
+                operatorIds, from, to)) {
+            snapshot.book(appointment.getOperatorId(), appointment.getAppointmentDate(),
+                          appointment.getStartTime(), appointment.getEndTime());
+        }
+        for (SlotHoldRegistry.SlotHold hold : holdRegistry.findByOperatorsAndDateRange(operatorIds, from, to)) {
+            snapshot.book(hold.operatorId(), hold.date(), hold.startTime(), hold.endTime());
+        }
+        return snapshot;
+    }
+
+    /**
+     * ¿Cabe [start, end) en una jornada del operario sin solaparse con sus citas?
+     */
+    public boolean isFree(Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        WeeklySchedule schedule = schedules.getOrDefault(operatorId, WeeklySchedule.EMPTY);
+        if (!schedule.covers(date.getDayOfWeek(), start, end)) {
+            return false;
+        }
+        return booked.getOrDefault(new BookingKey(operatorId, date), List.of()).stream()
+            .noneMatch(busy -> start.isBefore(busy[1]) && end.isAfter(busy[0]));
+    }
+
+    /**
+     * Marcar [start, end) como ocupado para el operario en la fecha
+     */
+    public void book(Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        booked.computeIfAbsent(new BookingKey(operatorId, date), k -> new ArrayList<>())
+              .add(new LocalTime[] { start, end });
+    }
+}
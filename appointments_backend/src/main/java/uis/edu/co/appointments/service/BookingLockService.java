@@ -0,0 +1,157 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+/**
+ * Serializa las reservas de un mismo operario en una misma fecha.
+ *
+ * Dentro del proceso usa un arreglo de locks (uno por franja del hash de operario y fecha),
+ * y entre nodos un advisory lock de PostgreSQL ligado a la transacción. Ambos se mantienen
+ * hasta que la transacción termina, así la verificación de solapamientos y el INSERT
+ * quedan dentro de la misma sección crítica. Reservas de otros operarios u otras fechas
+ * siguen en paralelo.
+ *
+ * La espera total por ambos locks está acotada por booking.lock.timeout-seconds: el advisory
+ * lock se pide con pg_try_advisory_xact_lock y se reintenta hasta ese plazo, así una
+ * transacción colgada en otro nodo no retiene la conexión indefinidamente.
+ */
+@Service
+public class BookingLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLockService.class);
+
+    private static final long ADVISORY_RETRY_MILLIS = 50;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final boolean advisoryEnabled;
+
+    public BookingLockService(AppointmentRepository appointmentRepository,
+                              @Value("${booking.lock.stripes:256}") int stripeCount,
+                              @Value("${booking.lock.timeout-seconds:10}") long timeoutSeconds,
+                              @Value("${booking.lock.advisory-enabled:true}") boolean advisoryEnabled) {
+        this.appointmentRepository = appointmentRepository;
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutSeconds * 1000L;
+        this.advisoryEnabled = advisoryEnabled;
+    }
+
+    /**
+     * Bloquear la agenda de un operario en una fecha hasta el fin de la transacción actual
+     */
+    public void lock(Long operatorId, LocalDate date) {
+        lockAll(List.of(new BookingKey(operatorId, date)));
+    }
+
+    /**
+     * Bloquear varias agendas (operario, fecha) hasta el fin de la transacción actual.
+     * Los locks se toman siempre en el mismo orden para evitar interbloqueos.
+     */
+    public void lockAll(Collection<BookingKey> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de reservas requiere una transacción activa");
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        TreeSet<Integer> stripeIndexes = keys.stream()
+            .map(this::stripeIndex)
+            .collect(Collectors.toCollection(TreeSet::new));
+
+        for (Integer index : stripeIndexes) {
+            acquire(stripes[index], deadline);
+        }
+
+        if (advisoryEnabled) {
+            for (BookingKey key : new TreeSet<>(keys)) {
+                acquireAdvisory(key, deadline);
+            }
+        }
+    }
+
+    private void acquire(ReentrantLock lock, long deadline) {
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reserva interrumpida", e);
+        }
+        if (!acquired) {
+            throw timeout();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Advisory lock de la agenda, reintentando hasta el plazo (si falla, la transacción se
+     * revierte y los locks en memoria ya tomados se liberan en afterCompletion)
+     */
+    private void acquireAdvisory(BookingKey key, long deadline) {
+        int operatorKey = key.operatorId().intValue();
+        int dateKey = (int) key.date().toEpochDay();
+        while (!appointmentRepository.tryAcquireBookingLock(operatorKey, dateKey)) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw timeout();
+            }
+            try {
+                Thread.sleep(Math.min(ADVISORY_RETRY_MILLIS, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reserva interrumpida", e);
+            }
+        }
+    }
+
+    private IllegalArgumentException timeout() {
+        logger.warn("Tiempo de espera agotado al bloquear la agenda del operario");
+        return new IllegalArgumentException(
+            "El horario está siendo reservado por otra solicitud, intente de nuevo"
+        );
+    }
+
+    private int stripeIndex(BookingKey key) {
+        return Math.floorMod(key.hashCode(), stripes.length);
+    }
+
+    /**
+     * Agenda de un operario en una fecha
+     */
+    public record BookingKey(Long operatorId, LocalDate date) implements Comparable<BookingKey> {
+
+        @Override
+        public int compareTo(BookingKey other) {
+            int byOperator = operatorId.compareTo(other.operatorId);
+            return byOperator != 0 ? byOperator : date.compareTo(other.date);
+        }
+    }
+}
@@ -3,12 +3,16 @@ package uis.edu.co.appointments.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import uis.edu.co.appointments.events.OperatorCategoriesChangedEvent;
+import uis.edu.co.appointments.models.AssignmentStrategyType;
 import uis.edu.co.appointments.models.Category;
 import uis.edu.co.appointments.repository.CategoryRepository;
 import uis.edu.co.appointments.models.User;
 import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
 import java.util.ArrayList;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,11 +20,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final OperatorAssignmentService assignmentService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CategoryService(CategoryRepository categoryRepository,
-                          UserRepository userRepository) { // NUEVO
+                          UserRepository userRepository, // NUEVO
+                          OperatorAssignmentService assignmentService,
+                          ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository; // NUEVO
+        this.assignmentService = assignmentService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Category> findAll() {
@@ -32,11 +42,31 @@ public class CategoryService {
     }
 
     public Category save(Category category) {
-        return categoryRepository.save(category);
+        if (category.getAssignmentStrategy() == null) {
+            category.setAssignmentStrategy(AssignmentStrategyType.LEAST_LOADED);
+        }
+        Category saved = categoryRepository.save(category);
+        assignmentService.invalidate(saved.getId());
+        return saved;
     }
 
     public void delete(Long id) {
         categoryRepository.deleteById(id);
+        assignmentService.invalidate(id);
+    }
+
+    /**
+     * Cambiar la estrategia de asignación de operarios de una categoría
+     */
+    @Transactional
+    public Category updateAssignmentStrategy(Long categoryId, String strategy) {
+        Category category = categoryRepository.findById(categoryId)
+            .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada"));
+
+        category.setAssignmentStrategy(AssignmentStrategyType.fromString(strategy));
+        Category saved = categoryRepository.save(category);
+        assignmentService.invalidate(categoryId);
+        return saved;
     }
 
     /**
@@ -147,6 +177,7 @@ public class CategoryService {
 
         categoryRepository.save(category);
         userRepository.saveAll(operators);
+        eventPublisher.publishEvent(new OperatorCategoriesChangedEvent(operatorIds));
     }
 
     /**
@@ -0,0 +1,275 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import uis.edu.co.appointments.dto.EmailOutboxStats;
+import uis.edu.co.appointments.events.EmailQueuedEvent;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository.DeadLetter;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository.OutboxEmail;
+
+/**
+ * Despachador de la bandeja de salida de correos.
+ *
+ * Se despierta cuando se confirma una transacción que encoló correos y, además, sondea la
+ * tabla periódicamente para los reintentos. Los correos vencidos se reclaman solo hasta
+ * llenar una cola acotada en memoria que vacía un pool propio de hilos; el resto espera en
+ * la tabla y se reclama cuando la cola se libera. No hay conexión a BD abierta durante la
+ * espera SMTP.
+ *
+ * Cada tarea del pool envía un bloque de hasta smtp-chunk-size correos por una sola sesión
+ * SMTP, así ráfagas como los recordatorios de las 9:00 no repiten el saludo, STARTTLS y
+ * login por cada mensaje. Un correo rechazado solo afecta a ese correo: se reprograma con
+ * espera exponencial y, tras el máximo de intentos, pasa a la cola de mensajes muertos
+ * (FAILED), desde donde se puede reencolar.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    // Tiempo que un correo reclamado queda reservado (en cola o enviándose) antes de poder reclamarse de nuevo
+    private static final long LEASE_SECONDS = 600;
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() { };
+
+    private final EmailOutboxJdbcRepository outboxRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor workers;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    // Correos reclamados que están en la cola o enviándose
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Métricas desde el arranque
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxJdbcRepository outboxRepository,
+                                 EmailService emailService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${notifications.outbox.workers:4}") int workerCount,
+                                 @Value("${notifications.outbox.queue-capacity:200}") int queueCapacity,
+                                 @Value("${notifications.outbox.batch-size:50}") int batchSize,
+                                 @Value("${notifications.outbox.smtp-chunk-size:20}") int chunkSize,
+                                 @Value("${notifications.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${notifications.outbox.backoff-base-ms:30000}") long backoffBaseMs,
+                                 @Value("${notifications.outbox.backoff-max-ms:3600000}") long backoffMaxMs) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(workerCount);
+        this.workers.setMaxPoolSize(workerCount);
+        this.workers.setQueueCapacity(queueCapacity);
+        this.workers.setThreadNamePrefix("email-outbox-");
+        this.workers.setWaitForTasksToCompleteOnShutdown(true);
+        this.workers.setAwaitTerminationSeconds(10);
+        this.workers.initialize();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        dispatchPending();
+    }
+
+    /**
+     * Tarea programada: reintentos y correos que no llegaron a despertar al despachador
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-delay-ms:5000}")
+    public void poll() {
+        dispatchPending();
+    }
+
+    /**
+     * Reclamar correos vencidos hasta llenar la cola. Si ya hay un vaciado en curso solo se
+     * le pide otra vuelta, así las llamadas concurrentes no reclaman lotes en paralelo.
+     */
+    public void dispatchPending() {
+        wakeRequested.set(true);
+        while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                while (wakeRequested.getAndSet(false)) {
+                    fillQueue();
+                }
+            } catch (Exception e) {
+                logger.error("Error despachando la bandeja de salida de correos: {}", e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Volver a encolar un correo muerto
+     */
+    public boolean requeueDeadLetter(Long id) {
+        boolean requeued = outboxRepository.requeue(id);
+        if (requeued) {
+            logger.info("Email {} reencolado desde la cola de mensajes muertos", id);
+            dispatchPending();
+        }
+        return requeued;
+    }
+
+    public List<DeadLetter> findDeadLetters(int limit) {
+        return outboxRepository.findDeadLetters(limit);
+    }
+
+    public EmailOutboxStats getStats() {
+        EmailOutboxStats stats = new EmailOutboxStats();
+        long delivered = sent.get();
+        stats.setQueueDepth(inFlight.get());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setWorkers(workerCount);
+        stats.setSent(delivered);
+        stats.setFailedAttempts(failedAttempts.get());
+        stats.setDeadLettered(deadLettered.get());
+        stats.setAverageSendMillis(delivered > 0 ? sendNanos.get() / 1_000_000.0 / delivered : 0);
+        stats.setMaxSendMillis(maxSendNanos.get() / 1_000_000);
+        stats.setOutboxByStatus(outboxRepository.countByStatus());
+        return stats;
+    }
+
+    private void fillQueue() {
+        while (true) {
+            int free = queueCapacity - inFlight.get();
+            if (free <= 0) {
+                // Cola llena: al terminar un envío se vuelve a pedir otra vuelta
+                return;
+            }
+            int limit = Math.min(batchSize, free);
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEmail> batch = outboxRepository.claimDue(now, now.plusSeconds(LEASE_SECONDS), limit);
+
+            for (int from = 0; from < batch.size(); from += chunkSize) {
+                List<OutboxEmail> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+                inFlight.addAndGet(chunk.size());
+                workers.execute(() -> deliver(chunk));
+            }
+            if (batch.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    private void deliver(List<OutboxEmail> chunk) {
+        boolean wasFull = false;
+        try {
+            // 1) Renderizar; un correo que no se puede armar falla solo
+            List<OutboxEmail> rendered = new ArrayList<>();
+            List<MimeMessage> messages = new ArrayList<>();
+            for (OutboxEmail email : chunk) {
+                try {
+                    Map<String, Object> variables = objectMapper.readValue(email.variables(), VARIABLES_TYPE);
+                    messages.add(emailService.render(email.recipient(), email.subject(), email.templateName(), variables));
+                    rendered.add(email);
+                } catch (Exception e) {
+                    handleFailure(email, e);
+                }
+            }
+
+            // 2) Enviar el bloque por una sola sesión SMTP
+            long started = System.nanoTime();
+            Map<Integer, Exception> failures = emailService.sendAll(messages);
+            if (!messages.isEmpty()) {
+                recordLatency((System.nanoTime() - started) / messages.size(), messages.size());
+            }
+
+            List<Long> sentIds = new ArrayList<>();
+            for (int i = 0; i < rendered.size(); i++) {
+                Exception failure = failures.get(i);
+                if (failure == null) {
+                    sentIds.add(rendered.get(i).id());
+                } else {
+                    handleFailure(rendered.get(i), failure);
+                }
+            }
+            outboxRepository.markSent(sentIds);
+            sent.addAndGet(sentIds.size());
+        } catch (Exception e) {
+            // Error de BD al registrar el resultado: los correos se retoman al vencer el plazo
+            logger.error("Error registrando el envío de {} email(s): {}", chunk.size(), e.getMessage());
+        } finally {
+            wasFull = inFlight.getAndAdd(-chunk.size()) >= queueCapacity;
+        }
+        if (wasFull) {
+            dispatchPending();
+        }
+    }
+
+    private void handleFailure(OutboxEmail email, Exception e) {
+        failedAttempts.incrementAndGet();
+        if (email.attempts() >= maxAttempts) {
+            outboxRepository.markFailed(email.id(), e.getMessage());
+            deadLettered.incrementAndGet();
+            logger.error("Email {} a {} enviado a mensajes muertos tras {} intentos: {}",
+                        email.id(), email.recipient(), email.attempts(), e.getMessage());
+        } else {
+            long delay = backoffMs(email.attempts());
+            outboxRepository.markRetry(email.id(), LocalDateTime.now().plusNanos(delay * 1_000_000L), e.getMessage());
+            logger.warn("Email {} a {} falló (intento {}), se reintenta en {} s",
+                       email.id(), email.recipient(), email.attempts(), delay / 1000);
+        }
+    }
+
+    private void recordLatency(long nanosPerMessage, int messages) {
+        sendNanos.addAndGet(nanosPerMessage * messages);
+        maxSendNanos.accumulateAndGet(nanosPerMessage, Math::max);
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos - 1), con tope
+     */
+    private long backoffMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(backoffBaseMs << exponent, backoffMaxMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -6,31 +6,52 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import uis.edu.co.appointments.events.EmailQueuedEvent;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository;
 
+/**
+ * Correos con plantillas Thymeleaf.
+ *
+ * Los métodos send* solo encolan el correo en la bandeja de salida (email_outbox) dentro de
+ * la transacción en curso; el envío SMTP lo hace EmailOutboxDispatcher en segundo plano.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
+    private final EmailOutboxJdbcRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
     @Value("${spring.mail.username:}")
     private String from;
 
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
+    public EmailService(JavaMailSender mailSender,
+                        EmailTemplateRenderer templateRenderer,
+                        EmailOutboxJdbcRepository outboxRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        ObjectMapper objectMapper) {
         this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.templateRenderer = templateRenderer;
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -64,35 +85,85 @@ public class EmailService {
      * Enviar email con plantilla HTML
      */
     public void sendHtmlEmail(String to, String subject, Map<String, Object> templateVariables) {
-        sendHtmlEmail(to, subject, "appointment-notification", templateVariables);
+        sendHtmlEmail(to, subject, EmailTemplateRenderer.APPOINTMENT_NOTIFICATION, templateVariables);
     }
     
     /**
-     * Enviar email con plantilla HTML específica
+     * Enviar email con plantilla HTML específica.
+     * No se envía en la petición: se guarda en la bandeja de salida dentro de la transacción
+     * en curso y EmailOutboxDispatcher lo entrega cuando esta se confirma.
      */
     public void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> templateVariables) {
         if (to == null || to.isBlank()) return;
 
+        String variables;
         try {
-            // Procesar plantilla con Thymeleaf
-            Context context = new Context();
-            context.setVariables(templateVariables);
-            String htmlContent = templateEngine.process(templateName, context);
+            variables = objectMapper.writeValueAsString(templateVariables);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar las variables del email: " + e.getMessage(), e);
+        }
+        outboxRepository.insert(to, subject, templateName, variables);
+        eventPublisher.publishEvent(new EmailQueuedEvent(to));
+        logger.debug("Email '{}' encolado para: {}", subject, to);
+    }
 
-            // Crear mensaje
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            if (from != null && !from.isBlank()) helper.setFrom(from);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true); // true = es HTML
-            
-            mailSender.send(message);
-            logger.info("Email HTML enviado exitosamente a: {}", to);
-        } catch (MailException | MessagingException e) {
-            logger.error("Error al enviar email HTML a {}: {}", to, e.getMessage());
-            throw new RuntimeException("Error al enviar email: " + e.getMessage(), e);
+    /**
+     * Renderizar la plantilla y armar el mensaje MIME (lo usa el despachador de la bandeja de salida)
+     */
+    public MimeMessage render(String to, String subject, String templateName, Map<String, Object> templateVariables)
+            throws MessagingException {
+        // Procesar plantilla con Thymeleaf (plantillas precalentadas y en caché)
+        String htmlContent = templateRenderer.render(templateName, templateVariables);
+
+        // Crear mensaje
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        if (from != null && !from.isBlank()) helper.setFrom(from);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true); // true = es HTML
+        return message;
+    }
+
+    /**
+     * Enviar varios mensajes por una sola conexión SMTP (un solo saludo, STARTTLS y login).
+     * Un mensaje rechazado no impide el envío de los demás.
+     * @return errores por posición en la lista; vacío si todos se enviaron
+     */
+    public Map<Integer, Exception> sendAll(List<MimeMessage> messages) {
+        Map<Integer, Exception> failures = new java.util.HashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            logger.info("{} email(s) HTML enviados en una sesión SMTP", messages.size());
+        } catch (MailSendException e) {
+            // Falla parcial: JavaMailSender indica qué mensajes no salieron
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (int i = 0; i < messages.size(); i++) {
+                Exception cause = failed.get(messages.get(i));
+                if (cause != null) {
+                    failures.put(i, cause);
+                }
+            }
+            if (failures.isEmpty()) {
+                markAll(failures, messages.size(), e);
+            }
+            logger.error("Error al enviar {} de {} email(s) HTML: {}", failures.size(), messages.size(), e.getMessage());
+        } catch (MailException e) {
+            // Autenticación u otro error de sesión: no salió ninguno
+            markAll(failures, messages.size(), e);
+            logger.error("Error al enviar {} email(s) HTML: {}", messages.size(), e.getMessage());
+        }
+        return failures;
+    }
+
+    private static void markAll(Map<Integer, Exception> failures, int count, Exception e) {
+        for (int i = 0; i < count; i++) {
+            failures.put(i, e);
         }
     }
 
@@ -120,8 +191,9 @@ public class EmailService {
         Map<String, Object> variables = new java.util.HashMap<>();
         variables.put("nombre", userName);
         variables.put("titulo", subject);
-        variables.put("tituloEmoji", getEmojiForType(emailType));
-        variables.put("headerColor", getColorForType(emailType));
+        EmailTemplateRenderer.HeaderStyle header = templateRenderer.headerFor(emailType);
+        variables.put("tituloEmoji", header.emoji());
+        variables.put("headerColor", header.color());
         variables.put("mensajePrincipal", mainMessage);
         variables.put("tituloCita", appointmentTitle);
         variables.put("fecha", date);
@@ -129,7 +201,7 @@ public class EmailService {
         variables.put("observacion", observation != null ? observation : "");
         variables.put("operatorName", operatorName != null ? operatorName : "");
 
-        sendHtmlEmail(to, subject, "appointment-notification", variables);
+        sendHtmlEmail(to, subject, EmailTemplateRenderer.APPOINTMENT_NOTIFICATION, variables);
     }
 
     /**
@@ -154,7 +226,7 @@ public class EmailService {
         variables.put("category", category != null ? category : "");
         variables.put("description", description != null ? description : "");
 
-        sendHtmlEmail(operatorEmail, "Nueva cita asignada", "operator-assignment", variables);
+        sendHtmlEmail(operatorEmail, "Nueva cita asignada", EmailTemplateRenderer.OPERATOR_ASSIGNMENT, variables);
     }
 
     /**
@@ -173,7 +245,7 @@ public class EmailService {
         sendHtmlEmail(
             operatorEmail, 
             "Recordatorio: Citas pendientes de completar", 
-            "completion-reminder", 
+            EmailTemplateRenderer.COMPLETION_REMINDER,
             variables
         );
     }
@@ -201,34 +273,8 @@ public class EmailService {
         sendHtmlEmail(
             operatorEmail, 
             "Has recibido una calificación", 
-            "rating-received", 
+            EmailTemplateRenderer.RATING_RECEIVED,
             variables
         );
     }
-
-    /**
-     * Obtener emoji según el tipo de notificación
-     */
-    private String getEmojiForType(String type) {
-        return switch (type) {
-            case "created" -> "📅";
-            case "modified" -> "✏️";
-            case "cancelled" -> "❌";
-            case "reminder" -> "⏰";
-            default -> "📧";
-        };
-    }
-
-    /**
-     * Obtener color según el tipo de notificación
-     */
-    private String getColorForType(String type) {
-        return switch (type) {
-            case "created" -> "#10b981"; // Verde
-            case "modified" -> "#f59e0b"; // Naranja
-            case "cancelled" -> "#ef4444"; // Rojo
-            case "reminder" -> "#3b82f6"; // Azul
-            default -> "#6366f1"; // Índigo
-        };
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package uis.edu.co.appointments.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+/**
+ * Renderizado de las plantillas de correo.
+ *
+ * Thymeleaf guarda en su caché cada plantilla ya analizada (spring.thymeleaf.cache=true), así
+ * que al arrancar se renderizan una vez las cuatro plantillas con variables de ejemplo: el
+ * análisis, la caché de expresiones y la carga de clases ocurren antes del primer correo real.
+ * El estilo de cabecera por tipo de notificación (emoji y color) se calcula una sola vez.
+ *
+ * No se guarda HTML ya renderizado ni trozos estáticos de la maquetación: las cuatro plantillas
+ * tienen th:if o th:each, así que lo que queda fijo depende de las variables. Lo único que se
+ * reutiliza entre correos es la plantilla analizada de la caché de Thymeleaf, cuyos nodos de
+ * texto estático se escriben tal cual; cada correo sigue ejecutando process().
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    public static final String APPOINTMENT_NOTIFICATION = "appointment-notification";
+    public static final String OPERATOR_ASSIGNMENT = "operator-assignment";
+    public static final String COMPLETION_REMINDER = "completion-reminder";
+    public static final String RATING_RECEIVED = "rating-received";
+
+    private static final List<String> TEMPLATES = List.of(
+        APPOINTMENT_NOTIFICATION, OPERATOR_ASSIGNMENT, COMPLETION_REMINDER, RATING_RECEIVED
+    );
+
+    /**
+     * Cabecera de un correo de citas según su tipo
+     */
+    public record HeaderStyle(String emoji, String color) {
+    }
+
+    private static final HeaderStyle DEFAULT_HEADER = new HeaderStyle("📧", "#6366f1"); // Índigo
+
+    private static final Map<String, HeaderStyle> HEADERS = Map.of(
+        "created", new HeaderStyle("📅", "#10b981"),   // Verde
+        "modified", new HeaderStyle("✏️", "#f59e0b"),  // Naranja
+        "cancelled", new HeaderStyle("❌", "#ef4444"), // Rojo
+        "reminder", new HeaderStyle("⏰", "#3b82f6")   // Azul
+    );
+
+    private final TemplateEngine templateEngine;
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Renderizar una plantilla (analizada desde la caché de Thymeleaf)
+     */
+    public String render(String templateName, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * Estilo de cabecera según el tipo de notificación
+     */
+    public HeaderStyle headerFor(String type) {
+        return type != null ? HEADERS.getOrDefault(type, DEFAULT_HEADER) : DEFAULT_HEADER;
+    }
+
+    /**
+     * Precalentar: renderizar cada plantilla una vez al arrancar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        for (String template : TEMPLATES) {
+            try {
+                render(template, sampleVariables(template));
+            } catch (Exception e) {
+                logger.warn("No se pudo precalentar la plantilla {}: {}", template, e.getMessage());
+            }
+        }
+        logger.info("Plantillas de correo precalentadas: {} en {} ms",
+                   TEMPLATES.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Map<String, Object> sampleVariables(String template) {
+        Map<String, Object> variables = new HashMap<>();
+        switch (template) {
+            case APPOINTMENT_NOTIFICATION -> {
+                HeaderStyle header = headerFor("created");
+                variables.put("nombre", "Usuario");
+                variables.put("titulo", "Cita creada");
+                variables.put("tituloEmoji", header.emoji());
+                variables.put("headerColor", header.color());
+                variables.put("mensajePrincipal", "");
+                variables.put("tituloCita", "");
+                variables.put("fecha", "");
+                variables.put("hora", "");
+                variables.put("observacion", "-");
+                variables.put("operatorName", "-");
+            }
+            case OPERATOR_ASSIGNMENT -> {
+                variables.put("operatorName", "Operario");
+                variables.put("appointmentTitle", "");
+                variables.put("userName", "");
+                variables.put("date", "");
+                variables.put("time", "");
+                variables.put("category", "-");
+                variables.put("description", "-");
+            }
+            case COMPLETION_REMINDER -> {
+                variables.put("operatorName", "Operario");
+                variables.put("pendingCount", 1);
+                variables.put("appointments", List.of(Map.of(
+                    "title", "", "date", "", "time", "", "userName", "")));
+            }
+            case RATING_RECEIVED -> {
+                variables.put("operatorName", "Operario");
+                variables.put("rating", 5);
+                variables.put("appointmentTitle", "");
+                variables.put("date", "");
+                variables.put("userName", "");
+                variables.put("observation", "-");
+            }
+            default -> { }
+        }
+        return variables;
+    }
+}
@@ -0,0 +1,178 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.dto.FreeSlotDTO;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.util.AppointmentTimeRules;
+import uis.edu.co.appointments.util.MinuteIntervals;
+
+/**
+ * Búsqueda de franjas libres de una categoría en un rango de fechas.
+ *
+ * Dentro del horizonte materializado lee los intervalos libres de availability_slots
+ * (barrido de rango sobre la PK); fuera de él los calcula en vivo con una consulta de
+ * citas más los horarios semanales en memoria. A esos intervalos se les restan los
+ * apartados temporales y se agrupan las horas de inicio reservables con los operarios
+ * que pueden atender cada una.
+ */
+@Service
+public class FreeSlotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FreeSlotService.class);
+
+    public static final int MAX_RANGE_DAYS = 31;
+    public static final int MIN_STEP_MINUTES = 5;
+
+    private final UserService userService;
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotHoldRegistry holdRegistry;
+    private final MaterializedAvailabilityService materializedAvailability;
+
+    public FreeSlotService(UserService userService,
+                           OperatorScheduleService scheduleService,
+                           AppointmentRepository appointmentRepository,
+                           SlotHoldRegistry holdRegistry,
+                           MaterializedAvailabilityService materializedAvailability) {
+        this.userService = userService;
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+        this.holdRegistry = holdRegistry;
+        this.materializedAvailability = materializedAvailability;
+    }
+
+    /**
+     * Obtener todas las horas de inicio reservables en [from, to]
+     * @param stepMinutes - separación entre horas de inicio candidatas (múltiplos desde medianoche)
+     */
+    public List<FreeSlotDTO> findFreeSlots(Long categoryId, LocalDate from, LocalDate to,
+                                           int durationMinutes, int stepMinutes) {
+        validateRange(from, to, durationMinutes, stepMinutes);
+
+        List<User> operators = userService.getOperatorsByCategory(categoryId);
+        if (operators.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> operatorIds = operators.stream().map(User::getId).collect(Collectors.toList());
+
+        // Intervalos libres por operario y fecha: de la tabla materializada si cubre el rango
+        Map<Long, Map<LocalDate, List<int[]>>> free = materializedAvailability.covers(from, to)
+            ? materializedAvailability.findFreeIntervals(categoryId, from, to)
+            : computeFreeIntervals(operatorIds, from, to);
+
+        // Apartados temporales vigentes (cuentan como ocupados)
+        Map<Long, Map<LocalDate, List<int[]>>> held = new HashMap<>();
+        for (SlotHoldRegistry.SlotHold hold : holdRegistry.findByOperatorsAndDateRange(operatorIds, from, to)) {
+            held.computeIfAbsent(hold.operatorId(), id -> new HashMap<>())
+                .computeIfAbsent(hold.date(), d -> new ArrayList<>())
+                .add(new int[] { MinuteIntervals.minutes(hold.startTime()), MinuteIntervals.minutes(hold.endTime()) });
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TreeMap<LocalDateTime, FreeSlotDTO> slots = new TreeMap<>();
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (User operator : operators) {
+                List<int[]> dayFree = free.getOrDefault(operator.getId(), Map.of()).getOrDefault(date, List.of());
+                if (dayFree.isEmpty()) {
+                    continue;
+                }
+                List<int[]> dayHeld = held.getOrDefault(operator.getId(), Map.of()).getOrDefault(date, List.of());
+                if (!dayHeld.isEmpty()) {
+                    dayFree = MinuteIntervals.subtract(dayFree, MinuteIntervals.merge(dayHeld));
+                }
+
+                FreeSlotDTO.OperatorInfo info = new FreeSlotDTO.OperatorInfo(
+                    operator.getId(), operator.getFullName(), operator.getEmail(), operator.getAverageRating()
+                );
+
+                for (int[] interval : dayFree) {
+                    int first = ((interval[0] + stepMinutes - 1) / stepMinutes) * stepMinutes;
+                    for (int start = first; start + durationMinutes <= interval[1]; start += stepMinutes) {
+                        LocalDateTime startAt = date.atTime(MinuteIntervals.time(start));
+                        if (startAt.isBefore(now)) {
+                            continue;
+                        }
+                        final LocalDate slotDate = date;
+                        final int slotStart = start;
+                        slots.computeIfAbsent(startAt, k -> new FreeSlotDTO(
+                                slotDate, MinuteIntervals.time(slotStart), MinuteIntervals.time(slotStart + durationMinutes)))
+                             .getOperators().add(info);
+                    }
+                }
+            }
+        }
+
+        logger.debug("Franjas libres categoría {} entre {} y {}: {}", categoryId, from, to, slots.size());
+        return new ArrayList<>(slots.values());
+    }
+
+    /**
+     * Cálculo en vivo (fuera del horizonte materializado): jornadas del horario semanal
+     * en memoria menos las citas activas del rango, con una sola consulta
+     */
+    private Map<Long, Map<LocalDate, List<int[]>>> computeFreeIntervals(List<Long> operatorIds,
+                                                                         LocalDate from, LocalDate to) {
+        Map<Long, WeeklySchedule> schedules = scheduleService.getWeeklySchedules(operatorIds);
+
+        Map<Long, Map<LocalDate, List<int[]>>> booked = new HashMap<>();
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByOperatorsAndDateRange(
+                operatorIds, from, to)) {
+            booked.computeIfAbsent(appointment.getOperatorId(), id -> new HashMap<>())
+                  .computeIfAbsent(appointment.getAppointmentDate(), d -> new ArrayList<>())
+                  .add(new int[] { MinuteIntervals.minutes(appointment.getStartTime()), MinuteIntervals.minutes(appointment.getEndTime()) });
+        }
+
+        Map<Long, Map<LocalDate, List<int[]>>> free = new HashMap<>();
+        for (Long operatorId : operatorIds) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<int[]> working = schedules.get(operatorId).shifts(date.getDayOfWeek()).stream()
+                    .map(shift -> new int[] { MinuteIntervals.minutes(shift.start()), MinuteIntervals.minutes(shift.end()) })
+                    .collect(Collectors.toList());
+                if (working.isEmpty()) {
+                    continue;
+                }
+                List<int[]> busy = booked.getOrDefault(operatorId, Map.of()).getOrDefault(date, List.of());
+                free.computeIfAbsent(operatorId, id -> new HashMap<>())
+                    .put(date, MinuteIntervals.subtract(MinuteIntervals.merge(working), MinuteIntervals.merge(busy)));
+            }
+        }
+        return free;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to, int durationMinutes, int stepMinutes) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("El rango de fechas no es válido");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                "El rango de fechas no puede superar " + MAX_RANGE_DAYS + " días"
+            );
+        }
+        if (durationMinutes < AppointmentTimeRules.MIN_DURATION_MINUTES) {
+            throw new IllegalArgumentException(
+                "La cita debe durar al menos " + AppointmentTimeRules.MIN_DURATION_MINUTES + " minutos"
+            );
+        }
+        if (stepMinutes < MIN_STEP_MINUTES) {
+            throw new IllegalArgumentException(
+                "El intervalo entre franjas debe ser de al menos " + MIN_STEP_MINUTES + " minutos"
+            );
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.dto.OperatorCategoryView;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.events.OperatorCategoriesChangedEvent;
+import uis.edu.co.appointments.events.OperatorScheduleChangedEvent;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.AvailabilityJdbcRepository;
+import uis.edu.co.appointments.repository.AvailabilityJdbcRepository.OperatorDay;
+import uis.edu.co.appointments.repository.AvailabilityJdbcRepository.SlotRow;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.util.MinuteIntervals;
+
+/**
+ * Disponibilidad materializada de los próximos N días (tabla availability_slots).
+ *
+ * Un trabajo nocturno (y el arranque) reconstruye la tabla completa: jornadas del horario
+ * semanal menos citas activas, por categoría, fecha y operario. Las reservas, cancelaciones,
+ * cambios de horario y de categorías marcan como pendientes los días de operario afectados,
+ * y una tarea programada los recalcula por lote cada pocos segundos.
+ *
+ * Con varios nodos la reconstrucción la hace uno solo (el que toma primero un advisory lock);
+ * los demás esperan a que confirme y usan su resultado. Además la reconstrucción bloquea la
+ * tabla en exclusiva y los refrescos por día en modo compartido, y cada uno calcula sus filas
+ * ya con el lock: una reconstrucción nunca pisa un refresco más reciente de otro nodo ni al revés.
+ *
+ * Las consultas de lectura (operarios disponibles y franjas libres) leen la tabla con un
+ * barrido de rango sobre la PK, sin lógica de horarios ni de solapamientos. Como la tabla
+ * puede ir hasta un refresco por detrás, la validación final de cada reserva sigue igual.
+ * Fuera del horizonte (o si la tabla aún no se construyó) se calcula en vivo como antes.
+ */
+@Service
+public class MaterializedAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterializedAvailabilityService.class);
+
+    private final UserRepository userRepository;
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityJdbcRepository availabilityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int horizonDays;
+
+    private final Set<OperatorDay> dirtyDays = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyOperators = ConcurrentHashMap.newKeySet();
+    // Último día conocido de cada cita del horizonte (para recalcular el día anterior al moverla)
+    private final Map<Long, OperatorDay> appointmentDays = new ConcurrentHashMap<>();
+
+    private volatile LocalDate materializedFrom;
+    private volatile LocalDate materializedUntil;
+
+    public MaterializedAvailabilityService(UserRepository userRepository,
+                                           OperatorScheduleService scheduleService,
+                                           AppointmentRepository appointmentRepository,
+                                           AvailabilityJdbcRepository availabilityRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${availability.materialized.enabled:true}") boolean enabled,
+                                           @Value("${availability.materialized.days:30}") int horizonDays) {
+        this.userRepository = userRepository;
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.horizonDays = Math.max(horizonDays, 1);
+    }
+
+    // ==================== LECTURAS ====================
+
+    /**
+     * ¿El rango [from, to] está dentro del horizonte materializado?
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        LocalDate start = materializedFrom;
+        LocalDate end = materializedUntil;
+        return start != null && end != null && !from.isBefore(start) && !to.isAfter(end);
+    }
+
+    /**
+     * Operarios de la categoría libres para [startMinute, endMinute) en la fecha
+     */
+    public List<Long> findFreeOperatorIds(Long categoryId, LocalDate date, int startMinute, int endMinute) {
+        return availabilityRepository.findFreeOperatorIds(categoryId, date, startMinute, endMinute);
+    }
+
+    /**
+     * Intervalos libres por operario y fecha de la categoría en [from, to]
+     */
+    public Map<Long, Map<LocalDate, List<int[]>>> findFreeIntervals(Long categoryId, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, List<int[]>>> free = new HashMap<>();
+        for (SlotRow row : availabilityRepository.findByCategoryAndDateRange(categoryId, from, to)) {
+            free.computeIfAbsent(row.operatorId(), id -> new HashMap<>())
+                .computeIfAbsent(row.date(), d -> new ArrayList<>())
+                .add(new int[] { row.startMinute(), row.endMinute() });
+        }
+        return free;
+    }
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Tarea programada: reconstruir la tabla para los próximos N días (cada día a las 00:30)
+     */
+    @Scheduled(cron = "0 30 0 * * *")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate from = LocalDate.now();
+        LocalDate until = from.plusDays(horizonDays - 1L);
+
+        try {
+            Boolean rebuilt = transactionTemplate.execute(status -> {
+                if (!availabilityRepository.tryClaimRebuild()) {
+                    return false;
+                }
+                // Se calcula con la tabla bloqueada: los refrescos confirmados antes quedan incluidos
+                availabilityRepository.lockForRebuild();
+                Map<Long, List<Long>> categories = groupCategories(userRepository.findActiveOperatorCategories());
+                Set<OperatorDay> days = new HashSet<>();
+                for (Long operatorId : categories.keySet()) {
+                    for (LocalDate date = from; !date.isAfter(until); date = date.plusDays(1)) {
+                        days.add(new OperatorDay(operatorId, date));
+                    }
+                }
+
+                appointmentDays.clear();
+                List<SlotRow> rows = compute(days, categories, from, until);
+                availabilityRepository.replaceAll(rows);
+                logger.info("Disponibilidad materializada {} a {}: {} intervalo(s) de {} operario(s)",
+                            from, until, rows.size(), categories.size());
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(rebuilt)) {
+                // Otro nodo reconstruye la misma ventana: esperar a que confirme y usar su tabla
+                transactionTemplate.executeWithoutResult(status -> availabilityRepository.awaitRebuild());
+                logger.info("Disponibilidad materializada {} a {} reconstruida por otro nodo", from, until);
+            }
+            materializedFrom = from;
+            materializedUntil = until;
+        } catch (Exception e) {
+            // Sin tabla las lecturas siguen calculándose en vivo
+            materializedFrom = null;
+            materializedUntil = null;
+            logger.error("Error materializando disponibilidad: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tarea programada: recalcular por lote los días de operario pendientes
+     */
+    @Scheduled(fixedDelayString = "${availability.materialized.refresh-delay-ms:1000}")
+    public synchronized void refreshDirty() {
+        LocalDate from = materializedFrom;
+        LocalDate until = materializedUntil;
+        Set<OperatorDay> days = drain(dirtyDays);
+        Set<Long> operators = drain(dirtyOperators);
+        if (from == null || until == null || (days.isEmpty() && operators.isEmpty())) {
+            return;
+        }
+
+        for (Long operatorId : operators) {
+            for (LocalDate date = from; !date.isAfter(until); date = date.plusDays(1)) {
+                days.add(new OperatorDay(operatorId, date));
+            }
+        }
+        days.removeIf(day -> day.date().isBefore(from) || day.date().isAfter(until));
+        if (days.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Espera a una reconstrucción en curso y calcula después, con los datos que dejó
+                availabilityRepository.lockForRefresh();
+                Set<Long> operatorIds = days.stream().map(OperatorDay::operatorId).collect(Collectors.toSet());
+                Map<Long, List<Long>> categories = groupCategories(
+                    userRepository.findActiveOperatorCategories(operatorIds));
+                LocalDate first = days.stream().map(OperatorDay::date).min(Comparator.naturalOrder()).get();
+                LocalDate last = days.stream().map(OperatorDay::date).max(Comparator.naturalOrder()).get();
+
+                availabilityRepository.replaceOperatorDays(days, compute(days, categories, first, last));
+            });
+            logger.debug("Disponibilidad materializada: {} día(s) de operario recalculados", days.size());
+        } catch (Exception e) {
+            // Reintentar en la siguiente pasada
+            dirtyDays.addAll(days);
+            logger.error("Error recalculando disponibilidad materializada: {}", e.getMessage());
+        }
+    }
+
+    // ==================== EVENTOS ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        OperatorDay current = event.getOperatorId() != null && event.getDate() != null
+            ? new OperatorDay(event.getOperatorId(), event.getDate())
+            : null;
+
+        if (event.getAppointmentId() != null) {
+            OperatorDay previous = event.isActive() && current != null
+                ? appointmentDays.put(event.getAppointmentId(), current)
+                : appointmentDays.remove(event.getAppointmentId());
+            if (previous != null && !previous.equals(current)) {
+                dirtyDays.add(previous);
+            }
+        }
+        if (current != null) {
+            dirtyDays.add(current);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOperatorScheduleChanged(OperatorScheduleChangedEvent event) {
+        dirtyOperators.add(event.getOperatorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOperatorCategoriesChanged(OperatorCategoriesChangedEvent event) {
+        dirtyOperators.addAll(event.getOperatorIds());
+    }
+
+    // ==================== CÁLCULO ====================
+
+    /**
+     * Filas de los días indicados: jornada menos citas activas, repetidas por cada categoría del operario.
+     * Los operarios sin categorías (o inactivos) quedan sin filas.
+     */
+    private List<SlotRow> compute(Collection<OperatorDay> days, Map<Long, List<Long>> categories,
+                                  LocalDate from, LocalDate to) {
+        List<Long> operatorIds = days.stream().map(OperatorDay::operatorId).distinct().toList();
+        Map<Long, WeeklySchedule> schedules = scheduleService.getWeeklySchedules(operatorIds);
+
+        Map<OperatorDay, List<int[]>> busy = new HashMap<>();
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByOperatorsAndDateRange(
+                operatorIds, from, to)) {
+            OperatorDay day = new OperatorDay(appointment.getOperatorId(), appointment.getAppointmentDate());
+            appointmentDays.put(appointment.getId(), day);
+            busy.computeIfAbsent(day, d -> new ArrayList<>())
+                .add(new int[] {
+                    MinuteIntervals.minutes(appointment.getStartTime()),
+                    MinuteIntervals.minutes(appointment.getEndTime())
+                });
+        }
+
+        List<SlotRow> rows = new ArrayList<>();
+        for (OperatorDay day : days) {
+            List<Long> categoryIds = categories.getOrDefault(day.operatorId(), List.of());
+            if (categoryIds.isEmpty()) {
+                continue;
+            }
+            List<int[]> working = schedules.getOrDefault(day.operatorId(), WeeklySchedule.EMPTY)
+                .shifts(day.date().getDayOfWeek()).stream()
+                .map(shift -> new int[] { MinuteIntervals.minutes(shift.start()), MinuteIntervals.minutes(shift.end()) })
+                .collect(Collectors.toList());
+            if (working.isEmpty()) {
+                continue;
+            }
+
+            List<int[]> free = MinuteIntervals.subtract(
+                MinuteIntervals.merge(working),
+                MinuteIntervals.merge(busy.getOrDefault(day, List.of())));
+            for (int[] interval : free) {
+                for (Long categoryId : categoryIds) {
+                    rows.add(new SlotRow(categoryId, day.date(), day.operatorId(), interval[0], interval[1]));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Map<Long, List<Long>> groupCategories(List<OperatorCategoryView> views) {
+        return views.stream().collect(Collectors.groupingBy(
+            OperatorCategoryView::getOperatorId,
+            Collectors.mapping(OperatorCategoryView::getCategoryId, Collectors.toList())));
+    }
+
+    private static <T> Set<T> drain(Set<T> source) {
+        Set<T> drained = new HashSet<>();
+        for (Iterator<T> it = source.iterator(); it.hasNext();) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,107 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import uis.edu.co.appointments.models.NotificationType;
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
+
+/**
+ * Retención de notificaciones leídas.
+ *
+ * Cada tipo puede tener sus propios días de retención (notifications.retention.policies);
+ * los demás usan default-days. El borrado es por conjuntos, en lotes acotados
+ * (DELETE ... WHERE id IN (SELECT ... LIMIT n)) con una pausa entre lotes: no carga filas
+ * en memoria y cada lote se confirma solo, así no bloquea la tabla durante la purga.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final int defaultDays;
+    private final Map<String, Integer> policies = new LinkedHashMap<>();
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public NotificationRetentionService(NotificationJdbcRepository notificationJdbcRepository,
+                                        @Value("${notifications.retention.default-days:90}") int defaultDays,
+                                        @Value("#{${notifications.retention.policies:{:}}}") Map<String, Integer> policies,
+                                        @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                        @Value("${notifications.retention.pause-ms:200}") long pauseMillis) {
+        // Con menos de 1 el primer lote nunca queda corto y la purga no termina
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote de la retención debe ser de al menos 1");
+        }
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.defaultDays = defaultDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+
+        policies.forEach((type, days) -> {
+            NotificationType.valueOf(type); // falla al arrancar si el tipo no existe
+            if (days == null || days < 1) {
+                throw new IllegalArgumentException("La retención de " + type + " debe ser de al menos 1 día");
+            }
+            this.policies.put(type, days);
+        });
+    }
+
+    /**
+     * Purgar las notificaciones leídas vencidas de todos los tipos
+     * @return total de notificaciones eliminadas
+     */
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+
+        for (Map.Entry<String, Integer> policy : policies.entrySet()) {
+            LocalDateTime cutoff = now.minusDays(policy.getValue());
+            int deleted = purgeInBatches(() -> notificationJdbcRepository.deleteReadBefore(
+                policy.getKey(), cutoff, batchSize));
+            if (deleted > 0) {
+                logger.info("Retención {} ({} días): {} notificaciones eliminadas",
+                           policy.getKey(), policy.getValue(), deleted);
+            }
+            total += deleted;
+        }
+
+        LocalDateTime defaultCutoff = now.minusDays(defaultDays);
+        int deleted = purgeInBatches(() -> notificationJdbcRepository.deleteReadBeforeExcept(
+            policies.keySet(), defaultCutoff, batchSize));
+        if (deleted > 0) {
+            logger.info("Retención por defecto ({} días): {} notificaciones eliminadas", defaultDays, deleted);
+        }
+        return total + deleted;
+    }
+
+    private int purgeInBatches(BatchDelete batch) {
+        int total = 0;
+        while (true) {
+            int deleted = batch.run();
+            total += deleted;
+            if (deleted < batchSize) {
+                return total;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Purga de notificaciones interrumpida tras {} eliminadas", total);
+                return total;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchDelete {
+        int run();
+    }
+}
@@ -3,21 +3,28 @@ package uis.edu.co.appointments.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import uis.edu.co.appointments.models.Appointment;
 import uis.edu.co.appointments.models.Notification;
 import uis.edu.co.appointments.models.NotificationType;
 import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
 
 @Service
 public class NotificationSchedulerService {
@@ -26,14 +33,23 @@ public class NotificationSchedulerService {
 
     private final NotificationService notificationService;
     private final EmailService emailService;
-    private final uis.edu.co.appointments.repository.AppointmentRepository appointmentRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final NotificationRetentionService retentionService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
 
     public NotificationSchedulerService(NotificationService notificationService,
                                        EmailService emailService,
-                                       uis.edu.co.appointments.repository.AppointmentRepository appointmentRepository) {
+                                       AppointmentRepository appointmentRepository,
+                                       NotificationRetentionService retentionService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${scheduler.notification.chunk-size:200}") int chunkSize) {
         this.notificationService = notificationService;
         this.emailService = emailService;
         this.appointmentRepository = appointmentRepository;
+        this.retentionService = retentionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
     }
 
     /**
@@ -53,12 +69,11 @@ public class NotificationSchedulerService {
 
     /**
      * Tarea programada: Limpiar notificaciones antiguas leídas (cada semana)
+     * según la retención de cada tipo, por lotes acotados (sin transacción larga)
      */
     @Scheduled(cron = "0 0 2 * * SUN") // Domingos a las 2:00 AM
-    @Transactional
     public void cleanOldNotifications() {
-        int daysOld = 90; // Eliminar notificaciones leídas mayores a 90 días
-        int deleted = notificationService.cleanOldReadNotifications(daysOld);
+        int deleted = retentionService.purge();
         
         if (deleted > 0) {
             logger.info("Limpieza automática: {} notificaciones antiguas eliminadas", deleted);
@@ -67,80 +82,85 @@ public class NotificationSchedulerService {
 
     /**
      * Tarea programada: Recordar a operarios completar registros pendientes
-     * Se ejecuta cada 12 horas
+     * Se ejecuta cada 12 horas.
+     *
+     * Una sola consulta trae las citas pendientes de todos los operarios (con operario y
+     * usuario), ya ordenadas por operario; las notificaciones in-app se insertan en un lote
+     * y los correos quedan en la bandeja de salida, que los envía en segundo plano.
      */
     @Scheduled(fixedDelayString = "43200000") // 12 horas
     @Transactional
     public void remindOperatorsPendingCompletion() {
         logger.info("Verificando operarios con citas pendientes de completar...");
 
-        // Obtener todos los operarios
-        List<uis.edu.co.appointments.models.User> operators = 
-            appointmentRepository.findAll().stream()
-                .filter(a -> a.getOperator() != null)
-                .map(uis.edu.co.appointments.models.Appointment::getOperator)
-                .distinct()
-                .collect(Collectors.toList());
+        Map<User, List<Appointment>> pendingByOperator = appointmentRepository
+            .findAllPendingCompletion(LocalDate.now(), LocalTime.now()).stream()
+            .collect(Collectors.groupingBy(Appointment::getOperator, LinkedHashMap::new, Collectors.toList()));
 
-        for (uis.edu.co.appointments.models.User operator : operators) {
-            List<uis.edu.co.appointments.models.Appointment> pending = 
-                appointmentRepository.findPendingCompletionByOperator(
-                    operator.getId(), LocalDate.now(), LocalTime.now()
-                );
+        List<Notification> notifications = new ArrayList<>();
+        pendingByOperator.forEach((operator, pending) -> {
+            // Preparar lista de citas para el email
+            List<Map<String, String>> appointmentsList = pending.stream()
+                .map(apt -> {
+                    Map<String, String> map = new HashMap<>();
+                    map.put("title", apt.getTitle());
+                    map.put("date", apt.getDate().toString());
+                    map.put("time", apt.getStartTime() + " - " + apt.getEndTime());
+                    map.put("userName", apt.getUser().getFullName());
+                    return map;
+                })
+                .collect(Collectors.toList());
 
-            if (!pending.isEmpty()) {
-                // Preparar lista de citas para el email
-                List<Map<String, String>> appointmentsList = pending.stream()
-                    .map(apt -> {
-                        Map<String, String> map = new HashMap<>();
-                        map.put("title", apt.getTitle());
-                        map.put("date", apt.getDate().toString());
-                        map.put("time", apt.getStartTime() + " - " + apt.getEndTime());
-                        map.put("userName", apt.getUser().getFullName());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-
-                // Enviar email
-                try {
-                    emailService.sendCompletionReminderEmail(
-                        operator.getEmail(),
-                        operator.getFullName(),
-                        appointmentsList
-                    );
-                    logger.info("Recordatorio enviado a operario: {}", operator.getEmail());
-                } catch (Exception e) {
-                    logger.error("Error enviando recordatorio a {}: {}", 
-                               operator.getEmail(), e.getMessage());
-                }
-
-                // Crear notificación in-app
-                uis.edu.co.appointments.models.Notification notification = 
-                    new uis.edu.co.appointments.models.Notification();
-                notification.setUser(operator);
-                notification.setMessage(String.format(
-                    "Tienes %d cita(s) pendiente(s) de completar su registro.",
-                    pending.size()
-                ));
-                notification.setNotificationType(
-                    uis.edu.co.appointments.models.NotificationType.COMPLETION_REQUIRED
+            // Encolar email (se envía tras confirmar la transacción)
+            try {
+                emailService.sendCompletionReminderEmail(
+                    operator.getEmail(),
+                    operator.getFullName(),
+                    appointmentsList
                 );
-                notification.setIsRead(false);
-                notification.setIsSent(true);
-                notificationService.save(notification);
+            } catch (Exception e) {
+                logger.error("Error encolando recordatorio a {}: {}",
+                           operator.getEmail(), e.getMessage());
             }
-        }
 
-        logger.info("Proceso de recordatorios a operarios finalizado");
+            // Notificación in-app
+            Notification notification = new Notification();
+            notification.setUser(operator);
+            notification.setMessage(String.format(
+                "Tienes %d cita(s) pendiente(s) de completar su registro.",
+                pending.size()
+            ));
+            notification.setNotificationType(NotificationType.COMPLETION_REQUIRED);
+            notification.setIsRead(false);
+            notification.setIsSent(true);
+            notifications.add(notification);
+        });
+
+        notificationService.saveAll(notifications);
+        logger.info("Proceso de recordatorios a operarios finalizado: {} operario(s) con citas pendientes",
+                   pendingByOperator.size());
     }
+
      /**
      * Programar notificaciones para una cita nueva (CON VALIDACIÓN DE PREFERENCIAS)
      */
     @Transactional
     public void scheduleAppointmentNotifications(Appointment appointment) {
+        List<Notification> inserted = notificationService.scheduleReminders(buildReminders(appointment));
+
+        logger.info("Notificaciones programadas para cita ID: {} ({} recordatorios)",
+                   appointment.getId(), inserted.size());
+    }
+
+    /**
+     * Construir (sin guardar) los recordatorios de una cita según las preferencias del usuario.
+     * Permite insertar los recordatorios de muchas citas en un solo lote.
+     */
+    public List<Notification> buildReminders(Appointment appointment) {
         User user = appointment.getUser();
         LocalDate appointmentDate = appointment.getDate();
         LocalTime appointmentTime = appointment.getStartTime();
+        List<Notification> reminders = new ArrayList<>();
 
         // 1) Notificación 1 día antes a las 9:00 AM
         if (user.getReminderDayBeforeEnabled() && 
@@ -157,13 +177,8 @@ public class NotificationSchedulerService {
                         appointmentTime
                 );
 
-                notificationService.createScheduledNotification(
-                        user,
-                        appointment,
-                        messageDayBefore,
-                        NotificationType.REMINDER_DAY,
-                        scheduledDayBefore
-                );
+                reminders.add(reminder(user, appointment, messageDayBefore,
+                        NotificationType.REMINDER_DAY, scheduledDayBefore));
             }
         }
 
@@ -183,82 +198,128 @@ public class NotificationSchedulerService {
                         appointmentTime
                 );
 
-                notificationService.createScheduledNotification(
-                        user,
-                        appointment,
-                        messageHoursBefore,
-                        NotificationType.REMINDER_HOUR,
-                        scheduledHoursBefore
-                );
+                reminders.add(reminder(user, appointment, messageHoursBefore,
+                        NotificationType.REMINDER_HOUR, scheduledHoursBefore));
             }
         }
 
-        logger.info("Notificaciones programadas para cita ID: {}", appointment.getId());
+        return reminders;
+    }
+
+    private Notification reminder(User user, Appointment appointment, String message,
+                                  NotificationType type, LocalDateTime scheduledFor) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setAppointment(appointment);
+        notification.setMessage(message);
+        notification.setNotificationType(type);
+        notification.setScheduledFor(scheduledFor);
+        notification.setIsSent(false);
+        notification.setIsRead(false);
+        return notification;
     }
     
     /**
-     * Enviar notificaciones pendientes (CON VALIDACIÓN DE PREFERENCIAS)
+     * Enviar las notificaciones programadas indicadas que ya vencieron (CON VALIDACIÓN DE PREFERENCIAS).
+     * Las dispara ReminderDispatcher a su hora exacta.
+     *
+     * Se procesan por bloques de IDs ascendentes; cada bloque se reclama con un solo UPDATE
+     * (is_sent = false -> true, así otro nodo que dispare los mismos IDs no los reenvía), se
+     * carga con usuario y cita en una consulta (con un DELETE para quien no quiere in-app) y se
+     * confirma en su propia transacción, así una caída a mitad de la ráfaga no reenvía lo ya
+     * confirmado.
+     *
+     * Si un bloque falla se revierte y se parte en mitades, cada una en su transacción, hasta
+     * aislar las notificaciones que fallan solas: esas se omiten (siguen pendientes para la
+     * conciliación) y sus vecinas del bloque se envían igual.
      */
-    @Scheduled(fixedDelayString = "${scheduler.notification.check.interval:600000}")
-    @Transactional
-    public void sendScheduledNotifications() {
-        List<Notification> pending = notificationService.findPendingScheduledNotifications();
+    public void sendScheduledNotifications(Collection<Long> notificationIds) {
+        List<Long> ids = notificationIds.stream().distinct().sorted().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        int processed = 0;
+        List<Long> failed = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            processed += sendIsolatingFailures(ids.subList(from, Math.min(from + chunkSize, ids.size())), failed);
+        }
+
+        if (processed > 0) {
+            logger.info("Notificaciones programadas procesadas: {}", processed);
+        }
+        if (!failed.isEmpty()) {
+            logger.warn("Notificaciones programadas omitidas por error: {} (IDs {})", failed.size(), failed);
+        }
+    }
+
+    private int sendIsolatingFailures(List<Long> chunk, List<Long> failed) {
+        try {
+            Integer sent = transactionTemplate.execute(status -> sendChunk(chunk));
+            return sent != null ? sent : 0;
+        } catch (Exception e) {
+            if (chunk.size() == 1) {
+                // Se revierte y sigue pendiente para la conciliación, sin arrastrar a otras
+                logger.error("Error enviando notificación programada {}: {}", chunk.get(0), e.getMessage());
+                failed.add(chunk.get(0));
+                return 0;
+            }
+            int middle = chunk.size() / 2;
+            return sendIsolatingFailures(chunk.subList(0, middle), failed)
+                + sendIsolatingFailures(chunk.subList(middle, chunk.size()), failed);
+        }
+    }
 
+    private int sendChunk(List<Long> chunk) {
+        List<Notification> pending = notificationService.claimPendingScheduledNotifications(chunk);
         if (pending.isEmpty()) {
-            return;
+            return 0;
         }
 
-        logger.info("Procesando {} notificaciones programadas pendientes", pending.size());
+        List<Notification> sent = new ArrayList<>();
+        List<Notification> deleted = new ArrayList<>();
 
         for (Notification notification : pending) {
-            try {
-                User user = notification.getUser();
-                Appointment appointment = notification.getAppointment();
-                
-                // Verificar preferencias del usuario
-                if (!user.getNotificationTypesEnabled().contains(notification.getType())) {
-                    logger.info("Notificación {} omitida - tipo deshabilitado por usuario", 
-                               notification.getId());
-                    notificationService.markAsSent(notification.getId());
-                    continue;
-                }
-                
-                // Enviar email solo si está habilitado
-                if (user.getEmailNotificationsEnabled()) {
-                    String subject = "Recordatorio de cita";
-                    String message = notification.getMessage();
-
-                    emailService.sendAppointmentEmail(
-                        user.getEmail(),
-                        subject,
-                        user.getFullName(),
-                        appointment.getTitle(),
-                        appointment.getDate().toString(),
-                        appointment.getStartTime() + " - " + appointment.getEndTime(),
-                        message,
-                        null,
-                        appointment.getOperator() != null ? appointment.getOperator().getFullName() : "",
-                        "reminder"
-                    );
-                }
-                
-                // La notificación in-app ya está creada, solo marcamos como enviada
-                if (user.getInAppNotificationsEnabled()) {
-                    notificationService.markAsSent(notification.getId());
-                } else {
-                    // Si no quiere in-app, eliminamos la notificación
-                    notificationService.delete(notification.getId());
-                }
-
-                logger.info("Notificación enviada: ID={}, Usuario={}", 
-                           notification.getId(), user.getEmail());
+            User user = notification.getUser();
+            Appointment appointment = notification.getAppointment();
 
-            } catch (Exception e) {
-                logger.error("Error enviando notificación ID {}: {}", 
-                            notification.getId(), e.getMessage());
+            // Verificar preferencias del usuario
+            if (!user.getNotificationTypesEnabled().contains(notification.getType())) {
+                logger.info("Notificación {} omitida - tipo deshabilitado por usuario",
+                           notification.getId());
+                sent.add(notification);
+                continue;
+            }
+
+            // Enviar email solo si está habilitado (se encola en la misma transacción)
+            if (user.getEmailNotificationsEnabled()) {
+                emailService.sendAppointmentEmail(
+                    user.getEmail(),
+                    "Recordatorio de cita",
+                    user.getFullName(),
+                    appointment.getTitle(),
+                    appointment.getDate().toString(),
+                    appointment.getStartTime() + " - " + appointment.getEndTime(),
+                    notification.getMessage(),
+                    null,
+                    appointment.getOperator() != null ? appointment.getOperator().getFullName() : "",
+                    "reminder"
+                );
+            }
+
+            // La notificación in-app ya está creada y quedó marcada como enviada al reclamarla;
+            // si no quiere in-app, la eliminamos
+            if (user.getInAppNotificationsEnabled()) {
+                sent.add(notification);
+            } else {
+                deleted.add(notification);
             }
         }
 
-        logger.info("Finalizó envío de notificaciones programadas");
+        notificationService.publishSent(sent);
+        notificationService.deleteAll(deleted);
+        logger.debug("Bloque de notificaciones programadas: {} enviadas, {} eliminadas",
+                    sent.size(), deleted.size());
+        return pending.size();
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,23 @@
 package uis.edu.co.appointments.service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.dto.NotificationPage;
+import uis.edu.co.appointments.dto.NotificationSummary;
+import uis.edu.co.appointments.events.NotificationPushEvent;
+import uis.edu.co.appointments.events.ReminderScheduledEvent;
 import uis.edu.co.appointments.models.Notification;
-import uis.edu.co.appointments.models.NotificationType;
-import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
 import uis.edu.co.appointments.repository.NotificationRepository;
 
 @Service
@@ -21,9 +26,18 @@ public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
     
     private final NotificationRepository notificationRepository;
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadNotificationCounter unreadCounter;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationJdbcRepository notificationJdbcRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               UnreadNotificationCounter unreadCounter) {
         this.notificationRepository = notificationRepository;
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.unreadCounter = unreadCounter;
     }
 
     /**
@@ -47,6 +61,35 @@ public class NotificationService {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    /**
+     * Página de la bandeja de un usuario (paginación por cursor)
+     * @param before cursor "createdAt,id" devuelto por la página anterior, o null para la primera
+     */
+    public NotificationPage findInboxPage(Long userId, String before, boolean unreadOnly, int limit) {
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        if (before != null && !before.isBlank()) {
+            int comma = before.lastIndexOf(',');
+            try {
+                beforeCreatedAt = LocalDateTime.parse(before.substring(0, comma).trim());
+                beforeId = Long.valueOf(before.substring(comma + 1).trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido: se espera 'createdAt,id'");
+            }
+        }
+
+        // Se pide una de más para saber si hay otra página
+        List<NotificationSummary> items = notificationJdbcRepository.findInboxPage(
+            userId, beforeCreatedAt, beforeId, unreadOnly, limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            NotificationSummary last = items.get(limit - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return new NotificationPage(items, nextCursor);
+    }
+
     /**
      * Obtener notificaciones no leídas de un usuario
      */
@@ -55,10 +98,10 @@ public class NotificationService {
     }
 
     /**
-     * Contar notificaciones no leídas
+     * Contar notificaciones no leídas (contador en memoria, ver UnreadNotificationCounter)
      */
     public long countUnreadByUserId(Long userId) {
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return unreadCounter.get(userId);
     }
 
     /**
@@ -68,14 +111,38 @@ public class NotificationService {
         if (notification.getCreatedAt() == null) {
             notification.setCreatedAt(LocalDateTime.now());
         }
-        return notificationRepository.save(notification);
+        boolean isNew = notification.getId() == null;
+        Notification saved = notificationRepository.save(notification);
+        if (saved.getUser() != null) {
+            Long userId = saved.getUser().getId();
+            if (!isNew) {
+                // Edición (admin): no se conoce el estado anterior
+                unreadCounter.invalidate(userId);
+                eventPublisher.publishEvent(new NotificationPushEvent(userId, null));
+            } else {
+                if (!Boolean.TRUE.equals(saved.getIsRead())) {
+                    unreadCounter.adjust(userId, 1);
+                }
+                // Un recordatorio pendiente se empuja al enviarse (publishSent)
+                boolean pending = saved.getScheduledFor() != null && !Boolean.TRUE.equals(saved.getIsSent());
+                eventPublisher.publishEvent(new NotificationPushEvent(
+                    userId, pending ? null : NotificationSummary.from(saved)));
+            }
+        }
+        return saved;
     }
 
     /**
      * Eliminar notificación
      */
+    @Transactional
     public void delete(Long id) {
-        notificationRepository.deleteById(id);
+        notificationRepository.findById(id).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getIsRead()) && notification.getUser() != null) {
+                unreadChanged(notification.getUser().getId(), -1);
+            }
+        });
     }
 
     /**
@@ -86,8 +153,12 @@ public class NotificationService {
         Optional<Notification> opt = notificationRepository.findById(id);
         if (opt.isPresent()) {
             Notification notification = opt.get();
+            boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
             notification.setIsRead(true);
             notificationRepository.save(notification);
+            if (wasUnread && notification.getUser() != null) {
+                unreadChanged(notification.getUser().getId(), -1);
+            }
             logger.debug("Notificación {} marcada como leída", id);
         }
     }
@@ -97,39 +168,31 @@ public class NotificationService {
      */
     @Transactional
     public void markAllAsReadByUserId(Long userId) {
-        notificationRepository.markAllAsReadByUserId(userId);
+        int updated = notificationRepository.markAllAsReadByUserId(userId);
+        unreadChanged(userId, -updated);
         logger.info("Todas las notificaciones del usuario {} marcadas como leídas", userId);
     }
 
     /**
-     * Crear notificación programada (para recordatorios automáticos)
+     * Guardar los recordatorios de una cita (o de varias) con un solo INSERT multi-fila.
+     * El índice único (appointment_id, type) descarta en la BD los que ya existían, así una
+     * edición concurrente de la misma cita no puede duplicarlos.
+     * @return los recordatorios insertados, con su ID
      */
-    public Notification createScheduledNotification(
-            User user,
-            Appointment appointment,
-            String message,
-            NotificationType type,
-            LocalDateTime scheduledFor
-    ) {
-        // Verificar si ya existe una notificación de este tipo para esta cita
-        if (notificationRepository.existsByAppointmentIdAndType(appointment.getId(), type.name())) {
-            logger.warn("Ya existe notificación tipo {} para cita {}", type, appointment.getId());
-            return null;
+    @Transactional
+    public List<Notification> scheduleReminders(List<Notification> reminders) {
+        if (reminders.isEmpty()) {
+            return List.of();
         }
-
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setAppointment(appointment);
-        notification.setMessage(message);
-        notification.setNotificationType(type);
-        notification.setScheduledFor(scheduledFor);
-        notification.setIsSent(false);
-        notification.setIsRead(false);
-
-        Notification saved = notificationRepository.save(notification);
-        logger.info("Notificación programada creada: tipo={}, para={}, cita={}",
-                type, scheduledFor, appointment.getId());
-        return saved;
+        List<Notification> inserted = notificationJdbcRepository.insertReminders(reminders);
+        registerInserted(inserted);
+        for (Notification reminder : inserted) {
+            eventPublisher.publishEvent(new ReminderScheduledEvent(reminder.getId(), reminder.getScheduledFor()));
+        }
+        if (inserted.size() < reminders.size()) {
+            logger.debug("{} recordatorio(s) ya existían y se omitieron", reminders.size() - inserted.size());
+        }
+        return inserted;
     }
 
     /**
@@ -139,6 +202,20 @@ public class NotificationService {
         return notificationRepository.findPendingScheduledNotifications(LocalDateTime.now());
     }
 
+    /**
+     * Reclamar, de las notificaciones indicadas, las programadas que ya deben enviarse: quedan
+     * marcadas como enviadas en la transacción en curso, así ningún otro nodo las envía
+     * (las eliminadas, ya enviadas o reclamadas por otro nodo se descartan)
+     */
+    @Transactional
+    public List<Notification> claimPendingScheduledNotifications(Collection<Long> ids) {
+        List<Long> claimed = notificationJdbcRepository.claimDueReminders(ids, LocalDateTime.now());
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        return notificationRepository.findWithRecipientsByIds(claimed);
+    }
+
     /**
      * Marcar notificación como enviada
      */
@@ -154,33 +231,64 @@ public class NotificationService {
     }
 
     /**
-     * Obtener notificaciones de admin para un usuario
+     * Empujar a los usuarios conectados al canal en vivo las notificaciones ya reclamadas
+     * (claimPendingScheduledNotifications); el evento sale al confirmar la transacción
      */
-    public List<Notification> findAdminNotificationsByUserId(Long userId) {
-        return notificationRepository.findAdminNotificationsByUserId(userId);
+    public void publishSent(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            eventPublisher.publishEvent(new NotificationPushEvent(
+                notification.getUser().getId(), NotificationSummary.from(notification)));
+        }
     }
 
     /**
-     * Obtener notificaciones de una cita específica
+     * Eliminar varias notificaciones con un solo DELETE
      */
-    public List<Notification> findByAppointmentId(Long appointmentId) {
-        return notificationRepository.findByAppointmentId(appointmentId);
+    @Transactional
+    public int deleteAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        int deleted = notificationRepository.deleteByIds(
+            notifications.stream().map(Notification::getId).toList());
+        adjustUnreadRemoved(notifications);
+        return deleted;
     }
 
     /**
-     * Limpiar notificaciones antiguas leídas (tarea de mantenimiento)
+     * Guardar varias notificaciones inmediatas con JDBC batching
      */
     @Transactional
-    public int cleanOldReadNotifications(int daysOld) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        List<Notification> oldNotifications = notificationRepository.findOldReadNotifications(cutoffDate);
-        
-        int count = oldNotifications.size();
-        if (count > 0) {
-            notificationRepository.deleteAll(oldNotifications);
-            logger.info("Eliminadas {} notificaciones antiguas leídas", count);
+    public void saveAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
         }
-        return count;
+        notificationJdbcRepository.insertAll(notifications);
+        registerInserted(notifications);
+    }
+
+    /**
+     * Registrar en los contadores las notificaciones insertadas por lote (JDBC)
+     */
+    public void registerInserted(List<Notification> notifications) {
+        notifications.stream()
+            .filter(n -> n.getUser() != null && !Boolean.TRUE.equals(n.getIsRead()))
+            .collect(Collectors.groupingBy(n -> n.getUser().getId(), Collectors.counting()))
+            .forEach(this::unreadChanged);
+    }
+
+    /**
+     * Obtener notificaciones de admin para un usuario
+     */
+    public List<Notification> findAdminNotificationsByUserId(Long userId) {
+        return notificationRepository.findAdminNotificationsByUserId(userId);
+    }
+
+    /**
+     * Obtener notificaciones de una cita específica
+     */
+    public List<Notification> findByAppointmentId(Long appointmentId) {
+        return notificationRepository.findByAppointmentId(appointmentId);
     }
 
     /**
@@ -195,7 +303,22 @@ public class NotificationService {
         
         if (!toDelete.isEmpty()) {
             notificationRepository.deleteAll(toDelete);
+            adjustUnreadRemoved(toDelete);
             logger.info("Eliminadas {} notificaciones programadas de cita {}", toDelete.size(), appointmentId);
         }
     }
-}
\ No newline at end of file
+
+    private void adjustUnreadRemoved(List<Notification> removed) {
+        removed.stream()
+            .filter(n -> n.getUser() != null && !Boolean.TRUE.equals(n.getIsRead()))
+            .collect(Collectors.groupingBy(n -> n.getUser().getId(), Collectors.counting()))
+            .forEach((userId, count) -> unreadChanged(userId, -count));
+    }
+
+    private void unreadChanged(Long userId, long delta) {
+        if (delta != 0) {
+            unreadCounter.adjust(userId, delta);
+            eventPublisher.publishEvent(new NotificationPushEvent(userId, null));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package uis.edu.co.appointments.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import uis.edu.co.appointments.events.NotificationPushEvent;
+
+/**
+ * Canal en vivo de notificaciones (Server-Sent Events).
+ *
+ * Cada pestaña abierta mantiene un SseEmitter: la petición pasa a modo asíncrono del servlet y
+ * su hilo vuelve al pool, así una conexión inactiva solo ocupa el emisor y el socket. Tras
+ * confirmar cada cambio se envían al usuario los eventos "notification" (una nueva) y
+ * "unread-count" (el contador en memoria). Un comentario periódico mantiene viva la conexión
+ * a través de proxies y detecta las que se cerraron.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    private final UnreadNotificationCounter unreadCounter;
+    private final long timeoutMillis;
+    private final int maxPerUser;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public NotificationStreamService(UnreadNotificationCounter unreadCounter,
+                                     @Value("${notifications.stream.timeout-ms:1800000}") long timeoutMillis,
+                                     @Value("${notifications.stream.max-per-user:5}") int maxPerUser) {
+        this.unreadCounter = unreadCounter;
+        this.timeoutMillis = timeoutMillis;
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Abrir un canal para el usuario y enviarle su contador actual
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            if (set.size() >= maxPerUser) {
+                throw new IllegalArgumentException("Demasiadas conexiones abiertas para este usuario");
+            }
+            set.add(emitter);
+            return set;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event().name("unread-count").data(unreadCounter.get(userId)));
+        return emitter;
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationPush(NotificationPushEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.getUserId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        long unread = unreadCounter.get(event.getUserId());
+        for (SseEmitter emitter : emitters) {
+            if (event.getNotification() != null
+                    && !send(event.getUserId(), emitter,
+                             SseEmitter.event().name("notification").data(event.getNotification()))) {
+                continue;
+            }
+            send(event.getUserId(), emitter, SseEmitter.event().name("unread-count").data(unread));
+        }
+    }
+
+    /**
+     * Tarea programada: latido para mantener las conexiones y descartar las cerradas
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+        logger.debug("Canal de notificaciones: {} conexiones de {} usuarios", connections.get(), subscribers.size());
+    }
+
+    private boolean send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: se libera el emisor
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        logger.info("Canal de notificaciones cerrado ({} conexiones)", connections.get());
+    }
+}
@@ -0,0 +1,317 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.events.OperatorScheduleChangedEvent;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.util.SlotBitmap;
+
+/**
+ * Índice en memoria de disponibilidad de operarios.
+ *
+ * Guarda por operario y fecha un mapa de bits de franjas de 5 minutos:
+ * franjas laborales (según el horario semanal en memoria de OperatorScheduleService) menos
+ * franjas ocupadas por citas activas. Un día se carga la primera vez que se consulta (una
+ * consulta de citas para todos los operarios que falten) y luego se mantiene con los eventos
+ * de reserva y cancelación,
+ * así que las búsquedas de operarios libres no tocan la BD.
+ *
+ * Los apartados temporales de franjas (SlotHoldRegistry) se registran con hold(): no están
+ * en la BD, así que se conservan aparte y se vuelven a aplicar cuando un día se recarga.
+ *
+ * Los horarios que no caen en múltiplos de 5 minutos se redondean de forma conservadora
+ * (la jornada hacia dentro, las citas hacia fuera). La validación final de una cita
+ * sigue consultando la BD.
+ */
+@Component
+public class OperatorAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperatorAvailabilityIndex.class);
+
+    private static final String APPOINTMENT_KEY_PREFIX = "appointment:";
+    private static final String HOLD_KEY_PREFIX = "hold:";
+
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlMillis;
+
+    private final Map<DayKey, OperatorDay> days = new ConcurrentHashMap<>();
+    private final Map<String, DayKey> reservationDays = new ConcurrentHashMap<>();
+    private final Map<String, HeldSlot> heldSlots = new ConcurrentHashMap<>();
+
+    public OperatorAvailabilityIndex(OperatorScheduleService scheduleService,
+                                     AppointmentRepository appointmentRepository,
+                                     @Value("${availability.index.ttl-minutes:10}") long ttlMinutes) {
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+        this.ttlMillis = ttlMinutes * 60_000L;
+    }
+
+    /**
+     * Operarios (en el mismo orden recibido) libres para [start, end) en la fecha dada
+     */
+    public List<Long> findFreeOperators(List<Long> operatorIds, LocalDate date,
+                                        LocalTime start, LocalTime end) {
+        List<Long> free = new ArrayList<>();
+        if (operatorIds.isEmpty() || !start.isBefore(end)) {
+            return free;
+        }
+
+        long[] requested = SlotBitmap.covering(start, end);
+        Map<Long, OperatorDay> loaded = ensureLoaded(operatorIds, date);
+
+        for (Long operatorId : operatorIds) {
+            OperatorDay day = loaded.get(operatorId);
+            if (day != null && SlotBitmap.containsAll(day.free, requested)) {
+                free.add(operatorId);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * ¿Está libre el operario para [start, end) en la fecha dada?
+     */
+    public boolean isFree(Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        return !findFreeOperators(List.of(operatorId), date, start, end).isEmpty();
+    }
+
+    /**
+     * Registrar una reserva (cita) en el índice. Si la clave ya existía se mueve.
+     */
+    public void reserve(String key, Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        release(key);
+
+        DayKey dayKey = new DayKey(operatorId, date);
+        OperatorDay day = days.get(dayKey);
+        if (day == null) {
+            // Día aún no cargado: se leerá desde la BD cuando se consulte
+            return;
+        }
+        day.put(key, SlotBitmap.covering(start, end));
+        reservationDays.put(key, dayKey);
+    }
+
+    /**
+     * Registrar una reserva que no está en la BD (apartado temporal): sobrevive a recargas del día
+     */
+    public void hold(String key, Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        // Cargar el día si hace falta para que el apartado cuente desde ya
+        ensureLoaded(List.of(operatorId), date);
+        reserve(key, operatorId, date, start, end);
+        heldSlots.put(key, new HeldSlot(new DayKey(operatorId, date), SlotBitmap.covering(start, end)));
+    }
+
+    /**
+     * Liberar una reserva del índice
+     */
+    public void release(String key) {
+        heldSlots.remove(key);
+        DayKey dayKey = reservationDays.remove(key);
+        if (dayKey == null) {
+            return;
+        }
+        OperatorDay day = days.get(dayKey);
+        if (day != null) {
+            day.remove(key);
+        }
+    }
+
+    /**
+     * Descartar todos los días cargados de un operario (p. ej. al cambiar su horario)
+     */
+    public void invalidateOperator(Long operatorId) {
+        days.entrySet().removeIf(entry -> {
+            if (!entry.getKey().operatorId().equals(operatorId)) {
+                return false;
+            }
+            entry.getValue().keys().forEach(reservationDays::remove);
+            return true;
+        });
+        logger.debug("Índice de disponibilidad invalidado para operario {}", operatorId);
+    }
+
+    /**
+     * Descartar un día cargado de un operario: se vuelve a leer de la BD en la próxima consulta
+     * (p. ej. cuando una reserva hecha en otra instancia lo dejó desactualizado)
+     */
+    public void invalidateDay(Long operatorId, LocalDate date) {
+        OperatorDay day = days.remove(new DayKey(operatorId, date));
+        if (day != null) {
+            day.keys().forEach(reservationDays::remove);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getAppointmentId() == null) {
+            return;
+        }
+        String key = appointmentKey(event.getAppointmentId());
+        if (event.isActive() && event.getOperatorId() != null) {
+            reserve(key, event.getOperatorId(), event.getDate(),
+                    event.getStartTime(), event.getEndTime());
+        } else {
+            release(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOperatorScheduleChanged(OperatorScheduleChangedEvent event) {
+        invalidateOperator(event.getOperatorId());
+    }
+
+    /**
+     * Tarea programada: descartar días pasados (cada día a medianoche)
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        heldSlots.values().removeIf(held -> held.dayKey().date().isBefore(today));
+        days.entrySet().removeIf(entry -> {
+            if (!entry.getKey().date().isBefore(today)) {
+                return false;
+            }
+            entry.getValue().keys().forEach(reservationDays::remove);
+            return true;
+        });
+    }
+
+    public static String appointmentKey(Long appointmentId) {
+        return APPOINTMENT_KEY_PREFIX + appointmentId;
+    }
+
+    public static String holdKey(String holdId) {
+        return HOLD_KEY_PREFIX + holdId;
+    }
+
+    // ==================== CARGA DESDE BD ====================
+
+    private Map<Long, OperatorDay> ensureLoaded(Collection<Long> operatorIds, LocalDate date) {
+        Map<Long, OperatorDay> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (Long operatorId : operatorIds) {
+            OperatorDay day = days.get(new DayKey(operatorId, date));
+            if (day == null || now - day.loadedAt > ttlMillis) {
+                missing.add(operatorId);
+            } else {
+                result.put(operatorId, day);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing, date));
+        }
+        return result;
+    }
+
+    private Map<Long, OperatorDay> load(List<Long> operatorIds, LocalDate date) {
+        Map<Long, WeeklySchedule> schedules = scheduleService.getWeeklySchedules(operatorIds);
+
+        Map<Long, OperatorDay> loaded = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Long operatorId : operatorIds) {
+            long[] working = SlotBitmap.empty();
+            for (WeeklySchedule.Shift shift : schedules.get(operatorId).shifts(date.getDayOfWeek())) {
+                SlotBitmap.or(working, SlotBitmap.within(shift.start(), shift.end()));
+            }
+            loaded.put(operatorId, new OperatorDay(working, now));
+        }
+
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByOperatorsAndDate(
+                operatorIds, date)) {
+            OperatorDay day = loaded.get(appointment.getOperatorId());
+            if (day != null) {
+                day.put(appointmentKey(appointment.getId()),
+                        SlotBitmap.covering(appointment.getStartTime(), appointment.getEndTime()));
+            }
+        }
+
+        // Apartados temporales vigentes de esos días
+        heldSlots.forEach((key, held) -> {
+            if (held.dayKey().date().equals(date)) {
+                OperatorDay day = loaded.get(held.dayKey().operatorId());
+                if (day != null) {
+                    day.put(key, held.mask());
+                }
+            }
+        });
+
+        loaded.forEach((operatorId, day) -> {
+            DayKey dayKey = new DayKey(operatorId, date);
+            OperatorDay previous = days.put(dayKey, day);
+            if (previous != null) {
+                previous.keys().forEach(reservationDays::remove);
+            }
+            day.keys().forEach(key -> reservationDays.put(key, dayKey));
+        });
+
+        logger.debug("Índice de disponibilidad: cargados {} operario(s) para {}", operatorIds.size(), date);
+        return loaded;
+    }
+
+    // ==================== ESTRUCTURAS INTERNAS ====================
+
+    private record DayKey(Long operatorId, LocalDate date) {
+    }
+
+    private record HeldSlot(DayKey dayKey, long[] mask) {
+    }
+
+    /**
+     * Día de un operario: franjas laborales, reservas y franjas libres precalculadas
+     */
+    private static final class OperatorDay {
+        private final long[] working;
+        private final Map<String, long[]> reservations = new HashMap<>();
+        private final long loadedAt;
+        private volatile long[] free;
+
+        OperatorDay(long[] working, long loadedAt) {
+            this.working = working;
+            this.loadedAt = loadedAt;
+            this.free = working.clone();
+        }
+
+        synchronized void put(String key, long[] mask) {
+            reservations.put(key, mask);
+            recompute();
+        }
+
+        synchronized void remove(String key) {
+            if (reservations.remove(key) != null) {
+                recompute();
+            }
+        }
+
+        synchronized List<String> keys() {
+            return new ArrayList<>(reservations.keySet());
+        }
+
+        private void recompute() {
+            long[] booked = SlotBitmap.empty();
+            for (long[] mask : reservations.values()) {
+                SlotBitmap.or(booked, mask);
+            }
+            free = SlotBitmap.andNot(working, booked);
+        }
+    }
+}
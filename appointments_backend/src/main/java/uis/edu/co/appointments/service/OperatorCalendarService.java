@@ -0,0 +1,97 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.dto.OperatorCalendarDTO;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.util.MinuteIntervals;
+
+/**
+ * Calendario mensual de un operario.
+ *
+ * Una sola consulta de citas activas para todo el mes más el horario semanal en memoria;
+ * los minutos libres de cada día son la jornada menos las citas (barrido de intervalos).
+ */
+@Service
+public class OperatorCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperatorCalendarService.class);
+
+    private final OperatorScheduleService scheduleService;
+    private final AppointmentRepository appointmentRepository;
+
+    public OperatorCalendarService(OperatorScheduleService scheduleService,
+                                   AppointmentRepository appointmentRepository) {
+        this.scheduleService = scheduleService;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * Obtener el calendario del operario para el mes dado
+     */
+    public OperatorCalendarDTO getMonthCalendar(Long operatorId, YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+
+        WeeklySchedule schedule = scheduleService.getWeeklySchedule(operatorId);
+
+        // Citas activas del mes agrupadas por fecha (la consulta ya las devuelve ordenadas)
+        Map<LocalDate, List<AppointmentSlotView>> booked = new HashMap<>();
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByOperatorsAndDateRange(
+                List.of(operatorId), first, last)) {
+            booked.computeIfAbsent(appointment.getAppointmentDate(), d -> new ArrayList<>()).add(appointment);
+        }
+
+        OperatorCalendarDTO calendar = new OperatorCalendarDTO(operatorId, month.toString());
+        int totalWorking = 0;
+        int totalBooked = 0;
+        int totalFree = 0;
+
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            OperatorCalendarDTO.Day day = new OperatorCalendarDTO.Day(date);
+
+            List<int[]> working = new ArrayList<>();
+            for (WeeklySchedule.Shift shift : schedule.shifts(date.getDayOfWeek())) {
+                day.getWorking().add(new OperatorCalendarDTO.Interval(shift.start(), shift.end(), null));
+                working.add(new int[] { MinuteIntervals.minutes(shift.start()), MinuteIntervals.minutes(shift.end()) });
+            }
+
+            List<int[]> busy = new ArrayList<>();
+            for (AppointmentSlotView appointment : booked.getOrDefault(date, List.of())) {
+                day.getBooked().add(new OperatorCalendarDTO.Interval(
+                    appointment.getStartTime(), appointment.getEndTime(), appointment.getId()));
+                busy.add(new int[] {
+                    MinuteIntervals.minutes(appointment.getStartTime()),
+                    MinuteIntervals.minutes(appointment.getEndTime())
+                });
+            }
+
+            List<int[]> mergedWorking = MinuteIntervals.merge(working);
+            List<int[]> mergedBusy = MinuteIntervals.merge(busy);
+            int free = MinuteIntervals.total(MinuteIntervals.subtract(mergedWorking, mergedBusy));
+            day.setFreeMinutes(free);
+
+            totalWorking += MinuteIntervals.total(mergedWorking);
+            totalBooked += MinuteIntervals.total(mergedBusy);
+            totalFree += free;
+            calendar.getDays().add(day);
+        }
+
+        calendar.setTotalWorkingMinutes(totalWorking);
+        calendar.setTotalBookedMinutes(totalBooked);
+        calendar.setTotalFreeMinutes(totalFree);
+
+        logger.debug("Calendario {} del operario {}: {} minutos libres", month, operatorId, totalFree);
+        return calendar;
+    }
+}
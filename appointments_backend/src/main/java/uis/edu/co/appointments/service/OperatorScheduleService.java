@@ -2,14 +2,26 @@ package uis.edu.co.appointments.service;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import uis.edu.co.appointments.dto.ScheduleSlotView;
+import uis.edu.co.appointments.events.OperatorScheduleChangedEvent;
 import uis.edu.co.appointments.models.OperatorSchedule;
 import uis.edu.co.appointments.repository.OperatorScheduleRepository;
 import uis.edu.co.appointments.repository.UserRepository;
@@ -21,11 +33,20 @@ public class OperatorScheduleService {
 
     private final OperatorScheduleRepository scheduleRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long snapshotTtlMillis;
+
+    // Horario semanal activo por operario (se invalida al crear, editar o eliminar horarios)
+    private final Map<Long, WeeklySchedule> weeklySchedules = new ConcurrentHashMap<>();
 
     public OperatorScheduleService(OperatorScheduleRepository scheduleRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${availability.schedule-cache.ttl-minutes:60}") long snapshotTtlMinutes) {
         this.scheduleRepository = scheduleRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.snapshotTtlMillis = snapshotTtlMinutes * 60_000L;
     }
 
     /**
@@ -49,6 +70,8 @@ public class OperatorScheduleService {
         }
 
         OperatorSchedule saved = scheduleRepository.save(schedule);
+        invalidateSchedule(schedule.getOperator().getId());
+        eventPublisher.publishEvent(new OperatorScheduleChangedEvent(schedule.getOperator().getId()));
         logger.info("Horario creado para operario ID: {}, día: {}", 
                    schedule.getOperator().getId(), schedule.getDayOfWeek());
         return saved;
@@ -92,6 +115,8 @@ public class OperatorScheduleService {
         }
 
         OperatorSchedule updated = scheduleRepository.save(schedule);
+        invalidateSchedule(updated.getOperator().getId());
+        eventPublisher.publishEvent(new OperatorScheduleChangedEvent(updated.getOperator().getId()));
         logger.info("Horario actualizado ID: {}", scheduleId);
         return updated;
     }
@@ -110,6 +135,8 @@ public class OperatorScheduleService {
         OperatorSchedule toDelete = schedule.get();
         toDelete.setActive(false);
         scheduleRepository.save(toDelete);
+        invalidateSchedule(toDelete.getOperator().getId());
+        eventPublisher.publishEvent(new OperatorScheduleChangedEvent(toDelete.getOperator().getId()));
         
         logger.info("Horario desactivado ID: {}", scheduleId);
     }
@@ -118,11 +145,9 @@ public class OperatorScheduleService {
      * Verificar si operario trabaja en un día
      */
     public boolean isOperatorWorkingOn(Long operatorId, DayOfWeek day) {
-        List<OperatorSchedule> schedules = scheduleRepository.findByOperatorAndDay(operatorId, day);
-        logger.info("    📋 Horarios encontrados para operario {} en {}: {}", 
-                operatorId, day, schedules.size());
-    schedules.forEach(s -> logger.info("      - {} a {}", s.getStartTime(), s.getEndTime()));
-        return !schedules.isEmpty();
+        boolean working = getWeeklySchedule(operatorId).worksOn(day);
+        logger.debug("Operario {} trabaja los {}: {}", operatorId, day, working);
+        return working;
     }
 
     /**
@@ -130,19 +155,69 @@ public class OperatorScheduleService {
      */
     public boolean isWithinOperatorSchedule(Long operatorId, DayOfWeek day, 
                                            LocalTime startTime, LocalTime endTime) {
-        List<OperatorSchedule> schedules = scheduleRepository.findByOperatorAndDay(operatorId, day);
-        logger.info("    🔍 Verificando si {} - {} está dentro de algún horario", 
-                startTime, endTime);
-        
-        for (OperatorSchedule schedule : schedules) {
-            // Verificar si el rango solicitado está completamente dentro del horario
-            if (!startTime.isBefore(schedule.getStartTime()) && 
-                !endTime.isAfter(schedule.getEndTime())) {
-                return true;
+        boolean within = getWeeklySchedule(operatorId).covers(day, startTime, endTime);
+        logger.debug("Operario {}: {} - {} dentro del horario de los {}: {}",
+                operatorId, startTime, endTime, day, within);
+        return within;
+    }
+
+    // ==================== FOTOS DEL HORARIO SEMANAL ====================
+
+    /**
+     * Horario semanal activo de un operario (en memoria)
+     */
+    public WeeklySchedule getWeeklySchedule(Long operatorId) {
+        return getWeeklySchedules(List.of(operatorId)).get(operatorId);
+    }
+
+    /**
+     * Horarios semanales de varios operarios; los que falten se cargan con una sola consulta
+     */
+    public Map<Long, WeeklySchedule> getWeeklySchedules(Collection<Long> operatorIds) {
+        Map<Long, WeeklySchedule> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (Long operatorId : operatorIds) {
+            WeeklySchedule cached = weeklySchedules.get(operatorId);
+            if (cached == null || now - cached.loadedAt() > snapshotTtlMillis) {
+                missing.add(operatorId);
+            } else {
+                result.put(operatorId, cached);
             }
         }
-        
-        return false;
+
+        if (!missing.isEmpty()) {
+            Map<Long, List<ScheduleSlotView>> byOperator = new HashMap<>();
+            for (ScheduleSlotView slot : scheduleRepository.findActiveSlotsByOperators(missing)) {
+                byOperator.computeIfAbsent(slot.getOperatorId(), id -> new ArrayList<>()).add(slot);
+            }
+            for (Long operatorId : missing) {
+                WeeklySchedule loaded = WeeklySchedule.of(byOperator.getOrDefault(operatorId, List.of()), now);
+                weeklySchedules.put(operatorId, loaded);
+                result.put(operatorId, loaded);
+            }
+            logger.debug("Horarios semanales cargados para {} operario(s)", missing.size());
+        }
+        return result;
+    }
+
+    /**
+     * Descartar la foto del horario de un operario
+     */
+    public void invalidateSchedule(Long operatorId) {
+        weeklySchedules.remove(operatorId);
+    }
+
+    /**
+     * Volver a descartar la foto después del commit, por si otra petición la recargó
+     * con los datos anteriores mientras la transacción seguía abierta.
+     * Se ejecuta antes que los demás oyentes (p. ej. el índice de disponibilidad).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOperatorScheduleChanged(OperatorScheduleChangedEvent event) {
+        invalidateSchedule(event.getOperatorId());
     }
 
     // ==================== MÉTODOS PRIVADOS DE VALIDACIÓN ====================
@@ -0,0 +1,124 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.dto.ScheduledReminderView;
+import uis.edu.co.appointments.events.AppointmentSeriesCreatedEvent;
+import uis.edu.co.appointments.events.AppointmentsCreatedEvent;
+import uis.edu.co.appointments.events.ReminderScheduledEvent;
+import uis.edu.co.appointments.repository.NotificationRepository;
+import uis.edu.co.appointments.util.TimerWheel;
+
+/**
+ * Disparo de recordatorios a su hora exacta.
+ *
+ * Los recordatorios pendientes de las próximas horas (horizon-hours) viven en una rueda de
+ * temporizadores jerárquica en memoria (ticks de 1 s): se cargan al arrancar, se añaden al
+ * crearse (evento tras la confirmación) y cada segundo se envían los que vencieron. Una
+ * conciliación de baja frecuencia con la BD sigue como red de seguridad: amplía el horizonte
+ * y recoge los recordatorios insertados por lote o que se hayan perdido.
+ *
+ * Con varias instancias, cada nodo tiene su rueda con los mismos IDs: el envío reclama las
+ * filas en la BD antes de procesarlas (NotificationSchedulerService), así solo uno las envía.
+ */
+@Component
+public class ReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int LEVELS = 3; // segundos, minutos y horas: 60 h antes del desbordamiento
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationSchedulerService schedulerService;
+    private final long horizonHours;
+    private final TimerWheel<Long> wheel =
+        new TimerWheel<>(TICK_MILLIS, WHEEL_SIZE, LEVELS, System.currentTimeMillis());
+
+    public ReminderDispatcher(NotificationRepository notificationRepository,
+                              NotificationSchedulerService schedulerService,
+                              @Value("${reminders.wheel.horizon-hours:48}") long horizonHours) {
+        this.notificationRepository = notificationRepository;
+        this.schedulerService = schedulerService;
+        this.horizonHours = horizonHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Tarea programada: enviar los recordatorios vencidos en el último segundo
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void fireDue() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            schedulerService.sendScheduledNotifications(due);
+        } catch (Exception e) {
+            // Siguen pendientes en la BD: la conciliación los vuelve a programar
+            logger.error("Error enviando {} recordatorio(s): {}", due.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Tarea programada: conciliar la rueda con los recordatorios pendientes del horizonte.
+     * Los ya vencidos (p. ej. durante una caída) se envían en el siguiente tick.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.notification.check.interval:900000}",
+               initialDelayString = "${scheduler.notification.check.interval:900000}")
+    public void reconcile() {
+        LocalDateTime until = LocalDateTime.now().plusHours(horizonHours);
+        List<ScheduledReminderView> pending = notificationRepository.findPendingReminderTimes(until);
+        pending.forEach(this::schedule);
+        logger.info("Recordatorios en la rueda: {} ({} pendientes hasta {})", wheel.size(), pending.size(), until);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderScheduled(ReminderScheduledEvent event) {
+        schedule(event.getNotificationId(), event.getScheduledFor());
+    }
+
+    // Los lotes y las series insertan recordatorios por JDBC, sin evento por fila
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsCreated(AppointmentsCreatedEvent event) {
+        notificationRepository.findPendingReminderTimesByAppointmentIds(event.getAppointmentIds())
+            .forEach(this::schedule);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeriesCreated(AppointmentSeriesCreatedEvent event) {
+        notificationRepository.findPendingReminderTimesBySeriesId(event.getSeriesId())
+            .forEach(this::schedule);
+    }
+
+    private void schedule(ScheduledReminderView reminder) {
+        schedule(reminder.getId(), reminder.getScheduledFor());
+    }
+
+    private void schedule(Long notificationId, LocalDateTime scheduledFor) {
+        if (notificationId == null || scheduledFor == null
+                || scheduledFor.isAfter(LocalDateTime.now().plusHours(horizonHours))) {
+            // Fuera del horizonte: lo programará una conciliación posterior
+            return;
+        }
+        wheel.schedule(notificationId, scheduledFor.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,153 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import uis.edu.co.appointments.util.TimerWheel;
+
+/**
+ * Apartados temporales de franjas (holds) en memoria.
+ *
+ * Un apartado reserva [start, end) de un operario durante unos minutos mientras el usuario
+ * termina el formulario. Se registra en OperatorAvailabilityIndex (clave "hold:") para que
+ * la búsqueda de operarios libres lo vea, y las validaciones de reserva lo consultan con
+ * overlapping(). El vencimiento lo lleva una rueda de temporizadores que avanza cada segundo.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldRegistry.class);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+
+    private final OperatorAvailabilityIndex availabilityIndex;
+    private final long ttlMinutes;
+
+    private final Map<String, SlotHold> holds = new ConcurrentHashMap<>();
+    private final TimerWheel<String> expirations = new TimerWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    public SlotHoldRegistry(OperatorAvailabilityIndex availabilityIndex,
+                            @Value("${appointments.holds.ttl-minutes:5}") long ttlMinutes) {
+        this.availabilityIndex = availabilityIndex;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    /**
+     * Apartado de una franja (inmutable)
+     */
+    public record SlotHold(String id, Long userId, Long operatorId, Long categoryId,
+                           LocalDate date, LocalTime startTime, LocalTime endTime,
+                           LocalDateTime expiresAt) {
+
+        boolean overlaps(Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+            return this.operatorId.equals(operatorId) && this.date.equals(date)
+                && start.isBefore(endTime) && end.isAfter(startTime);
+        }
+
+        boolean isExpired() {
+            return !expiresAt.isAfter(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Registrar un apartado. Llamar con la agenda del operario bloqueada (BookingLockService)
+     * y después de validar que la franja está libre.
+     */
+    public SlotHold place(Long userId, Long operatorId, Long categoryId,
+                          LocalDate date, LocalTime start, LocalTime end) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), userId, operatorId, categoryId,
+                                     date, start, end, expiresAt);
+
+        holds.put(hold.id(), hold);
+        availabilityIndex.hold(OperatorAvailabilityIndex.holdKey(hold.id()), operatorId, date, start, end);
+        expirations.schedule(hold.id(), expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        logger.debug("Apartado {} del operario {} el {} {}-{} hasta {}",
+                     hold.id(), operatorId, date, start, end, expiresAt);
+        return hold;
+    }
+
+    /**
+     * Apartado vigente por ID
+     */
+    public Optional<SlotHold> find(String holdId) {
+        SlotHold hold = holds.get(holdId);
+        return hold == null || hold.isExpired() ? Optional.empty() : Optional.of(hold);
+    }
+
+    /**
+     * Liberar un apartado (confirmado, cancelado o vencido)
+     */
+    public void release(String holdId) {
+        if (holds.remove(holdId) != null) {
+            expirations.cancel(holdId);
+            availabilityIndex.release(OperatorAvailabilityIndex.holdKey(holdId));
+        }
+    }
+
+    /**
+     * Apartados vigentes que se solapan con [start, end) del operario (excepto excludeHoldId)
+     */
+    public List<SlotHold> overlapping(Long operatorId, LocalDate date, LocalTime start, LocalTime end,
+                                      String excludeHoldId) {
+        List<SlotHold> result = new ArrayList<>();
+        for (SlotHold hold : holds.values()) {
+            if (!hold.id().equals(excludeHoldId) && !hold.isExpired()
+                    && hold.overlaps(operatorId, date, start, end)) {
+                result.add(hold);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Apartados vigentes de varios operarios en un rango de fechas
+     */
+    public List<SlotHold> findByOperatorsAndDateRange(Collection<Long> operatorIds, LocalDate from, LocalDate to) {
+        List<SlotHold> result = new ArrayList<>();
+        for (SlotHold hold : holds.values()) {
+            if (operatorIds.contains(hold.operatorId()) && !hold.isExpired()
+                    && !hold.date().isBefore(from) && !hold.date().isAfter(to)) {
+                result.add(hold);
+            }
+        }
+        return result;
+    }
+
+    public long countByUser(Long userId) {
+        return holds.values().stream()
+            .filter(hold -> hold.userId().equals(userId) && !hold.isExpired())
+            .count();
+    }
+
+    /**
+     * Tarea programada: avanzar la rueda y liberar los apartados vencidos
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expireHolds() {
+        List<String> expired = expirations.advance(System.currentTimeMillis());
+        for (String holdId : expired) {
+            release(holdId);
+        }
+        if (!expired.isEmpty()) {
+            logger.debug("{} apartado(s) vencidos", expired.size());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package uis.edu.co.appointments.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uis.edu.co.appointments.dto.ConfirmHoldRequest;
+import uis.edu.co.appointments.dto.SlotHoldRequest;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.service.SlotHoldRegistry.SlotHold;
+import uis.edu.co.appointments.util.AppointmentTimeRules;
+
+/**
+ * Apartar una franja mientras el usuario llena el formulario y confirmarla después.
+ *
+ * Al apartar se valida la franja una vez (con la agenda bloqueada); al confirmar, la cita
+ * se crea con el operario y el horario del apartado sin volver a buscar disponibilidad.
+ */
+@Service
+public class SlotHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldService.class);
+
+    private final SlotHoldRegistry holdRegistry;
+    private final AppointmentService appointmentService;
+    private final BookingLockService bookingLockService;
+    private final int maxPerUser;
+
+    public SlotHoldService(SlotHoldRegistry holdRegistry,
+                           AppointmentService appointmentService,
+                           BookingLockService bookingLockService,
+                           @Value("${appointments.holds.max-per-user:2}") int maxPerUser) {
+        this.holdRegistry = holdRegistry;
+        this.appointmentService = appointmentService;
+        this.bookingLockService = bookingLockService;
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Apartar una franja para el usuario
+     */
+    @Transactional
+    public SlotHold create(SlotHoldRequest request, Long userId) {
+        AppointmentTimeRules.validateTimes(request.getStartTime(), request.getEndTime());
+        AppointmentTimeRules.validateNotPast(request.getDate(), request.getStartTime());
+        if (holdRegistry.countByUser(userId) >= maxPerUser) {
+            throw new IllegalArgumentException(
+                "No puedes tener más de " + maxPerUser + " franjas apartadas a la vez"
+            );
+        }
+
+        Long operatorId = request.getOperatorId();
+        if (operatorId == null) {
+            int minutes = (int) Duration.between(request.getStartTime(), request.getEndTime()).toMinutes();
+            User operator = appointmentService.findAvailableOperator(
+                request.getCategoryId(), request.getDate(), request.getStartTime(), minutes);
+            if (operator == null) {
+                throw new AppointmentConflictException(
+                    "No hay operarios disponibles para esa fecha y hora", List.of()
+                );
+            }
+            operatorId = operator.getId();
+        }
+
+        // Validar con la agenda bloqueada, igual que una reserva normal
+        bookingLockService.lock(operatorId, request.getDate());
+        appointmentService.validateAppointment(probe(request, operatorId), null);
+
+        SlotHold hold = holdRegistry.place(userId, operatorId, request.getCategoryId(),
+                                           request.getDate(), request.getStartTime(), request.getEndTime());
+        logger.info("Franja apartada {} para usuario {} (operario {}, {} {}-{})", hold.id(), userId,
+                    operatorId, hold.date(), hold.startTime(), hold.endTime());
+        return hold;
+    }
+
+    /**
+     * Convertir un apartado vigente en cita
+     */
+    @Transactional
+    public Appointment confirm(String holdId, Long userId, ConfirmHoldRequest request) {
+        SlotHold hold = findOwned(holdId, userId);
+
+        Appointment appointment = new Appointment();
+        User user = new User();
+        user.setId(userId);
+        appointment.setUser(user);
+        if (hold.categoryId() != null) {
+            Category category = new Category();
+            category.setId(hold.categoryId());
+            appointment.setCategory(category);
+        }
+        appointment.setTitle(request.getTitle());
+        appointment.setDescription(request.getDescription());
+        appointment.setDurationMinutes((int) Duration.between(hold.startTime(), hold.endTime()).toMinutes());
+
+        Appointment saved = appointmentService.confirmHold(appointment, hold);
+
+        // El apartado se libera solo si la cita quedó guardada
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holdRegistry.release(holdId);
+            }
+        });
+
+        logger.info("Apartado {} confirmado como cita {}", holdId, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Liberar un apartado antes de que venza
+     */
+    public void cancel(String holdId, Long userId) {
+        findOwned(holdId, userId);
+        holdRegistry.release(holdId);
+    }
+
+    private SlotHold findOwned(String holdId, Long userId) {
+        SlotHold hold = holdRegistry.find(holdId)
+            .orElseThrow(() -> new IllegalArgumentException("El apartado no existe o ya venció"));
+        if (!hold.userId().equals(userId)) {
+            throw new IllegalArgumentException("El apartado pertenece a otro usuario");
+        }
+        return hold;
+    }
+
+    private Appointment probe(SlotHoldRequest request, Long operatorId) {
+        Appointment probe = new Appointment();
+        User operator = new User();
+        operator.setId(operatorId);
+        probe.setOperator(operator);
+        Category category = new Category();
+        category.setId(request.getCategoryId());
+        probe.setCategory(category);
+        probe.setDate(request.getDate());
+        probe.setStartTime(request.getStartTime());
+        probe.setEndTime(request.getEndTime());
+        return probe;
+    }
+}
@@ -0,0 +1,138 @@
+package uis.edu.co.appointments.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uis.edu.co.appointments.dto.UnreadCountView;
+import uis.edu.co.appointments.repository.NotificationRepository;
+
+/**
+ * Contadores de notificaciones no leídas por usuario, en memoria.
+ *
+ * El contador de un usuario se carga de la BD la primera vez que se consulta y luego
+ * NotificationService lo ajusta en cada alta, lectura o borrado, después de confirmar la
+ * transacción (un rollback no lo altera). Así GET /me/unread-count no toca la BD.
+ *
+ * Los cambios que no pasan por NotificationService (borrados en cascada de citas o usuarios,
+ * una carga que coincide con un ajuste) pueden desviar un contador: una conciliación
+ * periódica lo recalcula con un solo COUNT agrupado, y de paso olvida a los usuarios que no
+ * consultaron su contador desde la pasada anterior.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private static final int RECONCILE_CHUNK = 500;
+
+    private static final class Counter {
+        final AtomicLong unread;
+        volatile boolean used = true;
+
+        Counter(long unread) {
+            this.unread = new AtomicLong(unread);
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * Notificaciones no leídas de un usuario (solo va a la BD si aún no está cargado)
+     */
+    public long get(Long userId) {
+        Counter counter = counters.computeIfAbsent(userId,
+            id -> new Counter(notificationRepository.countByUserIdAndIsRead(id, false)));
+        counter.used = true;
+        return counter.unread.get();
+    }
+
+    /**
+     * Sumar delta al contador de un usuario al confirmar la transacción en curso.
+     * Si el usuario no está cargado no hace nada: se leerá de la BD al consultarlo.
+     */
+    public void adjust(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            Counter counter = counters.get(userId);
+            if (counter != null) {
+                counter.unread.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+            }
+        });
+    }
+
+    /**
+     * Descartar el contador de un usuario al confirmar (cuando el cambio no se puede calcular)
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            afterCommit(() -> counters.remove(userId));
+        }
+    }
+
+    /**
+     * Tarea programada: recalcular los contadores usados y olvidar los que no se consultan
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread-counter.reconcile-ms:300000}",
+               initialDelayString = "${notifications.unread-counter.reconcile-ms:300000}")
+    public void reconcile() {
+        List<Long> active = new ArrayList<>();
+        counters.forEach((userId, counter) -> {
+            if (counter.used) {
+                counter.used = false;
+                active.add(userId);
+            } else {
+                counters.remove(userId, counter);
+            }
+        });
+
+        int corrected = 0;
+        for (int from = 0; from < active.size(); from += RECONCILE_CHUNK) {
+            List<Long> chunk = active.subList(from, Math.min(from + RECONCILE_CHUNK, active.size()));
+            Map<Long, Long> actual = new HashMap<>();
+            for (UnreadCountView view : notificationRepository.countUnreadByUserIds(chunk)) {
+                actual.put(view.getUserId(), view.getUnread());
+            }
+            for (Long userId : chunk) {
+                Counter counter = counters.get(userId);
+                long expected = actual.getOrDefault(userId, 0L);
+                if (counter != null && counter.unread.getAndSet(expected) != expected) {
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            logger.info("Contadores de no leídas corregidos: {} de {}", corrected, active.size());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
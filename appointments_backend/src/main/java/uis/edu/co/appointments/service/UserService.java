@@ -1,12 +1,16 @@
 package uis.edu.co.appointments.service;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import uis.edu.co.appointments.dto.NotificationPreferencesRequest;
+import uis.edu.co.appointments.events.OperatorCategoriesChangedEvent;
 import uis.edu.co.appointments.models.Category;
 import uis.edu.co.appointments.models.Role;
 import uis.edu.co.appointments.models.User;
@@ -32,18 +37,21 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final CategoryRepository categoryRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor final:
     public UserService(UserRepository userRepository,
                        RoleRepository roleRepository,
                        PasswordEncoder passwordEncoder,
                        CategoryRepository categoryRepository,
-                       AppointmentRepository appointmentRepository) {
+                       AppointmentRepository appointmentRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.categoryRepository = categoryRepository;
         this.appointmentRepository = appointmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<User> findAll() {
@@ -242,6 +250,23 @@ public class UserService {
         return userRepository.findActiveOperatorsByCategory(categoryId);
     }
 
+    /**
+     * Operarios activos por ID, ordenados por ID
+     */
+    public List<User> findActiveByIds(Collection<Long> ids) {
+        return userRepository.findActiveByIdIn(ids);
+    }
+
+    /**
+     * Operarios de una categoría libres en una fecha y horario (una sola consulta)
+     */
+    public List<User> findAvailableOperators(Long categoryId, LocalDate date,
+                                             LocalTime startTime, LocalTime endTime) {
+        return userRepository.findAvailableOperators(
+            categoryId, date, date.getDayOfWeek(), startTime, endTime
+        );
+    }
+
     /**
      * Asignar categorías a un operario
      */
@@ -265,6 +290,7 @@ public class UserService {
         // Asignar categorías
         operator.setOperatorCategories(categories);
         userRepository.save(operator);
+        eventPublisher.publishEvent(new OperatorCategoriesChangedEvent(List.of(operatorId)));
         
         logger.info("Categorías asignadas a operario ID: {}, categorías: {}", 
                    operatorId, categoryIds);
@@ -280,6 +306,7 @@ public class UserService {
 
         user.setActive(active);
         userRepository.save(user);
+        eventPublisher.publishEvent(new OperatorCategoriesChangedEvent(List.of(userId)));
         
         logger.info("Estado de usuario ID: {} cambiado a: {}", userId, active);
     }
@@ -421,6 +448,7 @@ public class UserService {
         }
         
         User updated = userRepository.save(user);
+        eventPublisher.publishEvent(new OperatorCategoriesChangedEvent(List.of(userId)));
         
         logger.info("Rol de usuario ID {} cambiado de {} a {}", 
                 userId, previousRole, roleName);
@@ -0,0 +1,224 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.events.WaitlistJoinedEvent;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.repository.WaitlistRepository;
+import uis.edu.co.appointments.util.MinuteIntervals;
+
+/**
+ * Buscador de cupos para la lista de espera.
+ *
+ * Las cancelaciones (eliminación o cancelación por el operario) y las nuevas solicitudes solo
+ * encolan el intervalo liberado; una tarea programada vacía la cola por lotes, carga en una sola
+ * consulta las solicitudes en espera de todas las categorías y fechas afectadas y, en orden de
+ * llegada, busca en el índice de disponibilidad una hora libre dentro de la ventana de cada una
+ * para reservarla u ofrecerla.
+ */
+@Component
+public class WaitlistMatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistMatcher.class);
+
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistService waitlistService;
+    private final UserService userService;
+    private final OperatorAvailabilityIndex availabilityIndex;
+    private final int stepMinutes;
+
+    private final Queue<FreedInterval> pending = new ConcurrentLinkedQueue<>();
+
+    public WaitlistMatcher(WaitlistRepository waitlistRepository,
+                           WaitlistService waitlistService,
+                           UserService userService,
+                           OperatorAvailabilityIndex availabilityIndex,
+                           @Value("${appointments.waitlist.step-minutes:15}") int stepMinutes) {
+        this.waitlistRepository = waitlistRepository;
+        this.waitlistService = waitlistService;
+        this.userService = userService;
+        this.availabilityIndex = availabilityIndex;
+        this.stepMinutes = Math.max(stepMinutes, FreeSlotService.MIN_STEP_MINUTES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.isActive() || event.getCategoryId() == null || event.getDate() == null
+                || event.getDate().isBefore(LocalDate.now())) {
+            return;
+        }
+        enqueue(event.getCategoryId(), event.getDate(), event.getStartTime(), event.getEndTime());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistJoined(WaitlistJoinedEvent event) {
+        enqueue(event.getCategoryId(), event.getDate(), event.getWindowStart(), event.getWindowEnd());
+    }
+
+    public void enqueue(Long categoryId, LocalDate date, LocalTime start, LocalTime end) {
+        pending.add(new FreedInterval(categoryId, date,
+                                      MinuteIntervals.minutes(start), MinuteIntervals.minutes(end)));
+    }
+
+    /**
+     * Tarea programada: procesar por lote los cupos liberados desde la última pasada
+     */
+    @Scheduled(fixedDelayString = "${appointments.waitlist.match-delay-ms:5000}")
+    public void matchPending() {
+        Map<SlotKey, List<int[]>> freed = new LinkedHashMap<>();
+        FreedInterval interval;
+        while ((interval = pending.poll()) != null) {
+            freed.computeIfAbsent(new SlotKey(interval.categoryId(), interval.date()), k -> new ArrayList<>())
+                 .add(new int[] { interval.start(), interval.end() });
+        }
+        if (freed.isEmpty()) {
+            return;
+        }
+
+        List<Long> categoryIds = freed.keySet().stream().map(SlotKey::categoryId).distinct().toList();
+        List<LocalDate> dates = freed.keySet().stream().map(SlotKey::date).distinct().toList();
+
+        Map<SlotKey, List<WaitlistEntry>> waiting = waitlistRepository.findWaiting(categoryIds, dates).stream()
+            .collect(Collectors.groupingBy(
+                entry -> new SlotKey(entry.getCategory().getId(), entry.getDate()),
+                LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, List<Long>> operatorsByCategory = new HashMap<>();
+        int booked = 0;
+        int offered = 0;
+
+        for (Map.Entry<SlotKey, List<int[]>> slot : freed.entrySet()) {
+            List<WaitlistEntry> entries = waiting.getOrDefault(slot.getKey(), List.of());
+            if (entries.isEmpty()) {
+                continue;
+            }
+            List<Long> operatorIds = operatorsByCategory.computeIfAbsent(slot.getKey().categoryId(),
+                id -> userService.getOperatorsByCategory(id).stream().map(User::getId).toList());
+            if (operatorIds.isEmpty()) {
+                continue;
+            }
+
+            // Cupos ofrecidos en esta pasada (no quedan reservados en el índice)
+            Map<Long, List<int[]>> claimed = new HashMap<>();
+
+            for (WaitlistEntry entry : entries) {
+                if (!overlapsAny(entry, slot.getValue())) {
+                    continue;
+                }
+                try {
+                    Match match = findMatch(entry, operatorIds, claimed);
+                    if (match == null) {
+                        continue;
+                    }
+                    if (Boolean.TRUE.equals(entry.getAutoBook())) {
+                        if (waitlistService.book(entry.getId(), MinuteIntervals.time(match.start()))) {
+                            booked++;
+                        }
+                    } else if (waitlistService.offer(entry.getId(), MinuteIntervals.time(match.start()))) {
+                        claimed.computeIfAbsent(match.operatorId(), id -> new ArrayList<>())
+                               .add(new int[] { match.start(), match.start() + entry.getDurationMinutes() });
+                        offered++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Otro usuario tomó el cupo entre la búsqueda y la reserva: la solicitud sigue en espera
+                    logger.debug("Lista de espera ID {} sin reservar: {}", entry.getId(), e.getMessage());
+                } catch (Exception e) {
+                    logger.error("Error procesando lista de espera ID {}: {}", entry.getId(), e.getMessage());
+                }
+            }
+        }
+
+        if (booked > 0 || offered > 0) {
+            logger.info("Lista de espera: {} cita(s) reservadas, {} cupo(s) ofrecidos", booked, offered);
+        }
+    }
+
+    /**
+     * Tarea programada: vencer solicitudes de fechas pasadas (cada día a las 00:10)
+     */
+    @Scheduled(cron = "0 10 0 * * *")
+    public void expirePastEntries() {
+        int expired = waitlistService.expirePastEntries();
+        if (expired > 0) {
+            logger.info("Lista de espera: {} solicitud(es) vencidas", expired);
+        }
+    }
+
+    // ==================== BÚSQUEDA DE CUPO ====================
+
+    /**
+     * Primera hora de la ventana (en múltiplos del paso) con algún operario libre en el índice
+     */
+    private Match findMatch(WaitlistEntry entry, List<Long> operatorIds, Map<Long, List<int[]>> claimed) {
+        int duration = entry.getDurationMinutes();
+        int windowStart = MinuteIntervals.minutes(entry.getWindowStart());
+        int windowEnd = MinuteIntervals.minutes(entry.getWindowEnd());
+        LocalDateTime now = LocalDateTime.now();
+
+        int first = ((windowStart + stepMinutes - 1) / stepMinutes) * stepMinutes;
+        for (int start = first; start + duration <= windowEnd; start += stepMinutes) {
+            LocalTime startTime = MinuteIntervals.time(start);
+            if (entry.getDate().atTime(startTime).isBefore(now)) {
+                continue;
+            }
+            for (Long operatorId : availabilityIndex.findFreeOperators(
+                    operatorIds, entry.getDate(), startTime, MinuteIntervals.time(start + duration))) {
+                if (!isClaimed(claimed.get(operatorId), start, start + duration)) {
+                    return new Match(operatorId, start);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isClaimed(List<int[]> intervals, int start, int end) {
+        if (intervals == null) {
+            return false;
+        }
+        for (int[] interval : intervals) {
+            if (interval[0] < end && start < interval[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlapsAny(WaitlistEntry entry, List<int[]> freed) {
+        int windowStart = MinuteIntervals.minutes(entry.getWindowStart());
+        int windowEnd = MinuteIntervals.minutes(entry.getWindowEnd());
+        for (int[] interval : freed) {
+            if (interval[0] < windowEnd && windowStart < interval[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record SlotKey(Long categoryId, LocalDate date) {
+    }
+
+    private record FreedInterval(Long categoryId, LocalDate date, int start, int end) {
+    }
+
+    private record Match(Long operatorId, int start) {
+    }
+}
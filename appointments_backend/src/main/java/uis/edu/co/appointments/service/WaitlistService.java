@@ -0,0 +1,226 @@
+package uis.edu.co.appointments.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import uis.edu.co.appointments.dto.WaitlistRequest;
+import uis.edu.co.appointments.events.WaitlistJoinedEvent;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.Notification;
+import uis.edu.co.appointments.models.NotificationType;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.models.WaitlistStatus;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.repository.WaitlistRepository;
+import uis.edu.co.appointments.util.MinuteIntervals;
+
+/**
+ * Lista de espera por categoría, fecha y ventana horaria.
+ *
+ * Las solicitudes se atienden en orden de llegada desde WaitlistMatcher, fuera del hilo
+ * de la petición; cada reserva u oferta corre en su propia transacción.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final AppointmentService appointmentService;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPerUser;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           UserRepository userRepository,
+                           CategoryRepository categoryRepository,
+                           AppointmentService appointmentService,
+                           NotificationService notificationService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${appointments.waitlist.max-per-user:5}") int maxPerUser) {
+        this.waitlistRepository = waitlistRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.appointmentService = appointmentService;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Entrar a la lista de espera
+     */
+    @Transactional
+    public WaitlistEntry join(WaitlistRequest request, Long userId) {
+        validate(request);
+
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
+        Category category = categoryRepository.findById(request.getCategoryId())
+            .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada"));
+
+        if (waitlistRepository.countWaitingByUserId(userId) >= maxPerUser) {
+            throw new IllegalArgumentException(
+                "No puedes tener más de " + maxPerUser + " solicitudes en lista de espera"
+            );
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setCategory(category);
+        entry.setTitle(request.getTitle());
+        entry.setDescription(request.getDescription());
+        entry.setDate(request.getDate());
+        entry.setWindowStart(request.getWindowStart());
+        entry.setWindowEnd(request.getWindowEnd());
+        entry.setDurationMinutes(request.getDurationMinutes());
+        entry.setAutoBook(request.isAutoBook());
+        entry.setStatus(WaitlistStatus.WAITING);
+
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        eventPublisher.publishEvent(new WaitlistJoinedEvent(
+            category.getId(), saved.getDate(), saved.getWindowStart(), saved.getWindowEnd()));
+
+        logger.info("Usuario {} en lista de espera ID {} ({} {}-{})", userId, saved.getId(),
+                    saved.getDate(), saved.getWindowStart(), saved.getWindowEnd());
+        return saved;
+    }
+
+    /**
+     * Salir de la lista de espera (el dueño de la solicitud o admin)
+     */
+    @Transactional
+    public WaitlistEntry cancel(Long id, Long userId, boolean isAdmin) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Solicitud no encontrada"));
+        if (!isAdmin && !entry.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("No autorizado para cancelar esta solicitud");
+        }
+        if (waitlistRepository.cancelIfActive(id) == 0) {
+            throw new IllegalArgumentException("La solicitud ya no está activa");
+        }
+        return waitlistRepository.findById(id).orElseThrow();
+    }
+
+    public List<WaitlistEntry> findByUserId(Long userId) {
+        return waitlistRepository.findByUserId(userId);
+    }
+
+    /**
+     * Reservar la cita de una solicitud en la hora indicada.
+     * Si la reserva falla (p. ej. otro usuario tomó el cupo) se revierte todo y la solicitud sigue en espera.
+     * La solicitud se toma con un UPDATE condicional antes de crear la cita: si ya no estaba en
+     * espera (otra pasada la reservó, ofreció o el usuario la canceló) no se reserva nada.
+     */
+    @Transactional
+    public boolean book(Long entryId, LocalTime startTime) {
+        WaitlistEntry entry = claim(entryId, WaitlistStatus.BOOKED);
+        if (entry == null) {
+            return false;
+        }
+        LocalTime endTime = startTime.plusMinutes(entry.getDurationMinutes());
+
+        Appointment appointment = new Appointment();
+        appointment.setUser(entry.getUser());
+        appointment.setCategory(entry.getCategory());
+        appointment.setTitle(entry.getTitle());
+        appointment.setDescription(entry.getDescription());
+        appointment.setDate(entry.getDate());
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(endTime);
+        appointment.setDurationMinutes(entry.getDurationMinutes());
+
+        Appointment saved = appointmentService.save(appointment);
+
+        entry.setAppointment(saved);
+        entry.setMatchedStartTime(startTime);
+        entry.setMatchedEndTime(endTime);
+        waitlistRepository.save(entry);
+
+        notify(entry, String.format(
+            "Se liberó un cupo: tu cita '%s' quedó reservada para el %s de %s a %s.",
+            entry.getTitle(), entry.getDate(), startTime, endTime));
+
+        logger.info("Lista de espera ID {}: cita {} reservada", entryId, saved.getId());
+        return true;
+    }
+
+    /**
+     * Ofrecer un cupo libre al usuario (no se reserva: el usuario agenda la cita normalmente)
+     */
+    @Transactional
+    public boolean offer(Long entryId, LocalTime startTime) {
+        WaitlistEntry entry = claim(entryId, WaitlistStatus.OFFERED);
+        if (entry == null) {
+            return false;
+        }
+        LocalTime endTime = startTime.plusMinutes(entry.getDurationMinutes());
+
+        entry.setMatchedStartTime(startTime);
+        entry.setMatchedEndTime(endTime);
+        waitlistRepository.save(entry);
+
+        notify(entry, String.format(
+            "Se liberó un cupo para '%s' el %s de %s a %s. Agenda tu cita antes de que se ocupe.",
+            entry.getTitle(), entry.getDate(), startTime, endTime));
+
+        logger.info("Lista de espera ID {}: cupo ofrecido {} {}", entryId, entry.getDate(), startTime);
+        return true;
+    }
+
+    /**
+     * Marcar como vencidas las solicitudes de fechas pasadas
+     */
+    @Transactional
+    public int expirePastEntries() {
+        return waitlistRepository.expireBefore(LocalDate.now());
+    }
+
+    /**
+     * Tomar una solicitud en espera y cargarla (ya con el nuevo estado)
+     * @return null si la solicitud no existe o ya no estaba en espera
+     */
+    private WaitlistEntry claim(Long entryId, WaitlistStatus status) {
+        if (waitlistRepository.claimWaiting(entryId, status) == 0) {
+            return null;
+        }
+        return waitlistRepository.findById(entryId).orElse(null);
+    }
+
+    private void notify(WaitlistEntry entry, String message) {
+        Notification notification = new Notification();
+        notification.setUser(entry.getUser());
+        notification.setAppointment(entry.getAppointment());
+        notification.setMessage(message);
+        notification.setNotificationType(NotificationType.SYSTEM);
+        notification.setIsRead(false);
+        notification.setIsSent(true);
+        notificationService.save(notification);
+    }
+
+    private void validate(WaitlistRequest request) {
+        if (request.getDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("No se puede esperar un cupo en una fecha pasada");
+        }
+        if (!request.getWindowStart().isBefore(request.getWindowEnd())) {
+            throw new IllegalArgumentException("El inicio de la ventana debe ser anterior al fin");
+        }
+        if (MinuteIntervals.minutes(request.getWindowStart()) + request.getDurationMinutes()
+                > MinuteIntervals.minutes(request.getWindowEnd())) {
+            throw new IllegalArgumentException("La duración no cabe en la ventana indicada");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package uis.edu.co.appointments.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import uis.edu.co.appointments.dto.ScheduleSlotView;
+
+/**
+ * Foto inmutable del horario semanal activo de un operario.
+ * Las jornadas de cada día están ordenadas por hora de inicio.
+ */
+public final class WeeklySchedule {
+
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(new EnumMap<>(DayOfWeek.class), 0L);
+
+    private final Map<DayOfWeek, List<Shift>> shifts;
+    private final long loadedAt;
+
+    private WeeklySchedule(Map<DayOfWeek, List<Shift>> shifts, long loadedAt) {
+        this.shifts = shifts;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Construir la foto a partir de los horarios activos de un operario
+     */
+    public static WeeklySchedule of(Collection<? extends ScheduleSlotView> schedules, long loadedAt) {
+        Map<DayOfWeek, List<Shift>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (ScheduleSlotView schedule : schedules) {
+            byDay.computeIfAbsent(schedule.getDayOfWeek(), d -> new ArrayList<>())
+                 .add(new Shift(schedule.getStartTime(), schedule.getEndTime()));
+        }
+        byDay.replaceAll((day, list) -> {
+            list.sort(Comparator.comparing(Shift::start));
+            return Collections.unmodifiableList(list);
+        });
+        return new WeeklySchedule(Collections.unmodifiableMap(byDay), loadedAt);
+    }
+
+    /**
+     * Jornadas de un día (lista vacía si no trabaja)
+     */
+    public List<Shift> shifts(DayOfWeek day) {
+        return shifts.getOrDefault(day, List.of());
+    }
+
+    public boolean worksOn(DayOfWeek day) {
+        return !shifts(day).isEmpty();
+    }
+
+    /**
+     * ¿Está [start, end) completamente dentro de alguna jornada del día?
+     */
+    public boolean covers(DayOfWeek day, LocalTime start, LocalTime end) {
+        for (Shift shift : shifts(day)) {
+            if (shift.start().isAfter(start)) {
+                return false;
+            }
+            if (!end.isAfter(shift.end())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Jornada [start, end) de un día
+     */
+    public record Shift(LocalTime start, LocalTime end) {
+    }
+}
@@ -0,0 +1,26 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * Primer operario libre, en el orden del repositorio (comportamiento original)
+ */
+@Component
+public class FirstAvailableStrategy implements OperatorAssignmentStrategy {
+
+    @Override
+    public AssignmentStrategyType type() {
+        return AssignmentStrategyType.FIRST_AVAILABLE;
+    }
+
+    @Override
+    public User choose(Long categoryId, List<User> candidates, LocalDate date) {
+        return candidates.get(0);
+    }
+}
@@ -0,0 +1,45 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * Operario con menos minutos reservados en la fecha de la cita.
+ * En caso de empate se mantiene el orden del repositorio.
+ */
+@Component
+public class LeastLoadedStrategy implements OperatorAssignmentStrategy {
+
+    private final OperatorLoadTracker loadTracker;
+
+    public LeastLoadedStrategy(OperatorLoadTracker loadTracker) {
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    public AssignmentStrategyType type() {
+        return AssignmentStrategyType.LEAST_LOADED;
+    }
+
+    @Override
+    public User choose(Long categoryId, List<User> candidates, LocalDate date) {
+        Map<Long, Integer> load = loadTracker.bookedMinutes(date);
+
+        User best = null;
+        int bestMinutes = Integer.MAX_VALUE;
+        for (User candidate : candidates) {
+            int minutes = load.getOrDefault(candidate.getId(), 0);
+            if (minutes < bestMinutes) {
+                best = candidate;
+                bestMinutes = minutes;
+            }
+        }
+        return best;
+    }
+}
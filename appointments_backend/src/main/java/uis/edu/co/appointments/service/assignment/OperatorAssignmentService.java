@@ -0,0 +1,85 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.CategoryRepository;
+
+/**
+ * Elige el operario para una cita según la estrategia configurada en su categoría.
+ * La estrategia de cada categoría se guarda en caché y se invalida al modificar la categoría.
+ */
+@Service
+public class OperatorAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperatorAssignmentService.class);
+
+    private static final AssignmentStrategyType DEFAULT_STRATEGY = AssignmentStrategyType.LEAST_LOADED;
+
+    private final CategoryRepository categoryRepository;
+    private final Map<AssignmentStrategyType, OperatorAssignmentStrategy> strategies =
+        new EnumMap<>(AssignmentStrategyType.class);
+    private final Map<Long, AssignmentStrategyType> categoryStrategies = new ConcurrentHashMap<>();
+
+    public OperatorAssignmentService(CategoryRepository categoryRepository,
+                                     List<OperatorAssignmentStrategy> strategies) {
+        this.categoryRepository = categoryRepository;
+        for (OperatorAssignmentStrategy strategy : strategies) {
+            this.strategies.put(strategy.type(), strategy);
+        }
+    }
+
+    /**
+     * Elegir un operario entre los candidatos libres
+     * @return null si no hay candidatos
+     */
+    public User choose(Long categoryId, List<User> candidates, LocalDate date) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        AssignmentStrategyType type = strategyFor(categoryId);
+        OperatorAssignmentStrategy strategy = strategies.getOrDefault(type, strategies.get(DEFAULT_STRATEGY));
+        User operator = strategy.choose(categoryId, candidates, date);
+        logger.debug("Estrategia {} eligió al operario {} entre {} candidato(s)",
+                    type, operator.getId(), candidates.size());
+        return operator;
+    }
+
+    /**
+     * Estrategia configurada para una categoría
+     */
+    public AssignmentStrategyType strategyFor(Long categoryId) {
+        if (categoryId == null) {
+            return DEFAULT_STRATEGY;
+        }
+        return categoryStrategies.computeIfAbsent(categoryId, id ->
+            categoryRepository.findById(id)
+                .map(Category::getAssignmentStrategy)
+                .filter(type -> type != null)
+                .orElse(DEFAULT_STRATEGY)
+        );
+    }
+
+    /**
+     * Descartar la estrategia en caché de una categoría (al modificarla o eliminarla)
+     */
+    public void invalidate(Long categoryId) {
+        if (categoryId != null) {
+            categoryStrategies.remove(categoryId);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * Estrategia para elegir un operario entre los que están libres para una cita.
+ * Las implementaciones trabajan solo con datos en memoria (sin consultas a la BD).
+ */
+public interface OperatorAssignmentStrategy {
+
+    AssignmentStrategyType type();
+
+    /**
+     * Elegir un operario
+     * @param candidates - operarios libres para la franja solicitada (no vacía)
+     */
+    User choose(Long categoryId, List<User> candidates, LocalDate date);
+}
@@ -0,0 +1,164 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.events.AppointmentChangedEvent;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+/**
+ * Contadores en memoria de minutos reservados por operario y fecha.
+ *
+ * Una fecha se carga con una sola consulta (todas las citas activas del día) la primera
+ * vez que se pide y luego se mantiene con los eventos de reserva, edición y cancelación,
+ * de modo que las estrategias de asignación no consultan la BD.
+ */
+@Component
+public class OperatorLoadTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperatorLoadTracker.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlMillis;
+
+    private final Map<LocalDate, DayLoad> days = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDate> appointmentDays = new ConcurrentHashMap<>();
+
+    public OperatorLoadTracker(AppointmentRepository appointmentRepository,
+                               @Value("${availability.index.ttl-minutes:10}") long ttlMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlMillis = ttlMinutes * 60_000L;
+    }
+
+    /**
+     * Minutos reservados por operario en la fecha (vista de solo lectura)
+     */
+    public Map<Long, Integer> bookedMinutes(LocalDate date) {
+        return Collections.unmodifiableMap(dayLoad(date).minutesByOperator);
+    }
+
+    /**
+     * Minutos reservados de un operario en la fecha
+     */
+    public int bookedMinutes(Long operatorId, LocalDate date) {
+        return dayLoad(date).minutesByOperator.getOrDefault(operatorId, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Long appointmentId = event.getAppointmentId();
+        if (appointmentId == null) {
+            return;
+        }
+
+        LocalDate previousDate = appointmentDays.remove(appointmentId);
+        if (previousDate != null) {
+            DayLoad previous = days.get(previousDate);
+            if (previous != null) {
+                previous.remove(appointmentId);
+            }
+        }
+
+        if (!event.isActive() || event.getOperatorId() == null || event.getDate() == null) {
+            return;
+        }
+        DayLoad day = days.get(event.getDate());
+        if (day == null) {
+            // Fecha aún no cargada: se leerá desde la BD cuando se consulte
+            return;
+        }
+        day.put(appointmentId, event.getOperatorId(), minutes(event.getStartTime(), event.getEndTime()));
+        appointmentDays.put(appointmentId, event.getDate());
+    }
+
+    /**
+     * Tarea programada: descartar fechas pasadas (cada día a medianoche)
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+        appointmentDays.values().removeIf(date -> date.isBefore(today));
+    }
+
+    // ==================== CARGA DESDE BD ====================
+
+    private DayLoad dayLoad(LocalDate date) {
+        DayLoad day = days.get(date);
+        if (day != null && System.currentTimeMillis() - day.loadedAt <= ttlMillis) {
+            return day;
+        }
+        return load(date);
+    }
+
+    private DayLoad load(LocalDate date) {
+        DayLoad day = new DayLoad(System.currentTimeMillis());
+        for (AppointmentSlotView appointment : appointmentRepository.findActiveSlotsByDate(date)) {
+            day.put(appointment.getId(), appointment.getOperatorId(),
+                    minutes(appointment.getStartTime(), appointment.getEndTime()));
+        }
+
+        days.put(date, day);
+        day.appointmentIds().forEach(id -> appointmentDays.put(id, date));
+        logger.debug("Carga de operarios: {} cita(s) activas el {}", day.bookings.size(), date);
+        return day;
+    }
+
+    private static int minutes(LocalTime start, LocalTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            return 0;
+        }
+        return (int) Duration.between(start, end).toMinutes();
+    }
+
+    // ==================== ESTRUCTURAS INTERNAS ====================
+
+    private record Booking(Long operatorId, int minutes) {
+    }
+
+    /**
+     * Citas de una fecha y total de minutos por operario
+     */
+    private static final class DayLoad {
+        private final Map<Long, Booking> bookings = new HashMap<>();
+        private final Map<Long, Integer> minutesByOperator = new ConcurrentHashMap<>();
+        private final long loadedAt;
+
+        DayLoad(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void put(Long appointmentId, Long operatorId, int minutes) {
+            remove(appointmentId);
+            bookings.put(appointmentId, new Booking(operatorId, minutes));
+            minutesByOperator.merge(operatorId, minutes, Integer::sum);
+        }
+
+        synchronized void remove(Long appointmentId) {
+            Booking booking = bookings.remove(appointmentId);
+            if (booking != null) {
+                minutesByOperator.computeIfPresent(booking.operatorId(),
+                    (id, total) -> total - booking.minutes() > 0 ? total - booking.minutes() : null);
+            }
+        }
+
+        synchronized List<Long> appointmentIds() {
+            return new ArrayList<>(bookings.keySet());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * Selección aleatoria ponderada: pesa más la calificación promedio y menos
+ * los minutos ya reservados en el día, para no saturar a los mejor calificados.
+ */
+@Component
+public class RatingWeightedStrategy implements OperatorAssignmentStrategy {
+
+    // Peso para operarios sin calificaciones (escala 1 a 5)
+    private static final double DEFAULT_RATING = 3.0;
+
+    private final OperatorLoadTracker loadTracker;
+
+    public RatingWeightedStrategy(OperatorLoadTracker loadTracker) {
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    public AssignmentStrategyType type() {
+        return AssignmentStrategyType.RATING_WEIGHTED;
+    }
+
+    @Override
+    public User choose(Long categoryId, List<User> candidates, LocalDate date) {
+        Map<Long, Integer> load = loadTracker.bookedMinutes(date);
+
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            User candidate = candidates.get(i);
+            weights[i] = rating(candidate) / (1.0 + load.getOrDefault(candidate.getId(), 0) / 60.0);
+            total += weights[i];
+        }
+
+        double pick = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    private double rating(User operator) {
+        Integer totalRatings = operator.getTotalRatings();
+        Double average = operator.getAverageRating();
+        if (totalRatings == null || totalRatings == 0 || average == null || average <= 0) {
+            return DEFAULT_RATING;
+        }
+        return average;
+    }
+}
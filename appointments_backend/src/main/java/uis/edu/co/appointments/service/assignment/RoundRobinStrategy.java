@@ -0,0 +1,51 @@
+package uis.edu.co.appointments.service.assignment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * Turno rotativo por categoría: se elige el siguiente operario libre
+ * (por ID) después del último asignado, volviendo al inicio al final de la lista.
+ */
+@Component
+public class RoundRobinStrategy implements OperatorAssignmentStrategy {
+
+    private final Map<Long, Long> lastAssigned = new ConcurrentHashMap<>();
+
+    @Override
+    public AssignmentStrategyType type() {
+        return AssignmentStrategyType.ROUND_ROBIN;
+    }
+
+    @Override
+    public User choose(Long categoryId, List<User> candidates, LocalDate date) {
+        User[] chosen = new User[1];
+        lastAssigned.compute(categoryId, (id, last) -> {
+            chosen[0] = next(candidates, last);
+            return chosen[0].getId();
+        });
+        return chosen[0];
+    }
+
+    private User next(List<User> candidates, Long last) {
+        User lowest = null;
+        User following = null;
+        for (User candidate : candidates) {
+            Long id = candidate.getId();
+            if (lowest == null || id < lowest.getId()) {
+                lowest = candidate;
+            }
+            if (last != null && id > last && (following == null || id < following.getId())) {
+                following = candidate;
+            }
+        }
+        return following != null ? following : lowest;
+    }
+}
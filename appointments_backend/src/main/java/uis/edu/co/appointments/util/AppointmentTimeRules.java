@@ -0,0 +1,69 @@
+package uis.edu.co.appointments.util;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reglas de horario comunes a toda reserva (cita individual, lote y serie).
+ * Devuelven el mensaje de error o null, así el lote puede informar por cita y los servicios
+ * lanzan IllegalArgumentException con el mismo texto.
+ */
+public final class AppointmentTimeRules {
+
+    public static final int MIN_DURATION_MINUTES = 5;
+
+    private AppointmentTimeRules() {
+    }
+
+    /**
+     * Horas de inicio y fin: inicio antes del fin y duración mínima
+     */
+    public static String checkTimes(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return "startTime y endTime son obligatorios";
+        }
+        if (!start.isBefore(end)) {
+            return "La hora de inicio debe ser anterior a la hora de finalización";
+        }
+        if (Duration.between(start, end).toMinutes() < MIN_DURATION_MINUTES) {
+            return "La cita debe durar al menos " + MIN_DURATION_MINUTES + " minutos";
+        }
+        return null;
+    }
+
+    /**
+     * La cita no puede empezar antes de now (fecha pasada, u hoy a una hora que ya pasó)
+     */
+    public static String checkNotPast(LocalDate date, LocalTime start, LocalDateTime now) {
+        if (date != null && start != null && LocalDateTime.of(date, start).isBefore(now)) {
+            return "No se puede reservar en una fecha u hora pasada";
+        }
+        return null;
+    }
+
+    public static String checkNotPast(LocalDate date, LocalTime start) {
+        return checkNotPast(date, start, LocalDateTime.now());
+    }
+
+    /**
+     * Igual que checkTimes, lanzando IllegalArgumentException
+     */
+    public static void validateTimes(LocalTime start, LocalTime end) {
+        String error = checkTimes(start, end);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Igual que checkNotPast, lanzando IllegalArgumentException
+     */
+    public static void validateNotPast(LocalDate date, LocalTime start) {
+        String error = checkNotPast(date, start);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package uis.edu.co.appointments.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Árbol de intervalos inmutable sobre intervalos semiabiertos [inicio, fin).
+ *
+ * Los intervalos se ordenan por inicio y forman un árbol balanceado implícito sobre el arreglo
+ * (la raíz de cada rango es su elemento central); cada nodo guarda el fin máximo de su subárbol.
+ * Buscar los intervalos que se solapan con una consulta cuesta O(log n + k).
+ */
+public final class IntervalTree<T> {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+    private final List<T> values;
+
+    private IntervalTree(int[] starts, int[] ends, List<T> values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new int[starts.length];
+        buildMaxEnds(0, starts.length);
+    }
+
+    /**
+     * Construir el árbol a partir de los elementos y funciones que dan su inicio y fin
+     */
+    public static <T> IntervalTree<T> of(Collection<T> items, ToIntFunction<T> start, ToIntFunction<T> end) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(start));
+
+        int[] starts = new int[sorted.size()];
+        int[] ends = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            starts[i] = start.applyAsInt(sorted.get(i));
+            ends[i] = end.applyAsInt(sorted.get(i));
+        }
+        return new IntervalTree<>(starts, ends, List.copyOf(sorted));
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Elementos cuyo intervalo se solapa con [from, to)
+     */
+    public List<T> overlapping(int from, int to) {
+        List<T> result = new ArrayList<>();
+        if (from < to) {
+            collect(0, starts.length, from, to, result);
+        }
+        return result;
+    }
+
+    /**
+     * ¿Hay algún intervalo que se solape con [from, to)?
+     */
+    public boolean overlapsAny(int from, int to) {
+        return from < to && any(0, starts.length, from, to);
+    }
+
+    private int buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        int max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, int from, int to, List<T> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] <= from) {
+            return; // Ningún intervalo del subárbol termina después del inicio de la consulta
+        }
+        collect(lo, mid, from, to, result);
+        if (starts[mid] >= to) {
+            return; // Este nodo y todo su subárbol derecho empiezan después de la consulta
+        }
+        if (ends[mid] > from) {
+            result.add(values.get(mid));
+        }
+        collect(mid + 1, hi, from, to, result);
+    }
+
+    private boolean any(int lo, int hi, int from, int to) {
+        if (lo >= hi) {
+            return false;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] <= from) {
+            return false;
+        }
+        if (starts[mid] < to && ends[mid] > from) {
+            return true;
+        }
+        return any(lo, mid, from, to) || (starts[mid] < to && any(mid + 1, hi, from, to));
+    }
+}
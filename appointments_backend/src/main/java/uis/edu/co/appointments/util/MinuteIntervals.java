@@ -0,0 +1,83 @@
+package uis.edu.co.appointments.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Operaciones de barrido sobre intervalos [inicio, fin) en minutos desde medianoche
+ */
+public final class MinuteIntervals {
+
+    private MinuteIntervals() {
+    }
+
+    /**
+     * Ordenar y unir intervalos [inicio, fin) que se solapan o se tocan
+     */
+    public static List<int[]> merge(List<int[]> intervals) {
+        List<int[]> sorted = intervals.stream()
+            .filter(i -> i[0] < i[1])
+            .sorted(Comparator.comparingInt(i -> i[0]))
+            .collect(Collectors.toList());
+
+        List<int[]> merged = new ArrayList<>();
+        for (int[] interval : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(new int[] { interval[0], interval[1] });
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Restar intervalos ocupados (ordenados y unidos) a intervalos laborales (ordenados y unidos)
+     */
+    public static List<int[]> subtract(List<int[]> working, List<int[]> busy) {
+        List<int[]> free = new ArrayList<>();
+        int b = 0;
+        for (int[] shift : working) {
+            int cursor = shift[0];
+            while (b < busy.size() && busy.get(b)[1] <= cursor) {
+                b++;
+            }
+            int k = b;
+            while (k < busy.size() && busy.get(k)[0] < shift[1]) {
+                int[] occupied = busy.get(k);
+                if (occupied[0] > cursor) {
+                    free.add(new int[] { cursor, occupied[0] });
+                }
+                cursor = Math.max(cursor, occupied[1]);
+                k++;
+            }
+            if (cursor < shift[1]) {
+                free.add(new int[] { cursor, shift[1] });
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Suma de minutos de intervalos que no se solapan
+     */
+    public static int total(List<int[]> intervals) {
+        int total = 0;
+        for (int[] interval : intervals) {
+            total += interval[1] - interval[0];
+        }
+        return total;
+    }
+
+    public static int minutes(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    public static LocalTime time(int minutes) {
+        return LocalTime.MIN.plusMinutes(minutes);
+    }
+}
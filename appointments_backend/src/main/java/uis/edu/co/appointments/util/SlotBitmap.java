@@ -0,0 +1,124 @@
+package uis.edu.co.appointments.util;
+
+import java.time.LocalTime;
+
+/**
+ * Operaciones sobre mapas de bits de franjas de 5 minutos de un día.
+ * Cada día tiene 288 franjas que caben en 5 palabras de 64 bits,
+ * de modo que las comprobaciones se hacen con AND a nivel de palabra.
+ */
+public final class SlotBitmap {
+
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int WORDS = (SLOTS_PER_DAY + 63) / 64;
+
+    private SlotBitmap() {
+    }
+
+    public static long[] empty() {
+        return new long[WORDS];
+    }
+
+    /**
+     * Franja que contiene la hora indicada (redondeo hacia abajo)
+     */
+    public static int floorSlot(LocalTime time) {
+        return (time.toSecondOfDay() / 60) / SLOT_MINUTES;
+    }
+
+    /**
+     * Primera franja que empieza en o después de la hora indicada (redondeo hacia arriba)
+     */
+    public static int ceilSlot(LocalTime time) {
+        int minutes = time.toSecondOfDay() / 60;
+        if (time.toSecondOfDay() % 60 != 0) {
+            minutes++;
+        }
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    /**
+     * Hora de inicio de una franja
+     */
+    public static LocalTime timeOf(int slot) {
+        return LocalTime.MIN.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /**
+     * Marcar las franjas [from, to)
+     */
+    public static void setRange(long[] bits, int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(SLOTS_PER_DAY, to);
+        for (int slot = from; slot < to; slot++) {
+            bits[slot >>> 6] |= 1L << (slot & 63);
+        }
+    }
+
+    /**
+     * Máscara con las franjas [from, to) marcadas
+     */
+    public static long[] range(int from, int to) {
+        long[] bits = empty();
+        setRange(bits, from, to);
+        return bits;
+    }
+
+    /**
+     * Franjas que ocupa un intervalo [start, end): se redondea hacia fuera
+     */
+    public static long[] covering(LocalTime start, LocalTime end) {
+        return range(floorSlot(start), ceilSlot(end));
+    }
+
+    /**
+     * Franjas completas dentro de un intervalo [start, end): se redondea hacia dentro
+     */
+    public static long[] within(LocalTime start, LocalTime end) {
+        return range(ceilSlot(start), floorSlot(end));
+    }
+
+    public static void or(long[] target, long[] other) {
+        for (int i = 0; i < WORDS; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    public static long[] andNot(long[] bits, long[] other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = bits[i] & ~other[i];
+        }
+        return result;
+    }
+
+    /**
+     * ¿Están marcadas en bits todas las franjas de la máscara?
+     */
+    public static boolean containsAll(long[] bits, long[] mask) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((bits[i] & mask[i]) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,171 @@
+package uis.edu.co.appointments.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para vencer claves en O(1), con niveles
+ * opcionales para plazos lejanos (horas o días).
+ *
+ * El nivel 0 tiene wheelSize casillas de un tick; cada nivel superior tiene wheelSize casillas
+ * que abarcan una vuelta completa del nivel inferior. Una clave se guarda en el nivel más bajo
+ * cuyo rango alcanza su plazo; cuando el nivel inferior da la vuelta, la casilla actual del
+ * superior se redistribuye hacia abajo. Así cada tick solo toca una casilla del nivel 0 (más
+ * una cascada ocasional) sin importar cuántas claves lejanas haya. Las claves que superan el
+ * rango del nivel más alto esperan aparte y se redistribuyen en cada vuelta de ese nivel; con
+ * un solo nivel es la rueda simple, para plazos que casi siempre caben en una vuelta.
+ *
+ * Las claves vencen en el primer tick en o después de su plazo (a lo sumo un tick tarde,
+ * nunca antes). Programar o cancelar no recorre la rueda. Thread-safe (métodos sincronizados).
+ */
+public final class TimerWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<List<Map<K, Long>>> levels;
+    private final Map<K, Long> overflow = new HashMap<>();
+    private final Map<K, Map<K, Long>> location = new HashMap<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        this(tickMillis, wheelSize, 1, nowMillis);
+    }
+
+    public TimerWheel(long tickMillis, int wheelSize, int levelCount, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount <= 0) {
+            throw new IllegalArgumentException("tickMillis, wheelSize y levelCount no son válidos");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        this.levels = new ArrayList<>(levelCount);
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            List<Map<K, Long>> slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new HashMap<>());
+            }
+            levels.add(slots);
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Programar (o reprogramar) el vencimiento de una clave
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        place(key, deadlineMillis, currentTick + 1);
+    }
+
+    /**
+     * Cancelar el vencimiento de una clave (sin efecto si no estaba programada)
+     */
+    public synchronized boolean cancel(K key) {
+        Map<K, Long> slot = location.remove(key);
+        return slot != null && slot.remove(key) != null;
+    }
+
+    public synchronized boolean contains(K key) {
+        return location.containsKey(key);
+    }
+
+    /**
+     * Avanzar la rueda hasta nowMillis y devolver las claves vencidas
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        if (targetTick - currentTick > wheelSize) {
+            // Pausa larga: más barato redistribuir todo que recorrer tick a tick
+            Map<K, Long> all = new HashMap<>();
+            for (Map.Entry<K, Map<K, Long>> entry : location.entrySet()) {
+                all.put(entry.getKey(), entry.getValue().get(entry.getKey()));
+            }
+            clear();
+            currentTick = targetTick;
+            all.forEach((key, deadline) -> {
+                if (deadline <= nowMillis) {
+                    expired.add(key);
+                } else {
+                    place(key, deadline, currentTick + 1);
+                }
+            });
+            return expired;
+        }
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascada de arriba abajo: las claves de la casilla que empieza ahora bajan de nivel
+            if (currentTick % (spans[levels.size() - 1] * wheelSize) == 0) {
+                redistribute(overflow);
+            }
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                if (currentTick % spans[level] == 0) {
+                    redistribute(levels.get(level).get(slotIndex(currentTick, level)));
+                }
+            }
+            Map<K, Long> slot = levels.get(0).get(slotIndex(currentTick, 0));
+            for (K key : slot.keySet()) {
+                location.remove(key);
+                expired.add(key);
+            }
+            slot.clear();
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return location.size();
+    }
+
+    /**
+     * Guardar la clave en el primer tick en o después del plazo, y nunca antes de minTick
+     * (al programar: el siguiente tick; en una cascada: el tick en curso, que aún no venció)
+     */
+    private void place(K key, long deadlineMillis, long minTick) {
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, minTick);
+        Map<K, Long> slot = overflow;
+        for (int level = 0; level < levels.size(); level++) {
+            if (tick / spans[level] - currentTick / spans[level] < wheelSize) {
+                slot = levels.get(level).get(slotIndex(tick, level));
+                break;
+            }
+        }
+        slot.put(key, deadlineMillis);
+        location.put(key, slot);
+    }
+
+    private void redistribute(Map<K, Long> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        Map<K, Long> entries = new HashMap<>(slot);
+        slot.clear();
+        entries.forEach((key, deadline) -> {
+            location.remove(key);
+            place(key, deadline, currentTick);
+        });
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / spans[level]) % wheelSize);
+    }
+
+    private void clear() {
+        for (List<Map<K, Long>> slots : levels) {
+            slots.forEach(Map::clear);
+        }
+        overflow.clear();
+        location.clear();
+    }
+}
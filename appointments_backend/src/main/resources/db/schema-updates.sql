@@ -0,0 +1,183 @@
+-- =====================================================================
+-- Cambios de esquema (PostgreSQL)
+-- spring.jpa.hibernate.ddl-auto=none: estos scripts se aplican manualmente
+-- en orden, sobre la base de datos existente.
+-- =====================================================================
+
+-- ---------------------------------------------------------------------
+-- Disponibilidad de operarios en una sola consulta
+-- (UserRepository.findAvailableOperators)
+-- ---------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_operator_categories_category
+    ON operator_categories (category_id, operator_id);
+
+CREATE INDEX IF NOT EXISTS idx_operator_schedules_operator_day
+    ON operator_schedules (operator_id, day_of_week, start_time, end_time)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_appointments_operator_date
+    ON appointments (operator_id, date, start_time, end_time)
+    WHERE deleted = false;
+
+-- ---------------------------------------------------------------------
+-- Estrategia de asignación automática de operarios por categoría
+-- (FIRST_AVAILABLE, LEAST_LOADED, ROUND_ROBIN, RATING_WEIGHTED)
+-- ---------------------------------------------------------------------
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS assignment_strategy VARCHAR(30) NOT NULL DEFAULT 'LEAST_LOADED';
+
+-- ---------------------------------------------------------------------
+-- (Opcional) Garantía de no solapamiento a nivel de BD
+-- Las reservas ya se serializan con pg_try_advisory_xact_lock por (operario, fecha);
+-- esta restricción rechaza además solapamientos escritos por fuera de la aplicación.
+-- Requiere que no existan solapamientos previos.
+-- ---------------------------------------------------------------------
+-- CREATE EXTENSION IF NOT EXISTS btree_gist;
+-- ALTER TABLE appointments
+--     ADD CONSTRAINT appointments_operator_no_overlap
+--     EXCLUDE USING gist (
+--         operator_id WITH =,
+--         tsrange(date + start_time, date + end_time) WITH &&
+--     )
+--     WHERE (deleted = false AND status NOT IN ('CANCELLED', 'FAILED'));
+
+-- ---------------------------------------------------------------------
+-- Series de citas recurrentes (AppointmentSeries)
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS appointment_series (
+    id           BIGSERIAL PRIMARY KEY,
+    user_id      BIGINT NOT NULL REFERENCES users (id),
+    category_id  BIGINT REFERENCES categories (id),
+    title        VARCHAR(200) NOT NULL,
+    description  VARCHAR(255),
+    frequency    VARCHAR(20) NOT NULL,
+    start_date   DATE NOT NULL,
+    occurrences  INTEGER NOT NULL,
+    start_time   TIME NOT NULL,
+    end_time     TIME NOT NULL,
+    created_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE appointments
+    ADD COLUMN IF NOT EXISTS series_id BIGINT REFERENCES appointment_series (id);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_series
+    ON appointments (series_id)
+    WHERE series_id IS NOT NULL;
+
+-- ---------------------------------------------------------------------
+-- Lista de espera (WaitlistEntry)
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS appointment_waitlist (
+    id                  BIGSERIAL PRIMARY KEY,
+    user_id             BIGINT NOT NULL REFERENCES users (id),
+    category_id         BIGINT NOT NULL REFERENCES categories (id),
+    title               VARCHAR(200) NOT NULL,
+    description         VARCHAR(255),
+    appointment_date    DATE NOT NULL,
+    window_start        TIME NOT NULL,
+    window_end          TIME NOT NULL,
+    duration_minutes    INTEGER NOT NULL,
+    auto_book           BOOLEAN NOT NULL DEFAULT TRUE,
+    status              VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    matched_start_time  TIME,
+    matched_end_time    TIME,
+    appointment_id      BIGINT REFERENCES appointments (id),
+    created_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Búsqueda del lote de solicitudes en espera por categoría y fecha
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting
+    ON appointment_waitlist (category_id, appointment_date, created_at)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_waitlist_user
+    ON appointment_waitlist (user_id, created_at DESC);
+
+-- ---------------------------------------------------------------------
+-- Disponibilidad materializada de los próximos N días (MaterializedAvailabilityService)
+-- Intervalos libres en minutos desde medianoche; la PK empieza por (category_id, slot_date)
+-- para que operarios disponibles y franjas libres sean barridos de rango sobre la PK
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS availability_slots (
+    category_id   BIGINT NOT NULL,
+    slot_date     DATE NOT NULL,
+    operator_id   BIGINT NOT NULL,
+    start_minute  SMALLINT NOT NULL,
+    end_minute    SMALLINT NOT NULL,
+    PRIMARY KEY (category_id, slot_date, operator_id, start_minute)
+);
+
+-- Recalculo incremental por día de operario
+CREATE INDEX IF NOT EXISTS idx_availability_slots_operator_day
+    ON availability_slots (operator_id, slot_date);
+
+-- ---------------------------------------------------------------------
+-- Bandeja de salida de correos (EmailService / EmailOutboxDispatcher)
+-- Los correos se insertan en la transacción que los origina y se envían en segundo plano
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id               BIGSERIAL PRIMARY KEY,
+    recipient        VARCHAR(255) NOT NULL,
+    subject          VARCHAR(255) NOT NULL,
+    template_name    VARCHAR(100) NOT NULL,
+    variables        TEXT NOT NULL,
+    status           VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts         INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error       VARCHAR(500),
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at          TIMESTAMP
+);
+
+-- Reclamo de correos vencidos: solo los que siguen en cola
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON email_outbox (next_attempt_at, id)
+    WHERE status IN ('PENDING', 'SENDING');
+
+-- ---------------------------------------------------------------------
+-- Retención de notificaciones leídas (NotificationRetentionService)
+-- Los lotes de purga buscan solo entre las leídas, por tipo y antigüedad
+-- ---------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_notifications_read_type_created
+    ON notifications (type, created_at)
+    WHERE is_read = true;
+
+-- ---------------------------------------------------------------------
+-- Bandeja de notificaciones paginada por cursor (GET /api/notifications/me/inbox)
+-- Cada página es un recorrido corto del índice a partir de (created_at, id)
+-- ---------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications (user_id, created_at DESC, id DESC);
+
+-- Variante solo no leídas
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread_created
+    ON notifications (user_id, created_at DESC, id DESC)
+    WHERE is_read = false;
+
+-- ---------------------------------------------------------------------
+-- Recordatorios idempotentes (NotificationService.scheduleReminders)
+-- Un recordatorio por cita y tipo; los INSERT usan ON CONFLICT DO NOTHING
+-- ---------------------------------------------------------------------
+-- Quitar duplicados previos (se conserva el más antiguo)
+DELETE FROM notifications n
+USING notifications d
+WHERE n.type IN ('REMINDER_DAY', 'REMINDER_HOUR')
+  AND d.type = n.type
+  AND d.appointment_id = n.appointment_id
+  AND d.id < n.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notifications_appointment_reminder
+    ON notifications (appointment_id, type)
+    WHERE type IN ('REMINDER_DAY', 'REMINDER_HOUR');
+
+-- ---------------------------------------------------------------------
+-- Resumen de citas pendientes de completar (NotificationSchedulerService)
+-- Solo las citas abiertas sin completar: el índice no crece con el historial
+-- ---------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_appointments_pending_completion
+    ON appointments (operator_id, date DESC, end_time DESC)
+    WHERE completed_by_operator = false
+      AND deleted = false
+      AND status IN ('SCHEDULED', 'IN_PROGRESS');
@@ -0,0 +1,119 @@
+package uis.edu.co.appointments.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import uis.edu.co.appointments.service.EmailTemplateRenderer;
+
+/**
+ * Renderizado de un correo de cita con EmailTemplateRenderer y las plantillas reales.
+ *
+ * renderSteadyState: costo por correo con la caché de plantillas de Thymeleaf activa o no.
+ * firstRenderAfterStartup: primer correo en una JVM nueva (un fork por medida), con o sin el
+ * precalentamiento de ApplicationReadyEvent; el tiempo de warmUp() no se cuenta.
+ */
+public class EmailTemplateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SteadyState {
+
+        @Param({ "true", "false" })
+        public boolean cacheable;
+
+        EmailTemplateRenderer renderer;
+        Map<String, Object> variables;
+
+        @Setup
+        public void setUp() {
+            renderer = renderer(cacheable);
+            variables = appointmentVariables(renderer);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FirstRender {
+
+        @Param({ "false", "true" })
+        public boolean warmedUp;
+
+        EmailTemplateRenderer renderer;
+        Map<String, Object> variables;
+
+        @Setup
+        public void setUp() {
+            renderer = renderer(true);
+            variables = appointmentVariables(renderer);
+            if (warmedUp) {
+                renderer.warmUp();
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String renderSteadyState(SteadyState state) {
+        return state.renderer.render(EmailTemplateRenderer.APPOINTMENT_NOTIFICATION, state.variables);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public String firstRenderAfterStartup(FirstRender state) {
+        return state.renderer.render(EmailTemplateRenderer.APPOINTMENT_NOTIFICATION, state.variables);
+    }
+
+    /**
+     * Motor configurado como el de Spring Boot: plantillas HTML en classpath:templates/
+     */
+    private static EmailTemplateRenderer renderer(boolean cacheable) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cacheable);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return new EmailTemplateRenderer(engine);
+    }
+
+    private static Map<String, Object> appointmentVariables(EmailTemplateRenderer renderer) {
+        EmailTemplateRenderer.HeaderStyle header = renderer.headerFor("reminder");
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nombre", "Laura Gómez");
+        variables.put("titulo", "Recordatorio de cita");
+        variables.put("tituloEmoji", header.emoji());
+        variables.put("headerColor", header.color());
+        variables.put("mensajePrincipal", "Tu cita es mañana, no olvides asistir.");
+        variables.put("tituloCita", "Asesoría de matrícula");
+        variables.put("fecha", "07/01/2030");
+        variables.put("hora", "09:00 - 10:00");
+        variables.put("observacion", "Traer documento de identidad");
+        variables.put("operatorName", "Carlos Pérez");
+        return variables;
+    }
+}
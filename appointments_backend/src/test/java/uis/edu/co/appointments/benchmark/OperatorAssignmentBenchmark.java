@@ -0,0 +1,133 @@
+package uis.edu.co.appointments.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.models.AssignmentStrategyType;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.service.assignment.FirstAvailableStrategy;
+import uis.edu.co.appointments.service.assignment.LeastLoadedStrategy;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+import uis.edu.co.appointments.service.assignment.OperatorLoadTracker;
+import uis.edu.co.appointments.service.assignment.RatingWeightedStrategy;
+import uis.edu.co.appointments.service.assignment.RoundRobinStrategy;
+
+/**
+ * Costo de elegir el operario de una cita automática con cada estrategia, con la carga del
+ * día ya en memoria (OperatorLoadTracker) y la estrategia de la categoría en caché.
+ * FIRST_AVAILABLE es el comportamiento anterior y sirve de referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorAssignmentBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Param({ "FIRST_AVAILABLE", "LEAST_LOADED", "ROUND_ROBIN", "RATING_WEIGHTED" })
+    public AssignmentStrategyType strategy;
+
+    @Param({ "5", "50" })
+    public int candidateCount;
+
+    private OperatorAssignmentService assignmentService;
+    private List<User> candidates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        candidates = new ArrayList<>();
+        List<AppointmentSlotView> slots = new ArrayList<>();
+        for (long id = 1; id <= candidateCount; id++) {
+            User operator = new User();
+            operator.setId(id);
+            operator.setAverageRating(1 + random.nextDouble() * 4);
+            operator.setTotalRatings(random.nextInt(20));
+            candidates.add(operator);
+            for (int i = 0; i < random.nextInt(6); i++) {
+                slots.add(slot(id * 100 + i, id, LocalTime.of(8 + i, 0), LocalTime.of(9 + i, 0)));
+            }
+        }
+
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findActiveSlotsByDate(any())).thenReturn(slots);
+        OperatorLoadTracker loadTracker = new OperatorLoadTracker(appointmentRepository, 60);
+
+        Category category = new Category();
+        category.setAssignmentStrategy(strategy);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findById(anyLong())).thenReturn(Optional.of(category));
+
+        assignmentService = new OperatorAssignmentService(categoryRepository, List.of(
+            new FirstAvailableStrategy(),
+            new LeastLoadedStrategy(loadTracker),
+            new RoundRobinStrategy(),
+            new RatingWeightedStrategy(loadTracker)
+        ));
+        // Cargar el día y la estrategia antes de medir
+        assignmentService.choose(1L, candidates, DATE);
+    }
+
+    @Benchmark
+    public User choose() {
+        return assignmentService.choose(1L, candidates, DATE);
+    }
+
+    private static AppointmentSlotView slot(Long id, Long operatorId, LocalTime start, LocalTime end) {
+        return new AppointmentSlotView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOperatorId() {
+                return operatorId;
+            }
+
+            @Override
+            public LocalDate getAppointmentDate() {
+                return DATE;
+            }
+
+            @Override
+            public LocalTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,214 @@
+package uis.edu.co.appointments.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import uis.edu.co.appointments.dto.NotificationPage;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.Notification;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.service.NotificationService;
+import uis.edu.co.appointments.service.UnreadNotificationCounter;
+
+/**
+ * insertReminders y la bandeja por cursor contra un PostgreSQL embebido: H2 no admite ON CONFLICT
+ * con índice parcial, RETURNING ni la comparación de filas (created_at, id) < (?, ?), que son
+ * justamente lo que hay que probar. La tabla tiene solo las columnas que usa el repositorio y el
+ * índice único parcial de db/schema-updates.sql.
+ */
+class NotificationJdbcRepositoryTest {
+
+    private static final String REMINDER_DAY = "REMINDER_DAY";
+    private static final String REMINDER_HOUR = "REMINDER_HOUR";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private NotificationJdbcRepository repository;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute(
+            "CREATE TABLE notifications (" +
+            "  id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL, appointment_id BIGINT, message TEXT," +
+            "  is_read BOOLEAN, type VARCHAR(50), metadata TEXT, scheduled_for TIMESTAMP," +
+            "  is_sent BOOLEAN, created_at TIMESTAMP)");
+        jdbcTemplate.execute(
+            "CREATE UNIQUE INDEX uq_notifications_appointment_reminder" +
+            "  ON notifications (appointment_id, type)" +
+            "  WHERE type IN ('REMINDER_DAY', 'REMINDER_HOUR')");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE notifications RESTART IDENTITY");
+        repository = new NotificationJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    void secondInsertOnlyReturnsTheRemindersThatWereMissing() {
+        List<Notification> first = repository.insertReminders(List.of(
+            reminder(1L, REMINDER_DAY), reminder(1L, REMINDER_HOUR), reminder(2L, REMINDER_DAY)));
+
+        assertThat(first)
+            .extracting(n -> n.getAppointment().getId(), Notification::getType)
+            .containsExactly(tuple(1L, REMINDER_DAY), tuple(1L, REMINDER_HOUR), tuple(2L, REMINDER_DAY));
+        assertThat(first).allSatisfy(n -> assertThat(n.getId()).isNotNull());
+
+        // Misma cita y tipo otra vez (como al reprogramar), más un recordatorio nuevo
+        List<Notification> second = repository.insertReminders(List.of(
+            reminder(1L, REMINDER_DAY), reminder(1L, REMINDER_HOUR), reminder(2L, REMINDER_DAY),
+            reminder(2L, REMINDER_HOUR)));
+
+        assertThat(second)
+            .extracting(n -> n.getAppointment().getId(), Notification::getType)
+            .containsExactly(tuple(2L, REMINDER_HOUR));
+        assertThat(rowsPerReminder()).hasSize(4).allSatisfy((key, rows) -> assertThat(rows).isEqualTo(1L));
+    }
+
+    @Test
+    void returnedIdsAreTheIdsOfTheInsertedRows() {
+        List<Notification> inserted = repository.insertReminders(List.of(
+            reminder(7L, REMINDER_DAY), reminder(8L, REMINDER_HOUR)));
+
+        for (Notification notification : inserted) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT appointment_id, type FROM notifications WHERE id = ?", notification.getId());
+            assertThat(row).containsEntry("appointment_id", notification.getAppointment().getId())
+                .containsEntry("type", notification.getType());
+        }
+    }
+
+    @Test
+    void duplicatesWithinOneCallAreInsertedOnce() {
+        Notification kept = reminder(3L, REMINDER_DAY);
+        List<Notification> inserted = repository.insertReminders(List.of(kept, reminder(3L, REMINDER_DAY)));
+
+        assertThat(inserted).containsExactly(kept);
+        assertThat(rowsPerReminder()).containsExactly(Map.entry("3:" + REMINDER_DAY, 1L));
+    }
+
+    @Test
+    void concurrentInsertsOfTheSameRemindersInsertEachOnlyOnce() throws Exception {
+        int threads = 8;
+        int appointments = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Notification>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            // Cada hilo con sus propios objetos, como ediciones simultáneas de las mismas citas
+            Callable<List<Notification>> insert = () -> {
+                List<Notification> reminders = new ArrayList<>();
+                for (long id = 1; id <= appointments; id++) {
+                    reminders.add(reminder(id, REMINDER_DAY));
+                    reminders.add(reminder(id, REMINDER_HOUR));
+                }
+                start.await();
+                return repository.insertReminders(reminders);
+            };
+            results.add(executor.submit(insert));
+        }
+        start.countDown();
+
+        List<Long> returnedIds = new ArrayList<>();
+        for (Future<List<Notification>> result : results) {
+            result.get().forEach(n -> returnedIds.add(n.getId()));
+        }
+        executor.shutdown();
+
+        // Entre todos los hilos se devuelve cada fila insertada una sola vez
+        assertThat(returnedIds).hasSize(appointments * 2).doesNotHaveDuplicates()
+            .containsExactlyInAnyOrderElementsOf(jdbcTemplate.queryForList("SELECT id FROM notifications", Long.class));
+        assertThat(rowsPerReminder()).hasSize(appointments * 2)
+            .allSatisfy((key, rows) -> assertThat(rows).isEqualTo(1L));
+    }
+
+    @Test
+    void inboxPagesDoNotSkipOrRepeatRowsCreatedAtTheSameInstant() {
+        // Cinco filas con el mismo created_at (como un lote) y dos más antiguas
+        LocalDateTime sameInstant = LocalDateTime.of(2030, 1, 7, 9, 0, 0, 500_000_000);
+        for (int i = 0; i < 5; i++) {
+            insertInboxRow(10L, sameInstant);
+        }
+        insertInboxRow(10L, sameInstant.minusMinutes(1));
+        insertInboxRow(10L, sameInstant.minusMinutes(2));
+        insertInboxRow(11L, sameInstant);
+        NotificationService notificationService = new NotificationService(mock(NotificationRepository.class),
+            repository, mock(ApplicationEventPublisher.class), mock(UnreadNotificationCounter.class));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            NotificationPage page = notificationService.findInboxPage(10L, cursor, false, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Mismo created_at: desempata el id, de mayor a menor
+        assertThat(seen).containsExactly(5L, 4L, 3L, 2L, 1L, 6L, 7L);
+    }
+
+    private static void insertInboxRow(Long userId, LocalDateTime createdAt) {
+        jdbcTemplate.update(
+            "INSERT INTO notifications (user_id, message, is_read, type, is_sent, created_at) " +
+            "VALUES (?, 'Aviso', false, 'SYSTEM', true, ?)",
+            userId, Timestamp.valueOf(createdAt));
+    }
+
+    private static Map<String, Long> rowsPerReminder() {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT appointment_id, type, COUNT(*) AS n FROM notifications " +
+            "GROUP BY appointment_id, type ORDER BY appointment_id, type",
+            (RowCallbackHandler) rs ->
+                rows.put(rs.getLong("appointment_id") + ":" + rs.getString("type"), rs.getLong("n")));
+        return rows;
+    }
+
+    private static Notification reminder(Long appointmentId, String type) {
+        User user = new User();
+        user.setId(10L);
+        Appointment appointment = new Appointment();
+        appointment.setId(appointmentId);
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setAppointment(appointment);
+        notification.setType(type);
+        notification.setMessage("Recordatorio de la cita " + appointmentId);
+        notification.setIsRead(false);
+        notification.setIsSent(false);
+        notification.setScheduledFor(LocalDateTime.of(2030, 1, 7, 8, 0));
+        return notification;
+    }
+}
@@ -0,0 +1,236 @@
+package uis.edu.co.appointments.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import jakarta.persistence.EntityManagerFactory;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.AppointmentStatus;
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.OperatorSchedule;
+import uis.edu.co.appointments.models.Role;
+import uis.edu.co.appointments.models.User;
+
+/**
+ * findAvailableOperators contra una BD en memoria (H2 en modo PostgreSQL), contando las
+ * sentencias con las estadísticas de Hibernate
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.datasource.url=jdbc:h2:mem:appointments;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryTest {
+
+    // Lunes
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+    private static final LocalTime START = LocalTime.of(9, 0);
+    private static final LocalTime END = LocalTime.of(10, 0);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private OperatorScheduleRepository scheduleRepository;
+
+    private Role operatorRole;
+    private Role userRole;
+    private Category category;
+    private Category otherCategory;
+    private User client;
+
+    @BeforeEach
+    void setUp() {
+        operatorRole = em.persist(role("OPERARIO"));
+        userRole = em.persist(role("USUARIO"));
+        category = em.persist(category("Asesoría"));
+        otherCategory = em.persist(category("Soporte"));
+        client = em.persist(user("cliente", userRole, true));
+    }
+
+    @Test
+    void returnsTheSameOperatorsAsThePerOperatorLoopInOneStatement() {
+        User free = operator("libre", category, true);
+        shift(free, DayOfWeek.MONDAY, 8, 12, true);
+
+        User busy = operator("ocupado", category, true);
+        shift(busy, DayOfWeek.MONDAY, 8, 12, true);
+        appointment(busy, LocalTime.of(9, 30), LocalTime.of(10, 30), AppointmentStatus.SCHEDULED, false);
+
+        User cancelled = operator("cancelada", category, true);
+        shift(cancelled, DayOfWeek.MONDAY, 8, 12, true);
+        appointment(cancelled, START, END, AppointmentStatus.CANCELLED, false);
+
+        User deleted = operator("eliminada", category, true);
+        shift(deleted, DayOfWeek.MONDAY, 8, 12, true);
+        appointment(deleted, START, END, AppointmentStatus.SCHEDULED, true);
+
+        User touching = operator("contigua", category, true);
+        shift(touching, DayOfWeek.MONDAY, 8, 12, true);
+        appointment(touching, LocalTime.of(8, 0), START, AppointmentStatus.SCHEDULED, false);
+        appointment(touching, END, LocalTime.of(11, 0), AppointmentStatus.SCHEDULED, false);
+
+        User otherDay = operator("martes", category, true);
+        shift(otherDay, DayOfWeek.TUESDAY, 8, 12, true);
+
+        User lateShift = operator("tarde", category, true);
+        shift(lateShift, DayOfWeek.MONDAY, 10, 12, true);
+
+        User splitShift = operator("partida", category, true);
+        shift(splitShift, DayOfWeek.MONDAY, 7, 9, true);
+        shift(splitShift, DayOfWeek.MONDAY, 9, 12, true);
+
+        User inactiveShift = operator("jornada-inactiva", category, true);
+        shift(inactiveShift, DayOfWeek.MONDAY, 8, 12, false);
+
+        User otherCategoryOperator = operator("otra-categoria", otherCategory, true);
+        shift(otherCategoryOperator, DayOfWeek.MONDAY, 8, 12, true);
+
+        User inactive = operator("inactivo", category, true);
+        inactive.setActive(false);
+        shift(inactive, DayOfWeek.MONDAY, 8, 12, true);
+
+        User notOperator = operator("usuario", category, false);
+        shift(notOperator, DayOfWeek.MONDAY, 8, 12, true);
+
+        em.flush();
+        em.clear();
+
+        List<Long> expected = perOperatorLoop(category.getId()).stream().map(User::getId).toList();
+        em.clear();
+
+        Statistics statistics = statistics();
+        List<User> available = userRepository.findAvailableOperators(
+            category.getId(), DATE, DATE.getDayOfWeek(), START, END);
+        available.forEach(u -> u.getRole().getName());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(available).extracting(User::getId)
+            .containsExactlyElementsOf(expected)
+            .containsExactly(free.getId(), cancelled.getId(), deleted.getId(), touching.getId(), splitShift.getId());
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfOperators() {
+        for (int i = 0; i < 25; i++) {
+            User operator = operator("operario" + i, category, true);
+            shift(operator, DayOfWeek.MONDAY, 8, 12, true);
+            if (i % 3 == 0) {
+                appointment(operator, START, END, AppointmentStatus.SCHEDULED, false);
+            }
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = statistics();
+        List<User> available = userRepository.findAvailableOperators(
+            category.getId(), DATE, DATE.getDayOfWeek(), START, END);
+
+        assertThat(available).hasSize(16);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Búsqueda anterior: operarios de la categoría y, por cada uno, su jornada y sus solapamientos
+     */
+    private List<User> perOperatorLoop(Long categoryId) {
+        List<User> available = new ArrayList<>();
+        for (User operator : userRepository.findActiveOperatorsByCategory(categoryId)) {
+            List<OperatorSchedule> shifts = scheduleRepository.findByOperatorAndDay(operator.getId(), DATE.getDayOfWeek());
+            boolean withinSchedule = shifts.stream()
+                .anyMatch(s -> !START.isBefore(s.getStartTime()) && !END.isAfter(s.getEndTime()));
+            if (withinSchedule
+                    && appointmentRepository.countOverlappingAppointments(operator.getId(), DATE, START, END) == 0) {
+                available.add(operator);
+            }
+        }
+        available.sort((a, b) -> a.getId().compareTo(b.getId()));
+        return available;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User operator(String name, Category handled, boolean isOperator) {
+        User operator = user(name, isOperator ? operatorRole : userRole, true);
+        operator.getOperatorCategories().add(handled);
+        return em.persist(operator);
+    }
+
+    private void shift(User operator, DayOfWeek day, int fromHour, int toHour, boolean active) {
+        OperatorSchedule schedule = new OperatorSchedule();
+        schedule.setOperator(operator);
+        schedule.setDayOfWeek(day);
+        schedule.setStartTime(LocalTime.of(fromHour, 0));
+        schedule.setEndTime(LocalTime.of(toHour, 0));
+        schedule.setActive(active);
+        em.persist(schedule);
+    }
+
+    private void appointment(User operator, LocalTime start, LocalTime end, AppointmentStatus status, boolean deleted) {
+        Appointment appointment = new Appointment();
+        appointment.setUser(client);
+        appointment.setOperator(operator);
+        appointment.setCategory(category);
+        appointment.setTitle("Cita");
+        appointment.setDate(DATE);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        appointment.setStatus(status);
+        appointment.setDeleted(deleted);
+        em.persist(appointment);
+    }
+
+    private static Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        return role;
+    }
+
+    private static Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return category;
+    }
+
+    private static User user(String name, Role role, boolean active) {
+        User user = new User();
+        user.setFullName(name);
+        user.setEmail(name + "@test.com");
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        user.setActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package uis.edu.co.appointments.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import uis.edu.co.appointments.models.Category;
+import uis.edu.co.appointments.models.Role;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.models.WaitlistStatus;
+
+/**
+ * Transiciones condicionales de la lista de espera contra una BD en memoria (H2 en modo PostgreSQL)
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:waitlist;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WaitlistRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("USUARIO");
+        em.persist(role);
+
+        user = new User();
+        user.setFullName("usuario");
+        user.setEmail("usuario@test.com");
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        user.setActive(true);
+        em.persist(user);
+
+        category = new Category();
+        category.setName("Asesoría");
+        em.persist(category);
+    }
+
+    @Test
+    void onlyTheFirstClaimTakesAWaitingEntry() {
+        Long id = entry(WaitlistStatus.WAITING);
+
+        assertThat(waitlistRepository.claimWaiting(id, WaitlistStatus.BOOKED)).isEqualTo(1);
+        // Una segunda pasada (reserva u oferta) ya no la encuentra en espera
+        assertThat(waitlistRepository.claimWaiting(id, WaitlistStatus.OFFERED)).isZero();
+
+        em.clear();
+        assertThat(waitlistRepository.findById(id)).get()
+            .extracting(WaitlistEntry::getStatus).isEqualTo(WaitlistStatus.BOOKED);
+    }
+
+    @Test
+    void claimIgnoresEntriesThatAreNoLongerWaiting() {
+        for (WaitlistStatus status : new WaitlistStatus[] {
+                WaitlistStatus.OFFERED, WaitlistStatus.BOOKED, WaitlistStatus.CANCELLED, WaitlistStatus.EXPIRED }) {
+            assertThat(waitlistRepository.claimWaiting(entry(status), WaitlistStatus.BOOKED)).as("%s", status).isZero();
+        }
+        assertThat(waitlistRepository.claimWaiting(-1L, WaitlistStatus.BOOKED)).isZero();
+    }
+
+    @Test
+    void cancelOnlyTouchesActiveEntries() {
+        Long waiting = entry(WaitlistStatus.WAITING);
+        Long offered = entry(WaitlistStatus.OFFERED);
+        Long booked = entry(WaitlistStatus.BOOKED);
+
+        assertThat(waitlistRepository.cancelIfActive(waiting)).isEqualTo(1);
+        assertThat(waitlistRepository.cancelIfActive(offered)).isEqualTo(1);
+        assertThat(waitlistRepository.cancelIfActive(booked)).isZero();
+
+        assertThat(waitlistRepository.findById(booked)).get()
+            .extracting(WaitlistEntry::getStatus).isEqualTo(WaitlistStatus.BOOKED);
+        assertThat(waitlistRepository.findById(offered)).get()
+            .extracting(WaitlistEntry::getStatus).isEqualTo(WaitlistStatus.CANCELLED);
+    }
+
+    private Long entry(WaitlistStatus status) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setCategory(category);
+        entry.setTitle("Cita");
+        entry.setDate(LocalDate.of(2030, 1, 7));
+        entry.setWindowStart(LocalTime.of(8, 0));
+        entry.setWindowEnd(LocalTime.of(12, 0));
+        entry.setDurationMinutes(30);
+        entry.setStatus(status);
+        Long id = em.persistAndFlush(entry).getId();
+        em.clear();
+        return id;
+    }
+}
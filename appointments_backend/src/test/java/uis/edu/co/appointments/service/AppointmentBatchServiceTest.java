@@ -0,0 +1,61 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import uis.edu.co.appointments.dto.BatchAppointmentResult;
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentJdbcRepository;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+
+class AppointmentBatchServiceTest {
+
+    @Test
+    void rejectsAppointmentsShorterThanTheSingleBookingMinimum() {
+        User user = new User();
+        user.setId(1L);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        AppointmentJdbcRepository jdbcRepository = mock(AppointmentJdbcRepository.class);
+
+        AppointmentBatchService batchService = new AppointmentBatchService(userRepository,
+            mock(CategoryRepository.class), mock(OperatorScheduleService.class), mock(AppointmentRepository.class),
+            jdbcRepository, mock(BookingLockService.class), mock(SlotHoldRegistry.class),
+            mock(OperatorAssignmentService.class), mock(ApplicationEventPublisher.class), 200);
+
+        List<BatchAppointmentResult> results = batchService.createAll(List.of(
+            appointment(user, LocalTime.of(9, 0), LocalTime.of(9, 1)),
+            appointment(user, LocalTime.of(23, 58), LocalTime.of(23, 59))));
+
+        assertThat(results).extracting(BatchAppointmentResult::getStatus)
+            .containsOnly(BatchAppointmentResult.INVALID);
+        assertThat(results).extracting(BatchAppointmentResult::getMessage)
+            .containsOnly("La cita debe durar al menos 5 minutos");
+        // Nada llega a insertarse
+        verify(jdbcRepository).insertAll(List.of());
+    }
+
+    private static Appointment appointment(User user, LocalTime start, LocalTime end) {
+        Appointment appointment = new Appointment();
+        appointment.setUser(user);
+        appointment.setTitle("Cita");
+        appointment.setDate(LocalDate.now().plusDays(7));
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        return appointment;
+    }
+}
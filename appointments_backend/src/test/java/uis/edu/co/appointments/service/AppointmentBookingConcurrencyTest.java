@@ -0,0 +1,193 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.Role;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.RoleRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+
+/**
+ * Reservas simultáneas contra una BD en memoria (H2 en modo PostgreSQL): cientos de intentos
+ * sobre los mismos operarios y horarios pasan por AppointmentService.save (bloqueo de agenda,
+ * validateAppointment y AppointmentConflictDetector) en transacciones reales, y al final la
+ * tabla no puede tener dos citas solapadas del mismo operario.
+ *
+ * H2 no tiene pg_try_advisory_xact_lock, así que el advisory lock queda desactivado: en un solo
+ * proceso la exclusión la dan los locks en memoria de BookingLockService, que se sueltan
+ * después del commit igual que el advisory lock.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:booking;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Cada intento abre y confirma su propia transacción, como una petición real
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentBookingConcurrencyTest {
+
+    private static final int ATTEMPTS = 300;
+    private static final int THREADS = 16;
+    private static final int OPERATORS = 2;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentService appointmentService;
+    private User client;
+    private List<User> operators;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("OPERARIO");
+        role = roleRepository.save(role);
+        client = userRepository.save(user("cliente", role));
+        operators = new ArrayList<>();
+        for (int i = 0; i < OPERATORS; i++) {
+            operators.add(userRepository.save(user("operario" + i, role)));
+        }
+
+        UserService userService = mock(UserService.class);
+        when(userService.findById(anyLong())).thenAnswer(inv -> userRepository.findById(inv.getArgument(0)));
+        OperatorScheduleService scheduleService = mock(OperatorScheduleService.class);
+        when(scheduleService.isOperatorWorkingOn(anyLong(), any())).thenReturn(true);
+        when(scheduleService.isWithinOperatorSchedule(anyLong(), any(), any(), any())).thenReturn(true);
+        OperatorAvailabilityIndex availabilityIndex = mock(OperatorAvailabilityIndex.class);
+
+        appointmentService = new AppointmentService(appointmentRepository, mock(NotificationService.class),
+            mock(NotificationSchedulerService.class), mock(EmailService.class), userService, scheduleService,
+            availabilityIndex, mock(ApplicationEventPublisher.class), mock(OperatorAssignmentService.class),
+            new BookingLockService(appointmentRepository, 256, 10, false),
+            new AppointmentConflictDetector(appointmentRepository, 10),
+            new SlotHoldRegistry(availabilityIndex, 5), mock(MaterializedAvailabilityService.class));
+    }
+
+    @Test
+    void concurrentBookingsNeverLeaveOverlappingAppointments() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(7);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            // Pocos horarios posibles (8:00 a 11:45 cada 15 min, de 15 a 60 min) para forzar choques
+            Long operatorId = operators.get(random.nextInt(OPERATORS)).getId();
+            LocalTime startTime = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(16));
+            LocalTime endTime = startTime.plusMinutes(15L * (1 + random.nextInt(4)));
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    transaction.executeWithoutResult(status ->
+                        appointmentService.save(appointment(operatorId, date, startTime, endTime)));
+                    booked.incrementAndGet();
+                } catch (AppointmentConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked.get() + conflicts.get()).isEqualTo(ATTEMPTS);
+        assertThat(booked.get()).isPositive();
+        assertThat(conflicts.get()).isPositive();
+
+        List<Appointment> rows = appointmentRepository.findAll();
+        assertThat(rows).hasSize(booked.get());
+
+        Map<Long, List<Appointment>> byOperator = rows.stream()
+            .collect(Collectors.groupingBy(a -> a.getOperator().getId()));
+        for (List<Appointment> day : byOperator.values()) {
+            day.sort(Comparator.comparing(Appointment::getStartTime));
+            for (int i = 1; i < day.size(); i++) {
+                Appointment previous = day.get(i - 1);
+                Appointment next = day.get(i);
+                assertThat(previous.getEndTime())
+                    .as("cita %d solapada con %d", previous.getId(), next.getId())
+                    .isBeforeOrEqualTo(next.getStartTime());
+            }
+        }
+    }
+
+    private Appointment appointment(Long operatorId, LocalDate date, LocalTime start, LocalTime end) {
+        User user = new User();
+        user.setId(client.getId());
+        User operator = new User();
+        operator.setId(operatorId);
+
+        Appointment appointment = new Appointment();
+        appointment.setUser(user);
+        appointment.setOperator(operator);
+        appointment.setTitle("Cita");
+        appointment.setDate(date);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        // La duración se calcula a partir de las horas
+        appointment.setDurationMinutes(null);
+        return appointment;
+    }
+
+    private static User user(String name, Role role) {
+        User user = new User();
+        user.setFullName(name);
+        user.setEmail(name + "@test.com");
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,98 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import uis.edu.co.appointments.dto.AppointmentConflictDTO;
+import uis.edu.co.appointments.dto.AppointmentSlotView;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+class AppointmentConflictDetectorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    private AppointmentConflictDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findActiveSlotsByOperatorsAndDate(anyCollection(), any())).thenReturn(List.of(
+            slot(17L, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+            slot(18L, LocalTime.of(10, 0), LocalTime.of(11, 0))
+        ));
+        detector = new AppointmentConflictDetector(appointmentRepository, 10);
+    }
+
+    @Test
+    void returnsTheOverlappingRanges() {
+        List<AppointmentConflictDTO> conflicts = detector.findConflictsForBooking(
+            2L, DATE, LocalTime.of(9, 30), LocalTime.of(10, 30), null);
+
+        assertThat(conflicts)
+            .extracting(AppointmentConflictDTO::getDate, AppointmentConflictDTO::getStartTime, AppointmentConflictDTO::getEndTime)
+            .containsExactlyInAnyOrder(
+                tuple(DATE, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                tuple(DATE, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    }
+
+    @Test
+    void excludesTheAppointmentBeingEdited() {
+        List<AppointmentConflictDTO> conflicts = detector.findConflicts(
+            2L, DATE, LocalTime.of(9, 30), LocalTime.of(10, 30), 17L);
+
+        assertThat(conflicts).extracting(AppointmentConflictDTO::getStartTime).containsExactly(LocalTime.of(10, 0));
+    }
+
+    @Test
+    void responseDoesNotExposeOtherAppointments() throws Exception {
+        List<AppointmentConflictDTO> conflicts = detector.findConflicts(
+            2L, DATE, LocalTime.of(9, 0), LocalTime.of(9, 30), null);
+
+        String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(conflicts.get(0));
+
+        assertThat(json).doesNotContain("appointmentId", "operatorId", "17");
+    }
+
+    private static AppointmentSlotView slot(Long id, LocalTime start, LocalTime end) {
+        return new AppointmentSlotView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOperatorId() {
+                return 2L;
+            }
+
+            @Override
+            public LocalDate getAppointmentDate() {
+                return DATE;
+            }
+
+            @Override
+            public LocalTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import uis.edu.co.appointments.dto.RecurringAppointmentRequest;
+import uis.edu.co.appointments.repository.AppointmentJdbcRepository;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.AppointmentSeriesRepository;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.service.assignment.OperatorAssignmentService;
+
+class AppointmentSeriesServiceTest {
+
+    private UserRepository userRepository;
+    private AppointmentJdbcRepository appointmentJdbcRepository;
+    private AppointmentSeriesService seriesService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        appointmentJdbcRepository = mock(AppointmentJdbcRepository.class);
+        seriesService = new AppointmentSeriesService(userRepository, mock(CategoryRepository.class),
+            mock(OperatorScheduleService.class), mock(AppointmentRepository.class),
+            mock(AppointmentSeriesRepository.class), appointmentJdbcRepository,
+            mock(NotificationJdbcRepository.class), mock(NotificationService.class),
+            mock(NotificationSchedulerService.class), mock(BookingLockService.class),
+            mock(SlotHoldRegistry.class), mock(OperatorAssignmentService.class),
+            mock(ApplicationEventPublisher.class), 52);
+    }
+
+    @Test
+    void rejectsOccurrencesShorterThanTheMinimum() {
+        RecurringAppointmentRequest request = request(LocalDate.now().plusDays(7), LocalTime.of(9, 0), LocalTime.of(9, 1));
+
+        assertThatThrownBy(() -> seriesService.createSeries(request, 1L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("La cita debe durar al menos 5 minutos");
+        verifyNoInteractions(userRepository, appointmentJdbcRepository);
+    }
+
+    @Test
+    void rejectsAFirstOccurrenceWhoseTimeAlreadyPassedToday() {
+        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
+        // Cerca de medianoche "hace una hora" cae en el día anterior, que también debe rechazarse
+        LocalTime start = oneHourAgo.toLocalTime().withSecond(0).withNano(0);
+        RecurringAppointmentRequest request = request(oneHourAgo.toLocalDate(), start, start.plusMinutes(10));
+
+        assertThatThrownBy(() -> seriesService.createSeries(request, 1L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("No se puede reservar en una fecha u hora pasada");
+        verifyNoInteractions(userRepository, appointmentJdbcRepository);
+    }
+
+    private static RecurringAppointmentRequest request(LocalDate startDate, LocalTime start, LocalTime end) {
+        RecurringAppointmentRequest request = new RecurringAppointmentRequest();
+        request.setCategoryId(1L);
+        request.setTitle("Tutoría");
+        request.setStartDate(startDate);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setFrequency("WEEKLY");
+        request.setOccurrences(4);
+        return request;
+    }
+}
@@ -0,0 +1,201 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.service.BookingLockService.BookingKey;
+
+class BookingLockServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private AppointmentRepository appointmentRepository;
+    private BookingLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.tryAcquireBookingLock(anyInt(), anyInt())).thenReturn(true);
+        lockService = new BookingLockService(appointmentRepository, 256, 1, true);
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameAgendaNeverOverlap() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 20;
+        List<int[]> booked = new ArrayList<>(); // [inicio, fin) en minutos, protegido por el lock
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int from = random.nextInt(32) * 15;
+                    int to = from + 30;
+                    inTransaction(() -> {
+                        lockService.lock(7L, DATE);
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        try {
+                            // Validar y "guardar" como lo hace AppointmentService dentro del lock
+                            boolean overlaps = booked.stream().anyMatch(b -> b[0] < to && from < b[1]);
+                            Thread.yield();
+                            if (overlaps) {
+                                rejected.incrementAndGet();
+                            } else {
+                                booked.add(new int[] {from, to});
+                            }
+                        } finally {
+                            inside.decrementAndGet();
+                        }
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(booked.size() + rejected.get()).isEqualTo(threads * attemptsPerThread);
+        for (int i = 0; i < booked.size(); i++) {
+            for (int j = i + 1; j < booked.size(); j++) {
+                int[] a = booked.get(i);
+                int[] b = booked.get(j);
+                assertThat(a[0] < b[1] && b[0] < a[1]).as("solapamiento %d y %d", i, j).isFalse();
+            }
+        }
+        verify(appointmentRepository, times(threads * attemptsPerThread))
+            .tryAcquireBookingLock(7, (int) DATE.toEpochDay());
+    }
+
+    @Test
+    void waitingForABusyAgendaTimesOut() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            lockService.lock(7L, DATE);
+            held.countDown();
+            await(release);
+        }));
+        held.await();
+
+        long started = System.nanoTime();
+        assertThrows(IllegalArgumentException.class, () -> inTransaction(() -> lockService.lock(7L, DATE)));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(900);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        inTransaction(() -> lockService.lock(7L, DATE));
+    }
+
+    @Test
+    void stripeIsReleasedAfterRollback() throws Exception {
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            lockService.lock(7L, DATE);
+            throw new IllegalStateException("fallo al guardar");
+        }));
+
+        // Otro hilo (el lock es reentrante para el mismo hilo) toma la agenda sin esperar
+        long started = System.nanoTime();
+        CompletableFuture.runAsync(() -> inTransaction(() -> lockService.lock(7L, DATE)))
+            .get(5, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(900);
+    }
+
+    @Test
+    void advisoryLocksAreTakenOnceInSortedOrder() {
+        LocalDate next = DATE.plusDays(1);
+        inTransaction(() -> lockService.lockAll(List.of(
+            new BookingKey(3L, next), new BookingKey(1L, next),
+            new BookingKey(3L, DATE), new BookingKey(1L, DATE), new BookingKey(1L, DATE))));
+
+        InOrder order = inOrder(appointmentRepository);
+        order.verify(appointmentRepository).tryAcquireBookingLock(1, (int) DATE.toEpochDay());
+        order.verify(appointmentRepository).tryAcquireBookingLock(1, (int) next.toEpochDay());
+        order.verify(appointmentRepository).tryAcquireBookingLock(3, (int) DATE.toEpochDay());
+        order.verify(appointmentRepository).tryAcquireBookingLock(3, (int) next.toEpochDay());
+        verify(appointmentRepository, times(4)).tryAcquireBookingLock(anyInt(), anyInt());
+    }
+
+    @Test
+    void busyAdvisoryLockTimesOutAndReleasesTheStripe() throws Exception {
+        when(appointmentRepository.tryAcquireBookingLock(anyInt(), anyInt())).thenReturn(false);
+
+        long started = System.nanoTime();
+        assertThrows(IllegalArgumentException.class, () -> inTransaction(() -> lockService.lock(7L, DATE)));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isBetween(900L, 5000L);
+        verify(appointmentRepository, atLeast(2)).tryAcquireBookingLock(anyInt(), anyInt());
+
+        when(appointmentRepository.tryAcquireBookingLock(anyInt(), anyInt())).thenReturn(true);
+        CompletableFuture.runAsync(() -> inTransaction(() -> lockService.lock(7L, DATE)))
+            .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockingRequiresATransaction() {
+        assertThrows(IllegalStateException.class, () -> lockService.lock(7L, DATE));
+    }
+
+    /**
+     * Ejecutar body como una transacción: afterCompletion con el estado final, como en Spring
+     */
+    private static void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        int status = TransactionSynchronization.STATUS_COMMITTED;
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            status = TransactionSynchronization.STATUS_ROLLED_BACK;
+            throw e;
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            for (TransactionSynchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository.OutboxEmail;
+
+class EmailOutboxDispatcherTest {
+
+    private static final long BACKOFF_BASE_MS = 30_000;
+    private static final long BACKOFF_MAX_MS = 600_000;
+    private static final int MAX_ATTEMPTS = 6;
+
+    private EmailOutboxJdbcRepository outboxRepository;
+    private EmailService emailService;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outboxRepository = mock(EmailOutboxJdbcRepository.class);
+        emailService = mock(EmailService.class);
+        when(emailService.render(anyString(), anyString(), anyString(), anyMap())).thenAnswer(inv -> mock(MimeMessage.class));
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void failedSendIsRetriedWithExponentialBackoff() {
+        dispatcher = dispatcher(1, 10);
+        failEverySend();
+
+        // Intentos 1, 3 y 5: base, base * 4 y base * 16 (480 s, dentro del tope de 600 s)
+        assertThat(retryDelayMs(1)).isEqualTo(BACKOFF_BASE_MS);
+        assertThat(retryDelayMs(3)).isEqualTo(BACKOFF_BASE_MS * 4);
+        assertThat(retryDelayMs(5)).isEqualTo(BACKOFF_BASE_MS * 16);
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() {
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, emailService, new ObjectMapper(),
+            1, 10, 50, 20, 100, BACKOFF_BASE_MS, BACKOFF_MAX_MS);
+        failEverySend();
+
+        // base * 2^7 superaría el tope; con 60 intentos el exponente también queda acotado
+        assertThat(retryDelayMs(8)).isEqualTo(BACKOFF_MAX_MS);
+        assertThat(retryDelayMs(60)).isEqualTo(BACKOFF_MAX_MS);
+    }
+
+    @Test
+    void emailIsDeadLetteredAfterMaxAttempts() {
+        dispatcher = dispatcher(1, 10);
+        failEverySend();
+        claimOnce(email(1L, MAX_ATTEMPTS));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository, timeout(2_000)).markFailed(eq(1L), eq("SMTP rechazado"));
+        verify(outboxRepository, never()).markRetry(anyLong(), any(), anyString());
+        assertThat(dispatcher.getStats().getDeadLettered()).isEqualTo(1);
+        assertThat(dispatcher.getStats().getFailedAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void emailBelowMaxAttemptsIsNotDeadLettered() {
+        dispatcher = dispatcher(1, 10);
+        failEverySend();
+        claimOnce(email(1L, MAX_ATTEMPTS - 1));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository, timeout(2_000)).markRetry(eq(1L), any(), eq("SMTP rechazado"));
+        verify(outboxRepository, never()).markFailed(anyLong(), anyString());
+        assertThat(dispatcher.getStats().getDeadLettered()).isZero();
+    }
+
+    @Test
+    void fullQueueStopsClaimingUntilASendFinishes() throws Exception {
+        int capacity = 3;
+        dispatcher = dispatcher(1, capacity);
+
+        // Cada envío espera a que el test lo libere, así los correos reclamados siguen en vuelo
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        when(emailService.sendAll(anyList())).thenAnswer(inv -> {
+            started.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        // Cinco correos vencidos en la tabla
+        int pending = 5;
+        AtomicInteger nextId = new AtomicInteger();
+        List<Integer> limits = new ArrayList<>();
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenAnswer(inv -> {
+            int limit = inv.getArgument(2);
+            limits.add(limit);
+            List<OutboxEmail> batch = new ArrayList<>();
+            while (batch.size() < limit && nextId.get() < pending) {
+                batch.add(email((long) nextId.incrementAndGet(), 1));
+            }
+            return batch;
+        });
+
+        dispatcher.dispatchPending();
+
+        // Se reclama solo lo que cabe en la cola y el resto queda en la tabla
+        assertThat(limits).containsExactly(capacity);
+        assertThat(dispatcher.getStats().getQueueDepth()).isEqualTo(capacity);
+
+        // Con la cola llena, otra vuelta no toca la tabla
+        dispatcher.dispatchPending();
+        verify(outboxRepository, after(200).times(1)).claimDue(any(), any(), anyInt());
+        assertThat(dispatcher.getStats().getQueueDepth()).isEqualTo(capacity);
+        assertThat(started.get()).isEqualTo(1);
+
+        // Al terminar los envíos la cola se vacía y se vuelve a reclamar
+        release.countDown();
+        verify(outboxRepository, timeout(2_000).times(pending)).markSent(anyList());
+        assertThat(limits.size()).isGreaterThanOrEqualTo(2);
+        assertThat(dispatcher.getStats().getSent()).isEqualTo(pending);
+        assertThat(dispatcher.getStats().getQueueDepth()).isZero();
+    }
+
+    /**
+     * Reclamar un correo con los intentos dados, dejar que falle y medir la espera programada
+     * desde el momento en que se reprograma
+     */
+    private long retryDelayMs(int attempts) {
+        long id = attempts;
+        Map<Long, Long> delays = new ConcurrentHashMap<>();
+        doAnswer(inv -> {
+            LocalDateTime nextAttempt = inv.getArgument(1);
+            delays.put(inv.getArgument(0), ChronoUnit.MILLIS.between(LocalDateTime.now(), nextAttempt));
+            return null;
+        }).when(outboxRepository).markRetry(eq(id), any(), anyString());
+        claimOnce(email(id, attempts));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository, timeout(2_000)).markRetry(eq(id), any(), anyString());
+        // Redondear a segundos: entre el cálculo y la llamada pasan unos milisegundos
+        return Math.round(delays.get(id) / 1000.0) * 1000;
+    }
+
+    private void failEverySend() {
+        when(emailService.sendAll(anyList())).thenAnswer(inv -> {
+            List<MimeMessage> messages = inv.getArgument(0);
+            Map<Integer, Exception> failures = new HashMap<>();
+            for (int i = 0; i < messages.size(); i++) {
+                failures.put(i, new MessagingException("SMTP rechazado"));
+            }
+            return failures;
+        });
+    }
+
+    private void claimOnce(OutboxEmail email) {
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(email), List.of());
+    }
+
+    private EmailOutboxDispatcher dispatcher(int workers, int queueCapacity) {
+        return new EmailOutboxDispatcher(outboxRepository, emailService, new ObjectMapper(),
+            workers, queueCapacity, 50, 1, MAX_ATTEMPTS, BACKOFF_BASE_MS, BACKOFF_MAX_MS);
+    }
+
+    private static OutboxEmail email(Long id, int attempts) {
+        return new OutboxEmail(id, "user" + id + "@test.com", "Asunto", "appointment-notification", "{}", attempts);
+    }
+}
@@ -0,0 +1,228 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository;
+import uis.edu.co.appointments.repository.EmailOutboxJdbcRepository.OutboxEmail;
+
+/**
+ * Rendimiento de la bandeja de salida de punta a punta: EmailOutboxDispatcher reclama los
+ * correos, EmailService los renderiza con las plantillas reales y los envía con
+ * JavaMailSenderImpl a un servidor SMTP local dentro del proceso.
+ */
+class EmailOutboxThroughputTest {
+
+    private static final int MESSAGES = 400;
+    private static final int WORKERS = 4;
+    private static final int CHUNK_SIZE = 20;
+
+    private SmtpStub smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new SmtpStub();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        smtp.close();
+    }
+
+    @Test
+    void deliversTheBacklogThroughPooledSmtpSessions() throws Exception {
+        EmailOutboxJdbcRepository outboxRepository = mock(EmailOutboxJdbcRepository.class);
+        List<OutboxEmail> pending = new ArrayList<>();
+        String variables = new ObjectMapper().writeValueAsString(Map.of(
+            "nombre", "Laura", "titulo", "Recordatorio", "tituloEmoji", "⏰", "headerColor", "#3b82f6",
+            "mensajePrincipal", "Tu cita es mañana", "tituloCita", "Asesoría", "fecha", "07/01/2030",
+            "hora", "09:00 - 10:00", "observacion", "-", "operatorName", "Carlos"));
+        for (long id = 1; id <= MESSAGES; id++) {
+            pending.add(new OutboxEmail(id, "user" + id + "@test.com", "Recordatorio",
+                EmailTemplateRenderer.APPOINTMENT_NOTIFICATION, variables, 1));
+        }
+        AtomicInteger claimed = new AtomicInteger();
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenAnswer(inv -> {
+            int limit = inv.getArgument(2);
+            synchronized (pending) {
+                int from = Math.min(claimed.get(), pending.size());
+                int to = Math.min(from + limit, pending.size());
+                claimed.set(to);
+                return new ArrayList<>(pending.subList(from, to));
+            }
+        });
+        AtomicInteger marked = new AtomicInteger();
+        doAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            marked.addAndGet(ids.size());
+            return null;
+        }).when(outboxRepository).markSent(anyList());
+
+        // Plantillas precalentadas como al arrancar (ApplicationReadyEvent)
+        EmailTemplateRenderer renderer = renderer();
+        renderer.warmUp();
+        EmailService emailService = new EmailService(mailSender(), renderer, outboxRepository,
+            mock(ApplicationEventPublisher.class), new ObjectMapper());
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, emailService, new ObjectMapper(),
+            WORKERS, 200, 50, CHUNK_SIZE, 6, 30_000, 3_600_000);
+
+        long started = System.nanoTime();
+        dispatcher.dispatchPending();
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (marked.get() < MESSAGES && System.currentTimeMillis() < deadline) {
+            // La cola acotada se rellena al terminar cada envío; el sondeo periódico no corre aquí
+            dispatcher.dispatchPending();
+            Thread.sleep(5);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double perSecond = MESSAGES / seconds;
+
+        System.out.printf("Bandeja de salida: %d correos en %.2f s (%.0f correos/s, %d sesiones SMTP)%n",
+            MESSAGES, seconds, perSecond, smtp.sessions.get());
+
+        assertThat(marked.get()).isEqualTo(MESSAGES);
+        assertThat(smtp.messages.get()).isEqualTo(MESSAGES);
+        assertThat(dispatcher.getStats().getSent()).isEqualTo(MESSAGES);
+        // Una sesión SMTP por bloque, no por correo (los bloques pueden salir más cortos cuando
+        // la cola se rellena de a pocos)
+        assertThat(smtp.sessions.get()).isLessThan(MESSAGES / 5);
+        // Cota holgada para no depender de la máquina: un servidor local sin latencia supera esto de sobra
+        assertThat(perSecond).isGreaterThan(50);
+    }
+
+    private JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.port());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.from", "citas@test.com");
+        properties.put("mail.smtp.timeout", "5000");
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+
+    private static EmailTemplateRenderer renderer() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return new EmailTemplateRenderer(engine);
+    }
+
+    /**
+     * Servidor SMTP mínimo: acepta cualquier remitente y destinatario y descarta el contenido
+     */
+    private static final class SmtpStub implements AutoCloseable {
+
+        final AtomicInteger sessions = new AtomicInteger();
+        final AtomicInteger messages = new AtomicInteger();
+
+        private final ServerSocket server;
+        private final ExecutorService connections = Executors.newCachedThreadPool();
+
+        SmtpStub() throws IOException {
+            server = new ServerSocket(0);
+            connections.execute(this::acceptLoop);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    // Respuestas de una línea: sin Nagle para no sumar la espera del ACK diferido
+                    socket.setTcpNoDelay(true);
+                    sessions.incrementAndGet();
+                    connections.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost SMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "DATA" -> {
+                            reply(out, "354 fin con <CRLF>.<CRLF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // contenido descartado
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 adiós");
+                            return;
+                        }
+                        default -> reply(out, "250 OK"); // MAIL, RCPT, RSET, NOOP
+                    }
+                }
+            } catch (SocketException e) {
+                // Cliente cerró la conexión
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            connections.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uis.edu.co.appointments.dto.FreeSlotDTO;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+/**
+ * Generación de franjas a partir de los intervalos libres de cada operario (leídos de la
+ * tabla materializada, que aquí se llena a mano)
+ */
+class FreeSlotServiceTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    private final Map<Long, Map<LocalDate, List<int[]>>> free = new HashMap<>();
+    private final List<SlotHoldRegistry.SlotHold> holds = new ArrayList<>();
+
+    private FreeSlotService freeSlotService;
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = mock(UserService.class);
+        when(userService.getOperatorsByCategory(anyLong())).thenReturn(List.of(operator(1L), operator(2L)));
+        MaterializedAvailabilityService materialized = mock(MaterializedAvailabilityService.class);
+        when(materialized.covers(any(), any())).thenReturn(true);
+        when(materialized.findFreeIntervals(anyLong(), any(), any())).thenReturn(free);
+        SlotHoldRegistry holdRegistry = mock(SlotHoldRegistry.class);
+        when(holdRegistry.findByOperatorsAndDateRange(anyList(), any(), any())).thenReturn(holds);
+
+        freeSlotService = new FreeSlotService(userService, mock(OperatorScheduleService.class),
+            mock(AppointmentRepository.class), holdRegistry, materialized);
+    }
+
+    @Test
+    void startTimesAreAlignedToTheStepFromMidnight() {
+        // 8:05 a 10:00: la primera hora múltiplo de 15 es 8:15 y la última que cabe es 9:30
+        freeInterval(1L, DATE, 485, 600);
+
+        List<FreeSlotDTO> slots = freeSlotService.findFreeSlots(1L, DATE, DATE, 30, 15);
+
+        assertThat(slots).extracting(FreeSlotDTO::getStartTime).containsExactly(
+            LocalTime.of(8, 15), LocalTime.of(8, 30), LocalTime.of(8, 45),
+            LocalTime.of(9, 0), LocalTime.of(9, 15), LocalTime.of(9, 30));
+        assertThat(slots.get(slots.size() - 1).getEndTime()).isEqualTo(LocalTime.of(10, 0));
+    }
+
+    @Test
+    void heldTimeIsSubtractedOnlyForTheOperatorThatHoldsIt() {
+        freeInterval(1L, DATE, 480, 600);
+        freeInterval(2L, DATE, 480, 600);
+        holds.add(new SlotHoldRegistry.SlotHold("h1", 9L, 1L, 1L, DATE,
+            LocalTime.of(9, 0), LocalTime.of(9, 30), LocalDateTime.now().plusMinutes(5)));
+
+        List<FreeSlotDTO> slots = freeSlotService.findFreeSlots(1L, DATE, DATE, 30, 30);
+
+        assertThat(slots)
+            .extracting(FreeSlotDTO::getStartTime, s -> s.getOperators().stream().map(FreeSlotDTO.OperatorInfo::getId).toList())
+            .containsExactly(
+                tuple(LocalTime.of(8, 0), List.of(1L, 2L)),
+                tuple(LocalTime.of(8, 30), List.of(1L, 2L)),
+                tuple(LocalTime.of(9, 0), List.of(2L)),
+                tuple(LocalTime.of(9, 30), List.of(1L, 2L)));
+    }
+
+    @Test
+    void startTimesAlreadyPastAreSkipped() {
+        LocalDate today = LocalDate.now();
+        freeInterval(1L, today, 0, 1_440);
+        freeInterval(1L, today.plusDays(1), 0, 60);
+
+        LocalDateTime before = LocalDateTime.now();
+        List<FreeSlotDTO> slots = freeSlotService.findFreeSlots(1L, today, today.plusDays(1), 30, 30);
+
+        List<LocalDateTime> starts = slots.stream().map(s -> s.getDate().atTime(s.getStartTime())).toList();
+        assertThat(starts).allSatisfy(start -> assertThat(start).isAfterOrEqualTo(before));
+        // La primera que queda es la siguiente media hora (cerca de medianoche ya es de mañana)
+        assertThat(starts.get(0)).isBefore(before.plusMinutes(30).plusSeconds(1));
+        assertThat(starts).endsWith(today.plusDays(1).atTime(0, 0), today.plusDays(1).atTime(0, 30));
+    }
+
+    @Test
+    void rangeIsCappedAtThirtyOneDays() {
+        assertThat(freeSlotService.findFreeSlots(1L, DATE, DATE.plusDays(30), 30, 15)).isEmpty();
+
+        assertThatThrownBy(() -> freeSlotService.findFreeSlots(1L, DATE, DATE.plusDays(31), 30, 15))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("El rango de fechas no puede superar 31 días");
+    }
+
+    private void freeInterval(Long operatorId, LocalDate date, int start, int end) {
+        free.computeIfAbsent(operatorId, id -> new HashMap<>())
+            .computeIfAbsent(date, d -> new ArrayList<>())
+            .add(new int[] { start, end });
+    }
+
+    private static User operator(Long id) {
+        User operator = new User();
+        operator.setId(id);
+        operator.setFullName("Operario " + id);
+        return operator;
+    }
+}
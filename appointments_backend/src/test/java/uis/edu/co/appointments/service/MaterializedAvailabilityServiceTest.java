@@ -0,0 +1,209 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import uis.edu.co.appointments.dto.OperatorCategoryView;
+import uis.edu.co.appointments.dto.ScheduleSlotView;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+import uis.edu.co.appointments.repository.AvailabilityJdbcRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+
+/**
+ * Reconstrucción de availability_slots con varios nodos, contra un PostgreSQL embebido (los
+ * advisory locks no existen en H2). Cada "nodo" es una instancia del servicio con su propio
+ * repositorio sobre la misma BD; el operario 1 atiende la categoría 10 de 8:00 a 12:00 todos los días.
+ */
+class MaterializedAvailabilityServiceTest {
+
+    private static final int HORIZON_DAYS = 3;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(
+            "CREATE TABLE availability_slots (" +
+            "  category_id BIGINT NOT NULL, slot_date DATE NOT NULL, operator_id BIGINT NOT NULL," +
+            "  start_minute SMALLINT NOT NULL, end_minute SMALLINT NOT NULL," +
+            "  PRIMARY KEY (category_id, slot_date, operator_id, start_minute))");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE availability_slots");
+    }
+
+    @Test
+    void onlyOneNodeRebuildsWhileTheOtherWaitsForItsResult() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        Node first = new Node(computing, 500);
+        Node second = new Node(null, 0);
+
+        CompletableFuture<Void> firstRebuild = CompletableFuture.runAsync(first.service::rebuild);
+        assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+        second.service.rebuild();
+        firstRebuild.get(10, TimeUnit.SECONDS);
+
+        verify(first.repository).replaceAll(anyList());
+        verify(second.repository, never()).replaceAll(anyList());
+        // El segundo usa la tabla que dejó el primero
+        LocalDate today = LocalDate.now();
+        assertThat(second.service.covers(today, today.plusDays(HORIZON_DAYS - 1))).isTrue();
+        assertThat(second.service.findFreeIntervals(10L, today, today.plusDays(HORIZON_DAYS - 1)).get(1L))
+            .hasSize(HORIZON_DAYS);
+    }
+
+    @Test
+    void rebuildWaitsForARefreshInProgressAndComputesAfterIt() throws Exception {
+        Node node = new Node(null, 0);
+        AvailabilityJdbcRepository otherNode = new AvailabilityJdbcRepository(jdbcTemplate);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        AtomicLong refreshCommittedAt = new AtomicLong();
+
+        // Refresco de otro nodo: escribe la misma fila que producirá la reconstrucción y tarda en confirmar
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> {
+            transaction.executeWithoutResult(status -> {
+                otherNode.lockForRefresh();
+                jdbcTemplate.update("INSERT INTO availability_slots VALUES (10, ?, 1, 480, 720)",
+                    Date.valueOf(LocalDate.now()));
+                refreshing.countDown();
+                sleep(300);
+            });
+            refreshCommittedAt.set(System.nanoTime());
+        });
+        assertThat(refreshing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        node.service.rebuild();
+        refresh.get(10, TimeUnit.SECONDS);
+
+        // Sin esperar, el DELETE no vería la fila sin confirmar y el INSERT chocaría con la PK
+        verify(node.repository).replaceAll(anyList());
+        assertThat(node.computedAt.get()).isGreaterThan(refreshCommittedAt.get());
+        assertThat(node.service.covers(LocalDate.now(), LocalDate.now())).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM availability_slots", Long.class))
+            .isEqualTo(HORIZON_DAYS);
+    }
+
+    /**
+     * Una instancia del servicio; la lectura de categorías marca el inicio del cálculo
+     */
+    private static final class Node {
+
+        final AvailabilityJdbcRepository repository = spy(new AvailabilityJdbcRepository(jdbcTemplate));
+        final AtomicLong computedAt = new AtomicLong();
+        final MaterializedAvailabilityService service;
+
+        Node(CountDownLatch computing, long computeMillis) {
+            UserRepository userRepository = mock(UserRepository.class);
+            when(userRepository.findActiveOperatorCategories()).thenAnswer(inv -> {
+                computedAt.set(System.nanoTime());
+                if (computing != null) {
+                    computing.countDown();
+                }
+                sleep(computeMillis);
+                return List.of(category(1L, 10L));
+            });
+            OperatorScheduleService scheduleService = mock(OperatorScheduleService.class);
+            when(scheduleService.getWeeklySchedules(anyCollection())).thenReturn(Map.of(1L, everyMorning(1L)));
+            AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+            when(appointmentRepository.findActiveSlotsByOperatorsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+
+            service = new MaterializedAvailabilityService(userRepository, scheduleService, appointmentRepository,
+                repository, new DataSourceTransactionManager(dataSource), true, HORIZON_DAYS);
+        }
+    }
+
+    private static WeeklySchedule everyMorning(Long operatorId) {
+        List<ScheduleSlotView> shifts = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            shifts.add(new ScheduleSlotView() {
+                @Override
+                public Long getOperatorId() {
+                    return operatorId;
+                }
+
+                @Override
+                public DayOfWeek getDayOfWeek() {
+                    return day;
+                }
+
+                @Override
+                public LocalTime getStartTime() {
+                    return LocalTime.of(8, 0);
+                }
+
+                @Override
+                public LocalTime getEndTime() {
+                    return LocalTime.of(12, 0);
+                }
+            });
+        }
+        return WeeklySchedule.of(shifts, System.currentTimeMillis());
+    }
+
+    private static OperatorCategoryView category(Long operatorId, Long categoryId) {
+        return new OperatorCategoryView() {
+            @Override
+            public Long getOperatorId() {
+                return operatorId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
+
+class NotificationRetentionServiceTest {
+
+    private final NotificationJdbcRepository jdbcRepository = mock(NotificationJdbcRepository.class);
+
+    @Test
+    void batchSizeBelowOneIsRejectedAtStartup() {
+        for (int batchSize : new int[] { 0, -1 }) {
+            assertThatThrownBy(() -> new NotificationRetentionService(jdbcRepository, 90, Map.of(), batchSize, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("El tamaño de lote de la retención debe ser de al menos 1");
+        }
+    }
+
+    @Test
+    void policyBelowOneDayIsRejectedAtStartup() {
+        assertThatThrownBy(() -> new NotificationRetentionService(jdbcRepository, 90, Map.of("SYSTEM", 0), 100, 0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("La retención de SYSTEM debe ser de al menos 1 día");
+    }
+
+    @Test
+    void purgeRepeatsBatchesUntilOneComesBackShort() {
+        when(jdbcRepository.deleteReadBefore(eq("SYSTEM"), any(), anyInt())).thenReturn(2, 2, 1);
+        when(jdbcRepository.deleteReadBeforeExcept(anyCollection(), any(), anyInt())).thenReturn(0);
+        NotificationRetentionService retention = new NotificationRetentionService(
+            jdbcRepository, 90, Map.of("SYSTEM", 30), 2, 0);
+
+        assertThat(retention.purge()).isEqualTo(5);
+        verify(jdbcRepository, times(3)).deleteReadBefore(eq("SYSTEM"), any(), eq(2));
+    }
+}
@@ -0,0 +1,113 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.Notification;
+import uis.edu.co.appointments.models.NotificationType;
+import uis.edu.co.appointments.models.User;
+import uis.edu.co.appointments.repository.AppointmentRepository;
+
+class NotificationSchedulerServiceTest {
+
+    private static final String POISON_EMAIL = "poison@test.com";
+
+    private NotificationService notificationService;
+    private EmailService emailService;
+    private NotificationSchedulerService scheduler;
+
+    private final Map<Long, Notification> rows = new LinkedHashMap<>();
+    private final List<Long> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        emailService = mock(EmailService.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+
+        when(notificationService.claimPendingScheduledNotifications(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(rows::containsKey).map(rows::get).toList();
+        });
+        doAnswer(inv -> {
+            List<Notification> sent = inv.getArgument(0);
+            sent.forEach(n -> published.add(n.getId()));
+            return null;
+        }).when(notificationService).publishSent(anyList());
+        doThrow(new IllegalStateException("plantilla inválida")).when(emailService).sendAppointmentEmail(
+            eq(POISON_EMAIL), anyString(), anyString(), anyString(), anyString(), anyString(),
+            anyString(), any(), anyString(), anyString());
+
+        scheduler = new NotificationSchedulerService(notificationService, emailService,
+            mock(AppointmentRepository.class), mock(NotificationRetentionService.class), transactionManager, 4);
+    }
+
+    @Test
+    void poisonRowDoesNotBlockItsNeighbours() {
+        for (long id = 1; id <= 10; id++) {
+            rows.put(id, reminder(id, id == 6 ? POISON_EMAIL : "user" + id + "@test.com"));
+        }
+
+        scheduler.sendScheduledNotifications(rows.keySet());
+
+        assertThat(published).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void everyRowOfAHealthyBlockIsSentOnce() {
+        for (long id = 1; id <= 9; id++) {
+            rows.put(id, reminder(id, "user" + id + "@test.com"));
+        }
+
+        scheduler.sendScheduledNotifications(List.of(3L, 1L, 2L, 9L, 8L, 7L, 6L, 5L, 4L, 4L));
+
+        assertThat(published).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    }
+
+    private Notification reminder(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setFullName("Usuario " + id);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(100 + id);
+        appointment.setTitle("Cita " + id);
+        appointment.setDate(LocalDate.now().plusDays(1));
+        appointment.setStartTime(LocalTime.of(9, 0));
+        appointment.setEndTime(LocalTime.of(10, 0));
+
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUser(user);
+        notification.setAppointment(appointment);
+        notification.setMessage("Recordatorio " + id);
+        notification.setNotificationType(NotificationType.REMINDER_HOUR);
+        notification.setScheduledFor(LocalDateTime.now().minusMinutes(1));
+        return notification;
+    }
+}
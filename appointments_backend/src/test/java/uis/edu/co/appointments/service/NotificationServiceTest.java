@@ -0,0 +1,103 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import uis.edu.co.appointments.dto.NotificationPage;
+import uis.edu.co.appointments.dto.NotificationSummary;
+import uis.edu.co.appointments.repository.NotificationJdbcRepository;
+import uis.edu.co.appointments.repository.NotificationRepository;
+
+/**
+ * Cursor de la bandeja (findInboxPage); el orden y el desempate por id en la BD se prueban en
+ * NotificationJdbcRepositoryTest
+ */
+class NotificationServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 1, 7, 9, 15, 30, 123_000_000);
+
+    private NotificationJdbcRepository jdbcRepository;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcRepository = mock(NotificationJdbcRepository.class);
+        notificationService = new NotificationService(mock(NotificationRepository.class), jdbcRepository,
+            mock(ApplicationEventPublisher.class), mock(UnreadNotificationCounter.class));
+    }
+
+    @Test
+    void asksForOneMoreRowAndBuildsTheCursorFromTheLastOneShown() {
+        when(jdbcRepository.findInboxPage(anyLong(), any(), any(), anyBoolean(), anyInt()))
+            .thenReturn(summaries(5, 4, 3, 2));
+
+        NotificationPage page = notificationService.findInboxPage(1L, null, false, 3);
+
+        verify(jdbcRepository).findInboxPage(1L, null, null, false, 4);
+        assertThat(page.getItems()).extracting(NotificationSummary::getId).containsExactly(5L, 4L, 3L);
+        assertThat(page.getNextCursor()).isEqualTo(CREATED + ",3");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(jdbcRepository.findInboxPage(anyLong(), any(), any(), anyBoolean(), anyInt()))
+            .thenReturn(summaries(2, 1));
+
+        NotificationPage page = notificationService.findInboxPage(1L, null, true, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfThePreviousPageIsPassedBackAsCreatedAtAndId() {
+        notificationService.findInboxPage(1L, CREATED + ",3", false, 3);
+        notificationService.findInboxPage(1L, " 2030-01-07T09:00 , 8 ", false, 3);
+
+        verify(jdbcRepository).findInboxPage(1L, CREATED, 3L, false, 4);
+        verify(jdbcRepository).findInboxPage(1L, LocalDateTime.of(2030, 1, 7, 9, 0), 8L, false, 4);
+    }
+
+    @Test
+    void blankCursorMeansTheFirstPage() {
+        notificationService.findInboxPage(1L, " ", false, 3);
+
+        verify(jdbcRepository).findInboxPage(1L, null, null, false, 4);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        for (String cursor : List.of("abc", "2030-01-07T09:00", "2030-01-07T09:00,x", ",3")) {
+            assertThatThrownBy(() -> notificationService.findInboxPage(1L, cursor, false, 3))
+                .as(cursor)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido: se espera 'createdAt,id'");
+        }
+    }
+
+    private static List<NotificationSummary> summaries(long... ids) {
+        List<NotificationSummary> summaries = new ArrayList<>();
+        for (long id : ids) {
+            NotificationSummary summary = new NotificationSummary();
+            summary.setId(id);
+            summary.setCreatedAt(CREATED);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,68 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Memoria retenida por conexión abierta del canal en vivo: se abren miles de suscripciones
+ * con NotificationStreamService.subscribe y se compara el heap usado antes y después.
+ * No incluye el socket ni el contexto asíncrono del servlet, que dependen del contenedor.
+ */
+class NotificationStreamMemoryTest {
+
+    private static final int USERS = 2_000;
+    private static final int TABS_PER_USER = 3;
+
+    @Test
+    void reportsHeapPerOpenConnection() {
+        UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+        when(unreadCounter.get(anyLong())).thenReturn(4L);
+        NotificationStreamService streamService = new NotificationStreamService(unreadCounter, 1_800_000, TABS_PER_USER);
+        // Calentar las clases del emisor fuera de la medida
+        streamService.subscribe(-1L);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeap(memory);
+
+        List<SseEmitter> emitters = new ArrayList<>(USERS * TABS_PER_USER);
+        for (long userId = 1; userId <= USERS; userId++) {
+            for (int tab = 0; tab < TABS_PER_USER; tab++) {
+                emitters.add(streamService.subscribe(userId));
+            }
+        }
+
+        long after = usedHeap(memory);
+        int connections = emitters.size();
+        long bytesPerConnection = (after - before) / connections;
+        System.out.printf("Canal en vivo: %d conexiones, %d KB de heap, %d bytes por conexión%n",
+            connections, (after - before) / 1024, bytesPerConnection);
+
+        assertThat(emitters).hasSize(USERS * TABS_PER_USER);
+        // Cota holgada: el emisor, su evento inicial pendiente y la entrada en el mapa de suscriptores
+        assertThat(bytesPerConnection).isPositive().isLessThan(8 * 1024);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        long used = Long.MAX_VALUE;
+        // Varias pasadas del GC hasta que el uso deje de bajar
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,92 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import uis.edu.co.appointments.dto.NotificationSummary;
+import uis.edu.co.appointments.events.NotificationPushEvent;
+
+class NotificationStreamServiceTest {
+
+    private static final int MAX_PER_USER = 2;
+
+    private NotificationStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+        when(unreadCounter.get(anyLong())).thenReturn(3L);
+        streamService = new NotificationStreamService(unreadCounter, 60_000, MAX_PER_USER);
+    }
+
+    @Test
+    void rejectsConnectionsAboveThePerUserCap() {
+        streamService.subscribe(1L);
+        streamService.subscribe(1L);
+
+        // El controlador traduce esta excepción a 429
+        assertThatThrownBy(() -> streamService.subscribe(1L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Demasiadas conexiones");
+
+        // El tope es por usuario
+        assertThat(streamService.subscribe(2L)).isNotNull();
+    }
+
+    @Test
+    void heartbeatDropsEmittersThatFailToSend() {
+        SseEmitter closed = streamService.subscribe(1L);
+        streamService.subscribe(1L);
+        // Un emisor completado rechaza los envíos siguientes (IllegalStateException)
+        closed.complete();
+
+        streamService.heartbeat();
+
+        // El emisor caído liberó su lugar: cabe una conexión más y ninguna otra
+        assertThat(streamService.subscribe(1L)).isNotNull();
+        assertThatThrownBy(() -> streamService.subscribe(1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pushDropsEmittersThatFailToSend() {
+        SseEmitter first = streamService.subscribe(1L);
+        SseEmitter second = streamService.subscribe(1L);
+        first.complete();
+        second.complete();
+
+        streamService.onNotificationPush(new NotificationPushEvent(1L, summary()));
+
+        assertThat(streamService.subscribe(1L)).isNotNull();
+        assertThat(streamService.subscribe(1L)).isNotNull();
+    }
+
+    @Test
+    void failedSendOnlyRemovesThatEmitterOnce() {
+        SseEmitter closed = streamService.subscribe(1L);
+        streamService.subscribe(1L);
+        closed.complete();
+
+        // El segundo envío al mismo emisor ya no lo encuentra registrado
+        streamService.heartbeat();
+        streamService.onNotificationPush(new NotificationPushEvent(1L, null));
+        streamService.heartbeat();
+
+        assertThat(streamService.subscribe(1L)).isNotNull();
+        assertThatThrownBy(() -> streamService.subscribe(1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static NotificationSummary summary() {
+        NotificationSummary summary = new NotificationSummary();
+        summary.setId(10L);
+        summary.setType("reminder");
+        summary.setMessage("Tu cita es mañana");
+        return summary;
+    }
+}
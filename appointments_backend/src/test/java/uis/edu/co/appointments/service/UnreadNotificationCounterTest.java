@@ -0,0 +1,134 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import uis.edu.co.appointments.dto.UnreadCountView;
+import uis.edu.co.appointments.repository.NotificationRepository;
+
+class UnreadNotificationCounterTest {
+
+    private NotificationRepository notificationRepository;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        when(notificationRepository.countByUserIdAndIsRead(1L, false)).thenReturn(3L);
+        when(notificationRepository.countByUserIdAndIsRead(2L, false)).thenReturn(4L);
+        counter = new UnreadNotificationCounter(notificationRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void adjustmentIsAppliedOnlyWhenTheTransactionCommits() {
+        counter.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.adjust(1L, 2);
+        assertThat(counter.get(1L)).isEqualTo(3);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(counter.get(1L)).isEqualTo(5);
+    }
+
+    @Test
+    void rolledBackAdjustmentIsDropped() {
+        counter.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.adjust(1L, -2);
+        counter.invalidate(1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+        verify(notificationRepository, times(1)).countByUserIdAndIsRead(1L, false);
+    }
+
+    @Test
+    void counterNeverGoesBelowZero() {
+        counter.get(1L);
+
+        counter.adjust(1L, -10);
+
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    void usersNotLoadedAreReadFromTheDatabaseLater() {
+        counter.adjust(1L, 5);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void invalidatedCounterIsReloadedAfterCommit() {
+        counter.get(1L);
+        when(notificationRepository.countByUserIdAndIsRead(1L, false)).thenReturn(9L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.invalidate(1L);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(counter.get(1L)).isEqualTo(9);
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndForgetsUnusedCounters() {
+        counter.get(1L);
+        counter.get(2L);
+        // Usuario 1 con 7 en la BD; el 2 ya no tiene no leídas (no aparece en el COUNT agrupado)
+        when(notificationRepository.countUnreadByUserIds(anyList())).thenReturn(List.of(unread(1L, 7L)));
+
+        counter.reconcile();
+
+        assertThat(counter.get(1L)).isEqualTo(7);
+
+        // El 2 no se consultó desde la pasada anterior: se olvida y se vuelve a cargar al pedirlo
+        counter.reconcile();
+        assertThat(counter.get(2L)).isEqualTo(4);
+        verify(notificationRepository, times(2)).countByUserIdAndIsRead(2L, false);
+        verify(notificationRepository, times(1)).countByUserIdAndIsRead(1L, false);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+
+    private static UnreadCountView unread(Long userId, Long count) {
+        return new UnreadCountView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getUnread() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package uis.edu.co.appointments.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import uis.edu.co.appointments.models.Appointment;
+import uis.edu.co.appointments.models.WaitlistEntry;
+import uis.edu.co.appointments.models.WaitlistStatus;
+import uis.edu.co.appointments.repository.CategoryRepository;
+import uis.edu.co.appointments.repository.UserRepository;
+import uis.edu.co.appointments.repository.WaitlistRepository;
+
+class WaitlistServiceTest {
+
+    private static final LocalTime START = LocalTime.of(9, 0);
+
+    private WaitlistRepository waitlistRepository;
+    private AppointmentService appointmentService;
+    private NotificationService notificationService;
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepository = mock(WaitlistRepository.class);
+        appointmentService = mock(AppointmentService.class);
+        notificationService = mock(NotificationService.class);
+        waitlistService = new WaitlistService(waitlistRepository, mock(UserRepository.class),
+            mock(CategoryRepository.class), appointmentService, notificationService,
+            mock(ApplicationEventPublisher.class), 5);
+    }
+
+    @Test
+    void bookDoesNothingWhenTheEntryWasAlreadyTaken() {
+        // Otra pasada la reservó u ofreció entre la búsqueda y la reserva
+        when(waitlistRepository.claimWaiting(1L, WaitlistStatus.BOOKED)).thenReturn(0);
+
+        assertThat(waitlistService.book(1L, START)).isFalse();
+
+        verify(appointmentService, never()).save(any());
+        verify(notificationService, never()).save(any());
+    }
+
+    @Test
+    void offerDoesNothingWhenTheEntryWasAlreadyTaken() {
+        when(waitlistRepository.claimWaiting(1L, WaitlistStatus.OFFERED)).thenReturn(0);
+
+        assertThat(waitlistService.offer(1L, START)).isFalse();
+
+        verify(waitlistRepository, never()).save(any());
+        verify(notificationService, never()).save(any());
+    }
+
+    @Test
+    void bookCreatesTheAppointmentAfterClaimingTheEntry() {
+        WaitlistEntry entry = entry(WaitlistStatus.BOOKED);
+        when(waitlistRepository.claimWaiting(1L, WaitlistStatus.BOOKED)).thenReturn(1);
+        when(waitlistRepository.findById(1L)).thenReturn(Optional.of(entry));
+        Appointment saved = new Appointment();
+        saved.setId(50L);
+        when(appointmentService.save(any())).thenReturn(saved);
+
+        assertThat(waitlistService.book(1L, START)).isTrue();
+
+        verify(waitlistRepository).save(eq(entry));
+        assertThat(entry.getAppointment()).isSameAs(saved);
+        assertThat(entry.getMatchedEndTime()).isEqualTo(LocalTime.of(9, 30));
+    }
+
+    private static WaitlistEntry entry(WaitlistStatus status) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(1L);
+        entry.setTitle("Cita");
+        entry.setDate(LocalDate.of(2030, 1, 7));
+        entry.setWindowStart(LocalTime.of(8, 0));
+        entry.setWindowEnd(LocalTime.of(12, 0));
+        entry.setDurationMinutes(30);
+        entry.setStatus(status);
+        return entry;
+    }
+}
@@ -0,0 +1,57 @@
+package uis.edu.co.appointments.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class AppointmentTimeRulesTest {
+
+    @Test
+    void acceptsTheMinimumDuration() {
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.of(9, 0), LocalTime.of(9, 5))).isNull();
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.of(9, 0), LocalTime.of(10, 0))).isNull();
+    }
+
+    @Test
+    void rejectsAppointmentsShorterThanFiveMinutes() {
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.of(9, 0), LocalTime.of(9, 1)))
+            .isEqualTo("La cita debe durar al menos 5 minutos");
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.of(9, 0), LocalTime.of(9, 4, 59)))
+            .isEqualTo("La cita debe durar al menos 5 minutos");
+    }
+
+    @Test
+    void shortAppointmentBeforeMidnightIsNotMistakenForALongOne() {
+        // 23:58 + 5 min da la vuelta a 00:03; la duración real es 1 minuto
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.of(23, 58), LocalTime.of(23, 59)))
+            .isEqualTo("La cita debe durar al menos 5 minutos");
+    }
+
+    @Test
+    void rejectsMissingOrReversedTimes() {
+        assertThat(AppointmentTimeRules.checkTimes(null, LocalTime.NOON)).isEqualTo("startTime y endTime son obligatorios");
+        assertThat(AppointmentTimeRules.checkTimes(LocalTime.NOON, LocalTime.NOON))
+            .isEqualTo("La hora de inicio debe ser anterior a la hora de finalización");
+        assertThatThrownBy(() -> AppointmentTimeRules.validateTimes(LocalTime.of(10, 0), LocalTime.of(9, 0)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("La hora de inicio debe ser anterior a la hora de finalización");
+    }
+
+    @Test
+    void rejectsAStartTimeThatAlreadyPassedToday() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 7, 10, 0);
+        LocalDate today = now.toLocalDate();
+
+        assertThat(AppointmentTimeRules.checkNotPast(today, LocalTime.of(9, 59), now))
+            .isEqualTo("No se puede reservar en una fecha u hora pasada");
+        assertThat(AppointmentTimeRules.checkNotPast(today.minusDays(1), LocalTime.of(23, 0), now))
+            .isEqualTo("No se puede reservar en una fecha u hora pasada");
+        assertThat(AppointmentTimeRules.checkNotPast(today, LocalTime.of(10, 0), now)).isNull();
+        assertThat(AppointmentTimeRules.checkNotPast(today.plusDays(1), LocalTime.of(8, 0), now)).isNull();
+    }
+}
@@ -0,0 +1,69 @@
+package uis.edu.co.appointments.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    private record Slot(int id, int start, int end) {
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree<Slot> tree = tree(List.of(new Slot(1, 540, 600), new Slot(2, 600, 660)));
+
+        assertThat(tree.overlapping(480, 540)).isEmpty();
+        assertThat(tree.overlapping(660, 720)).isEmpty();
+        assertThat(tree.overlapping(599, 601)).extracting(Slot::id).containsExactlyInAnyOrder(1, 2);
+        assertThat(tree.overlapsAny(600, 600)).isFalse();
+        assertThat(tree.overlapping(620, 610)).isEmpty();
+    }
+
+    @Test
+    void emptyTree() {
+        IntervalTree<Slot> tree = tree(List.of());
+
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.overlapping(0, 1_440)).isEmpty();
+        assertThat(tree.overlapsAny(0, 1_440)).isFalse();
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            List<Slot> slots = new ArrayList<>();
+            int count = random.nextInt(60);
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(1_440);
+                // Algunos intervalos largos para que el fin máximo del subárbol importe
+                int length = random.nextInt(10) == 0 ? random.nextInt(600) + 1 : random.nextInt(90) + 1;
+                slots.add(new Slot(i, start, Math.min(1_440, start + length)));
+            }
+            IntervalTree<Slot> tree = tree(slots);
+            assertThat(tree.size()).isEqualTo(count);
+
+            for (int query = 0; query < 100; query++) {
+                int from = random.nextInt(1_440);
+                int to = from + 1 + random.nextInt(120);
+                List<Slot> expected = slots.stream()
+                    .filter(slot -> slot.start() < to && from < slot.end())
+                    .toList();
+
+                assertThat(tree.overlapping(from, to))
+                    .as("trial %d, [%d, %d)", trial, from, to)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(tree.overlapsAny(from, to)).isEqualTo(!expected.isEmpty());
+            }
+        }
+    }
+
+    private static IntervalTree<Slot> tree(List<Slot> slots) {
+        return IntervalTree.of(slots, Slot::start, Slot::end);
+    }
+}
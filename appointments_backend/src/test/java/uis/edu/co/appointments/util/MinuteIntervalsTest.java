@@ -0,0 +1,87 @@
+package uis.edu.co.appointments.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MinuteIntervalsTest {
+
+    @Test
+    void mergeJoinsOverlappingAndTouchingIntervals() {
+        List<int[]> merged = MinuteIntervals.merge(List.of(
+            new int[] { 600, 660 }, new int[] { 480, 540 }, new int[] { 540, 570 },
+            new int[] { 630, 700 }, new int[] { 800, 800 }));
+
+        assertThat(merged).containsExactly(new int[] { 480, 570 }, new int[] { 600, 700 });
+    }
+
+    @Test
+    void mergeDoesNotModifyItsInput() {
+        int[] first = { 480, 540 };
+        MinuteIntervals.merge(List.of(first, new int[] { 500, 600 }));
+
+        assertThat(first).containsExactly(480, 540);
+    }
+
+    @Test
+    void subtractLeavesTheGapsOfEachShift() {
+        List<int[]> working = List.of(new int[] { 480, 720 }, new int[] { 840, 1_080 });
+        List<int[]> busy = List.of(
+            new int[] { 450, 500 }, new int[] { 600, 660 }, new int[] { 700, 900 }, new int[] { 1_000, 1_100 });
+
+        List<int[]> free = MinuteIntervals.subtract(working, busy);
+
+        assertThat(free).containsExactly(
+            new int[] { 500, 600 }, new int[] { 660, 700 }, new int[] { 900, 1_000 });
+        assertThat(MinuteIntervals.total(free)).isEqualTo(100 + 40 + 100);
+    }
+
+    @Test
+    void subtractMatchesMinuteByMinuteReference() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 300; trial++) {
+            List<int[]> working = MinuteIntervals.merge(randomIntervals(random, 3, 300));
+            List<int[]> busy = MinuteIntervals.merge(randomIntervals(random, 8, 120));
+
+            boolean[] expected = new boolean[1_440];
+            working.forEach(w -> fill(expected, w, true));
+            busy.forEach(b -> fill(expected, b, false));
+
+            boolean[] actual = new boolean[1_440];
+            List<int[]> free = MinuteIntervals.subtract(working, busy);
+            free.forEach(f -> fill(actual, f, true));
+
+            assertThat(actual).as("trial %d", trial).isEqualTo(expected);
+            for (int i = 1; i < free.size(); i++) {
+                assertThat(free.get(i)[0]).isGreaterThan(free.get(i - 1)[1]);
+            }
+        }
+    }
+
+    @Test
+    void convertsBetweenTimesAndMinutes() {
+        assertThat(MinuteIntervals.minutes(LocalTime.of(13, 45, 30))).isEqualTo(825);
+        assertThat(MinuteIntervals.time(825)).isEqualTo(LocalTime.of(13, 45));
+    }
+
+    private static List<int[]> randomIntervals(Random random, int maxCount, int maxLength) {
+        List<int[]> intervals = new ArrayList<>();
+        int count = random.nextInt(maxCount + 1);
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(1_440);
+            intervals.add(new int[] { start, Math.min(1_440, start + 1 + random.nextInt(maxLength)) });
+        }
+        return intervals;
+    }
+
+    private static void fill(boolean[] minutes, int[] interval, boolean value) {
+        for (int m = interval[0]; m < interval[1]; m++) {
+            minutes[m] = value;
+        }
+    }
+}
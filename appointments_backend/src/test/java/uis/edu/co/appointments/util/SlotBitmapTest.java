@@ -0,0 +1,70 @@
+package uis.edu.co.appointments.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class SlotBitmapTest {
+
+    @Test
+    void coveringRoundsOutwards() {
+        long[] bits = SlotBitmap.covering(LocalTime.of(9, 2), LocalTime.of(9, 11));
+
+        // 9:00-9:05, 9:05-9:10 y 9:10-9:15
+        assertThat(SlotBitmap.cardinality(bits)).isEqualTo(3);
+        assertThat(bits).isEqualTo(SlotBitmap.range(108, 111));
+    }
+
+    @Test
+    void withinRoundsInwards() {
+        long[] bits = SlotBitmap.within(LocalTime.of(9, 2), LocalTime.of(9, 11));
+
+        // Solo 9:05-9:10 cabe completa
+        assertThat(bits).isEqualTo(SlotBitmap.range(109, 110));
+    }
+
+    @Test
+    void alignedTimesAgreeForBothRoundings() {
+        LocalTime start = LocalTime.of(8, 0);
+        LocalTime end = LocalTime.of(12, 30);
+
+        assertThat(SlotBitmap.covering(start, end)).isEqualTo(SlotBitmap.within(start, end));
+        assertThat(SlotBitmap.cardinality(SlotBitmap.covering(start, end))).isEqualTo(54);
+    }
+
+    @Test
+    void secondsCountAsAStartedMinute() {
+        assertThat(SlotBitmap.ceilSlot(LocalTime.of(9, 5))).isEqualTo(109);
+        assertThat(SlotBitmap.ceilSlot(LocalTime.of(9, 5, 1))).isEqualTo(110);
+        assertThat(SlotBitmap.floorSlot(LocalTime.of(9, 4, 59))).isEqualTo(108);
+    }
+
+    @Test
+    void shortShiftInsideOneSlotHasNoWorkingSlots() {
+        assertThat(SlotBitmap.isEmpty(SlotBitmap.within(LocalTime.of(9, 1), LocalTime.of(9, 4)))).isTrue();
+        assertThat(SlotBitmap.cardinality(SlotBitmap.covering(LocalTime.of(9, 1), LocalTime.of(9, 4)))).isEqualTo(1);
+    }
+
+    @Test
+    void appointmentFitsOnlyInsideTheWorkingSlots() {
+        // Jornada 8:03-12:00: la franja 8:00-8:05 no es laboral completa
+        long[] free = SlotBitmap.within(LocalTime.of(8, 3), LocalTime.of(12, 0));
+
+        assertThat(SlotBitmap.containsAll(free, SlotBitmap.covering(LocalTime.of(8, 5), LocalTime.of(9, 0)))).isTrue();
+        assertThat(SlotBitmap.containsAll(free, SlotBitmap.covering(LocalTime.of(8, 3), LocalTime.of(9, 0)))).isFalse();
+        assertThat(SlotBitmap.containsAll(free, SlotBitmap.covering(LocalTime.of(11, 30), LocalTime.of(12, 1)))).isFalse();
+    }
+
+    @Test
+    void lastSlotOfTheDayCrossesWordBoundaries() {
+        long[] day = SlotBitmap.covering(LocalTime.MIN, LocalTime.MAX);
+
+        assertThat(SlotBitmap.cardinality(day)).isEqualTo(SlotBitmap.SLOTS_PER_DAY);
+        long[] booked = SlotBitmap.covering(LocalTime.of(5, 15), LocalTime.of(5, 25)); // franjas 63 y 64
+        assertThat(SlotBitmap.cardinality(SlotBitmap.andNot(day, booked))).isEqualTo(SlotBitmap.SLOTS_PER_DAY - 2);
+        assertThat(booked[0]).isEqualTo(1L << 63);
+        assertThat(booked[1]).isEqualTo(1L);
+    }
+}
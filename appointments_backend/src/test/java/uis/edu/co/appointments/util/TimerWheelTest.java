@@ -0,0 +1,238 @@
+package uis.edu.co.appointments.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void keysExpireInDeadlineOrderNeverEarly() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("c", 45);
+        wheel.schedule("a", 12);
+        wheel.schedule("b", 30);
+
+        List<String> fired = new ArrayList<>();
+        for (long now = 0; now <= 60; now += TICK) {
+            List<String> expired = wheel.advance(now);
+            if (now < 20) {
+                assertThat(expired).isEmpty();
+            }
+            fired.addAll(expired);
+        }
+
+        assertThat(fired).containsExactly("a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keyIsAtMostOneTickLate() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("k", 31);
+
+        assertThat(wheel.advance(30)).isEmpty();
+        assertThat(wheel.advance(39)).isEmpty();
+        assertThat(wheel.advance(40)).containsExactly("k");
+    }
+
+    @Test
+    void deadlinesBeyondOneLapWaitForTheirRound() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 4, 0);
+        // 4 casillas de 10 ms: 130 ms cae en la misma casilla que 10, 50 y 90
+        wheel.schedule("far", 130);
+
+        for (long now = TICK; now < 130; now += TICK) {
+            assertThat(wheel.advance(now)).as("now=%d", now).isEmpty();
+        }
+        assertThat(wheel.advance(130)).containsExactly("far");
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 100);
+        wheel.schedule("late", 50);
+
+        assertThat(wheel.advance(105)).isEmpty();
+        assertThat(wheel.advance(110)).containsExactly("late");
+    }
+
+    @Test
+    void cancelAndRescheduleMoveTheKey() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("moved", 20);
+        wheel.schedule("cancelled", 20);
+        wheel.schedule("moved", 60);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+        assertThat(wheel.advance(50)).isEmpty();
+        assertThat(wheel.advance(60)).containsExactly("moved");
+    }
+
+    @Test
+    void longPauseExpiresEverythingDue() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 8, 0);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, i * 25L);
+        }
+
+        assertThat(wheel.advance(300)).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+        assertThat(wheel.advance(10_000)).containsExactlyInAnyOrder(13, 14, 15, 16, 17, 18, 19, 20);
+    }
+
+    @Test
+    void matchesAReferenceScheduleUnderRandomOperations() {
+        Random random = new Random(42);
+        long now = 1_000;
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 16, now);
+        Map<Integer, Long> pending = new HashMap<>(); // clave -> tick en que debe vencer
+
+        for (int step = 0; step < 5_000; step++) {
+            int op = random.nextInt(10);
+            if (op < 4) {
+                int key = random.nextInt(300);
+                long deadline = now + random.nextInt(1_000) - 20;
+                wheel.schedule(key, deadline);
+                // Primer tick en o después del plazo, nunca uno ya recorrido
+                pending.put(key, Math.max((deadline + TICK - 1) / TICK, now / TICK + 1));
+            } else if (op == 4) {
+                int key = random.nextInt(300);
+                assertThat(wheel.cancel(key)).isEqualTo(pending.remove(key) != null);
+            }
+
+            now += random.nextInt(30);
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Integer, Long> entry : pending.entrySet()) {
+                if (entry.getValue() <= now / TICK) {
+                    expected.add(entry.getKey());
+                }
+            }
+            assertThat(wheel.advance(now)).containsExactlyInAnyOrderElementsOf(expected);
+            expected.forEach(pending::remove);
+            assertThat(wheel.size()).isEqualTo(pending.size());
+        }
+    }
+
+    @Test
+    void keysOnEveryLevelExpireInDeadlineOrder() {
+        // 3 niveles de 4 casillas: 4, 16 y 64 ticks
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 4, 3, 0);
+        wheel.schedule("level2", 500);
+        wheel.schedule("level0", 20);
+        wheel.schedule("level1", 120);
+
+        List<String> fired = new ArrayList<>();
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = TICK; now <= 700; now += TICK) {
+            for (String key : wheel.advance(now)) {
+                fired.add(key);
+                firedAt.put(key, now);
+            }
+        }
+
+        assertThat(fired).containsExactly("level0", "level1", "level2");
+        assertThat(firedAt).containsEntry("level0", 20L).containsEntry("level1", 120L).containsEntry("level2", 500L);
+    }
+
+    @Test
+    void overflowBeyondTheTopLevelCascadesDown() {
+        // 2 niveles de 4 casillas abarcan 16 ticks (160 ms): 1000 ms empieza en el desbordamiento
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 4, 2, 0);
+        wheel.schedule("far", 1_005);
+
+        for (long now = TICK; now < 1_010; now += TICK) {
+            assertThat(wheel.advance(now)).as("now=%d", now).isEmpty();
+            assertThat(wheel.contains("far")).isTrue();
+        }
+        assertThat(wheel.advance(1_010)).containsExactly("far");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void longPauseAcrossLevelsExpiresEverythingDueAndKeepsTheRest() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 4, 2, 0);
+        for (int i = 1; i <= 10; i++) {
+            wheel.schedule(i, i * 100L);
+        }
+
+        assertThat(wheel.advance(550)).containsExactlyInAnyOrder(1, 2, 3, 4, 5);
+        List<Integer> rest = new ArrayList<>();
+        for (long now = 560; now <= 1_000; now += TICK) {
+            rest.addAll(wheel.advance(now));
+        }
+        assertThat(rest).containsExactly(6, 7, 8, 9, 10);
+    }
+
+    @Test
+    void cancelAndRescheduleAcrossLevels() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 4, 2, 0);
+        wheel.schedule("moved", 1_000);
+        wheel.schedule("cancelled", 150);
+        wheel.schedule("moved", 30);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.contains("cancelled")).isFalse();
+        List<String> fired = new ArrayList<>();
+        for (long now = TICK; now <= 1_100; now += TICK) {
+            fired.addAll(wheel.advance(now));
+        }
+        assertThat(fired).containsExactly("moved");
+    }
+
+    @Test
+    void matchesAReferenceScheduleOnAnyNumberOfLevels() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 30; trial++) {
+            int wheelSize = 2 + random.nextInt(7);
+            int levels = 1 + random.nextInt(3);
+            long now = random.nextInt(100_000);
+            TimerWheel<Integer> wheel = new TimerWheel<>(TICK, wheelSize, levels, now);
+            Map<Integer, Long> pending = new HashMap<>(); // clave -> tick en que debe vencer
+
+            for (int step = 0; step < 2_000; step++) {
+                int op = random.nextInt(10);
+                if (op < 3) {
+                    int key = random.nextInt(500);
+                    long deadline = now + random.nextInt(op == 0 ? 50_000 : 2_000) - 50;
+                    wheel.schedule(key, deadline);
+                    pending.put(key, Math.max((deadline + TICK - 1) / TICK, now / TICK + 1));
+                } else if (op == 3) {
+                    int key = random.nextInt(500);
+                    assertThat(wheel.cancel(key)).isEqualTo(pending.remove(key) != null);
+                }
+
+                // Pasos de menos de una vuelta del nivel 0 (las pausas largas se prueban aparte)
+                now += random.nextInt((int) (wheelSize * TICK));
+                List<Integer> expected = new ArrayList<>();
+                for (Map.Entry<Integer, Long> entry : pending.entrySet()) {
+                    if (entry.getValue() <= now / TICK) {
+                        expected.add(entry.getKey());
+                    }
+                }
+                assertThat(wheel.advance(now))
+                    .as("trial %d, step %d (wheelSize=%d, levels=%d)", trial, step, wheelSize, levels)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+                expected.forEach(pending::remove);
+                assertThat(wheel.size()).isEqualTo(pending.size());
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(0, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(TICK, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(TICK, 1, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<String>(TICK, 4, 0, 0));
+    }
+}
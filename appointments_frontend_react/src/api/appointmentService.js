@@ -103,6 +103,54 @@ const appointmentService = {
     return response.data;
   },
 
+  /**
+   * Apartar una franja mientras se completa el formulario
+   * (el backend responde 409 si la franja ya no está libre)
+   */
+  createHold: async (holdData) => {
+    const response = await axiosInstance.post('/api/appointments/holds', holdData);
+    return response.data;
+  },
+
+  /**
+   * Confirmar un apartado (crea la cita)
+   */
+  confirmHold: async (holdId, title, description) => {
+    const response = await axiosInstance.post(
+      `/api/appointments/holds/${holdId}/confirm`,
+      { title, description }
+    );
+    return response.data;
+  },
+
+  /**
+   * Liberar un apartado
+   */
+  cancelHold: async (holdId) => {
+    const response = await axiosInstance.delete(`/api/appointments/holds/${holdId}`);
+    return response.data;
+  },
+
+  /**
+   * Crear una serie de citas recurrentes
+   * (si alguna fecha tiene conflicto el backend responde 409 con el detalle por ocurrencia)
+   */
+  createSeries: async (seriesData) => {
+    const response = await axiosInstance.post('/api/appointments/series', seriesData);
+    return response.data;
+  },
+
+  /**
+   * Buscar franjas libres de una categoría en un rango de fechas
+   * (cada franja incluye los operarios que pueden atenderla)
+   */
+  getFreeSlots: async (categoryId, from, to, duration, step = 15) => {
+    const response = await axiosInstance.get('/api/appointments/free-slots', {
+      params: { categoryId, from, to, duration, step },
+    });
+    return response.data;
+  },
+
   /**
    * Obtener citas de un operario
    */
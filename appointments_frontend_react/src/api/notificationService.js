@@ -15,6 +15,14 @@ const notificationService = {
     return response.data;
   },
 
+  // Bandeja paginada por cursor: { items, nextCursor }
+  getInbox: async ({ before = null, limit = 20, unreadOnly = false } = {}) => {
+    const response = await axiosInstance.get('/api/notifications/me/inbox', {
+      params: { before: before || undefined, limit, unreadOnly },
+    });
+    return response.data.data;
+  },
+
   getUnreadCount: async () => {
     const response = await axiosInstance.get('/api/notifications/me/unread-count');
     return response.data;
@@ -44,6 +52,66 @@ const notificationService = {
     const response = await axiosInstance.get('/api/notifications/me/admin-notifications');
     return response.data;
   },
+
+  getEmailOutboxStats: async () => {
+    const response = await axiosInstance.get('/api/notifications/email-outbox/stats');
+    return response.data;
+  },
+
+  getEmailDeadLetters: async (limit = 50) => {
+    const response = await axiosInstance.get('/api/notifications/email-outbox/dead-letters', {
+      params: { limit },
+    });
+    return response.data;
+  },
+
+  retryEmailDeadLetter: async (id) => {
+    const response = await axiosInstance.post(`/api/notifications/email-outbox/dead-letters/${id}/retry`, {});
+    return response.data;
+  },
+
+  // Canal en vivo (SSE). Se lee con fetch para poder enviar el token en la cabecera
+  // (EventSource no lo permite). Devuelve una función para cerrar la conexión.
+  openStream: ({ onNotification, onUnreadCount, onError }) => {
+    const controller = new AbortController();
+    const token = localStorage.getItem('token');
+
+    const dispatch = (block) => {
+      let event = 'message';
+      let data = '';
+      block.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data += line.slice(5).trim();
+      });
+      if (!data) return;
+      if (event === 'notification') onNotification?.(JSON.parse(data));
+      else if (event === 'unread-count') onUnreadCount?.(Number(data));
+    };
+
+    (async () => {
+      const response = await fetch(`${axiosInstance.defaults.baseURL}/api/notifications/me/stream`, {
+        headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        throw new Error(`Canal de notificaciones no disponible (${response.status})`);
+      }
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) throw new Error('Canal de notificaciones cerrado');
+        buffer += value;
+        const blocks = buffer.split('\n\n');
+        buffer = blocks.pop();
+        blocks.forEach(dispatch);
+      }
+    })().catch((error) => {
+      if (!controller.signal.aborted) onError?.(error);
+    });
+
+    return () => controller.abort();
+  },
 };
 
 export { notificationService };
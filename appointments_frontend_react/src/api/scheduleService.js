@@ -13,6 +13,14 @@ const scheduleService = {
     return response.data;
   },
 
+  getOperatorCalendar: async (operatorId, month) => {
+    const response = await axiosInstance.get(
+      `/api/operator-schedules/operator/${operatorId}/calendar`,
+      { params: month ? { month } : {} }
+    );
+    return response.data;
+  },
+
   create: async (scheduleData) => {
     const response = await axiosInstance.post('/api/operator-schedules', scheduleData);
     return response.data;
@@ -0,0 +1,29 @@
+import axiosInstance from './axiosConfig';
+
+const waitlistService = {
+  /**
+   * Entrar a la lista de espera
+   */
+  join: async (waitlistData) => {
+    const response = await axiosInstance.post('/api/waitlist', waitlistData);
+    return response.data;
+  },
+
+  /**
+   * Obtener mis solicitudes en lista de espera
+   */
+  getMine: async () => {
+    const response = await axiosInstance.get('/api/waitlist/me');
+    return response.data;
+  },
+
+  /**
+   * Salir de la lista de espera
+   */
+  cancel: async (id) => {
+    const response = await axiosInstance.delete(`/api/waitlist/${id}`);
+    return response.data;
+  },
+};
+
+export default waitlistService;
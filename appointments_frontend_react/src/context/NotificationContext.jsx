@@ -5,28 +5,44 @@ import { POLLING_INTERVAL } from '../utils/constants';
 
 const NotificationContext = createContext(null);
 
+const INBOX_PAGE_SIZE = 20;
+
 export const NotificationProvider = ({ children }) => {
   const { isAuthenticated } = useAuth();
   const [notifications, setNotifications] = useState([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
 
-  // Cargar notificaciones
+  // Cargar la primera página de la bandeja
   const fetchNotifications = useCallback(async () => {
     if (!isAuthenticated) return;
 
     try {
-      const data = await notificationService.getMyNotifications();
-      setNotifications(data);
-      
-      // Contar no leídas
-      const unread = data.filter((n) => !n.isRead).length;
-      setUnreadCount(unread);
+      const page = await notificationService.getInbox({ limit: INBOX_PAGE_SIZE });
+      setNotifications(page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error al cargar notificaciones:', error);
     }
   }, [isAuthenticated]);
 
+  // Cargar la siguiente página (anteriores)
+  const loadMore = async () => {
+    if (!nextCursor) return;
+
+    try {
+      const page = await notificationService.getInbox({ before: nextCursor, limit: INBOX_PAGE_SIZE });
+      setNotifications((prev) => [
+        ...prev,
+        ...page.items.filter((item) => !prev.some((n) => n.id === item.id)),
+      ]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error al cargar más notificaciones:', error);
+    }
+  };
+
   // Cargar contador de no leídas (más ligero)
   const fetchUnreadCount = useCallback(async () => {
     if (!isAuthenticated) return;
@@ -39,19 +55,47 @@ export const NotificationProvider = ({ children }) => {
     }
   }, [isAuthenticated]);
 
-  // Polling automático para actualizar notificaciones
+  // Canal en vivo (SSE); si se cae, se vuelve al polling hasta reconectar
   useEffect(() => {
     if (!isAuthenticated) return;
 
     // Cargar inicialmente
     fetchNotifications();
-
-    // Configurar polling
-    const intervalId = setInterval(() => {
-      fetchUnreadCount();
-    }, POLLING_INTERVAL);
-
-    return () => clearInterval(intervalId);
+    fetchUnreadCount();
+
+    let closeStream = null;
+    let intervalId = null;
+    let retryId = null;
+
+    const connect = () => {
+      closeStream = notificationService.openStream({
+        onNotification: (notification) => {
+          clearInterval(intervalId);
+          intervalId = null;
+          setNotifications((prev) =>
+            [notification, ...prev.filter((n) => n.id !== notification.id)]
+          );
+        },
+        onUnreadCount: (count) => {
+          clearInterval(intervalId);
+          intervalId = null;
+          setUnreadCount(count);
+        },
+        onError: () => {
+          if (!intervalId) {
+            intervalId = setInterval(fetchUnreadCount, POLLING_INTERVAL);
+          }
+          retryId = setTimeout(connect, POLLING_INTERVAL);
+        },
+      });
+    };
+    connect();
+
+    return () => {
+      closeStream?.();
+      clearInterval(intervalId);
+      clearTimeout(retryId);
+    };
   }, [isAuthenticated, fetchNotifications, fetchUnreadCount]);
 
   // Marcar como leída
@@ -125,6 +169,8 @@ export const NotificationProvider = ({ children }) => {
     markAllAsRead,
     deleteNotification,
     refresh,
+    loadMore,
+    hasMore: Boolean(nextCursor),
   };
 
   return (
@@ -23,6 +23,8 @@ const NotificationsPage = () => {
     markAllAsRead,
     deleteNotification,
     refresh,
+    loadMore,
+    hasMore,
   } = useNotifications();
 
   const [filter, setFilter] = useState('all'); // all, unread, read
@@ -182,7 +184,7 @@ const NotificationsPage = () => {
           size="sm"
           onClick={() => setFilter('read')}
         >
-          Leídas ({notifications.length - unreadCount})
+          Leídas ({notifications.filter((n) => n.isRead).length})
         </Button>
       </div>
 
@@ -274,6 +276,14 @@ const NotificationsPage = () => {
           })}
         </div>
       )}
+
+      {hasMore && (
+        <div className="mt-6 flex justify-center">
+          <Button variant="outline" size="sm" onClick={loadMore}>
+            Cargar anteriores
+          </Button>
+        </div>
+      )}
     </div>
   );
 };